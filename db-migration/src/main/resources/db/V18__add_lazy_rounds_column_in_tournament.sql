@@ -0,0 +1,12 @@
+-- Add lazy_rounds column in tournament table
+
+DROP PROCEDURE IF EXISTS ADD_LAZY_ROUNDS_TO_TOURNAMENT;
+CREATE PROCEDURE ADD_LAZY_ROUNDS_TO_TOURNAMENT()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE tournament
+    ADD COLUMN lazy_rounds boolean NOT NULL DEFAULT false;
+END $$;
+CALL ADD_LAZY_ROUNDS_TO_TOURNAMENT();
+DROP PROCEDURE ADD_LAZY_ROUNDS_TO_TOURNAMENT;
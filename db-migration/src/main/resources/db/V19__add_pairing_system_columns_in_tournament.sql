@@ -0,0 +1,13 @@
+-- Add pairing_system and rounds_count columns in tournament table
+
+DROP PROCEDURE IF EXISTS ADD_PAIRING_SYSTEM_TO_TOURNAMENT;
+CREATE PROCEDURE ADD_PAIRING_SYSTEM_TO_TOURNAMENT()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE tournament
+    ADD COLUMN pairing_system varchar(255) NOT NULL DEFAULT 'ROUND_ROBIN',
+    ADD COLUMN rounds_count int;
+END $$;
+CALL ADD_PAIRING_SYSTEM_TO_TOURNAMENT();
+DROP PROCEDURE ADD_PAIRING_SYSTEM_TO_TOURNAMENT;
@@ -0,0 +1,46 @@
+-- Replace ghost players with bye matches: a bye is a match flagged with is_bye whose result has no second player
+
+DROP PROCEDURE IF EXISTS REPLACE_GHOST_PLAYERS_WITH_BYES;
+CREATE PROCEDURE REPLACE_GHOST_PLAYERS_WITH_BYES()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE match
+    ADD COLUMN is_bye boolean NOT NULL DEFAULT false;
+
+CREATE TEMPORARY TABLE ghost_player ON COMMIT DROP AS
+    SELECT id FROM users WHERE email LIKE 'GHOST_EMAIL_%';
+
+UPDATE match SET is_bye = true
+    FROM match_result
+    WHERE match.match_result_id = match_result.id
+      AND (match_result.first_player_id IN (SELECT id FROM ghost_player)
+        OR match_result.second_player_id IN (SELECT id FROM ghost_player));
+
+-- The player receiving the bye always becomes the first player of the result
+UPDATE match_result
+    SET first_player_id = second_player_id,
+        first_player_result = second_player_result,
+        second_player_id = NULL,
+        second_player_result = NULL,
+        result = 'FIRST'
+    WHERE first_player_id IN (SELECT id FROM ghost_player);
+
+UPDATE match_result
+    SET second_player_id = NULL,
+        second_player_result = NULL,
+        result = 'FIRST'
+    WHERE second_player_id IN (SELECT id FROM ghost_player);
+
+DELETE FROM match_player
+    WHERE first_player_id IN (SELECT id FROM ghost_player)
+       OR second_player_id IN (SELECT id FROM ghost_player);
+
+DELETE FROM tournament_user WHERE user_id IN (SELECT id FROM ghost_player);
+
+DELETE FROM users WHERE id IN (SELECT id FROM ghost_player);
+
+CREATE INDEX match_tournament_id_bye_idx ON match (tournament_id) WHERE is_bye;
+END $$;
+CALL REPLACE_GHOST_PLAYERS_WITH_BYES();
+DROP PROCEDURE REPLACE_GHOST_PLAYERS_WITH_BYES;
@@ -0,0 +1,21 @@
+-- Create the table tracking the background jobs that start tournaments
+
+DROP TABLE IF EXISTS tournament_start_job CASCADE;
+
+CREATE TABLE IF NOT EXISTS tournament_start_job (
+    id serial NOT NULL PRIMARY KEY,
+    job_key varchar(300) NOT NULL UNIQUE,
+    tournament_id int NOT NULL,
+    state varchar(10) NOT NULL,
+    total_rounds int NOT NULL DEFAULT 0,
+    rounds_written int NOT NULL DEFAULT 0,
+    matches_written int NOT NULL DEFAULT 0,
+    error varchar(255),
+    created_date timestamp NOT NULL,
+    updated_date timestamp NOT NULL
+);
+
+ALTER TABLE tournament_start_job
+ADD FOREIGN KEY (tournament_id) REFERENCES tournament(id);
+
+CREATE INDEX tournament_start_job_state_idx ON tournament_start_job (state);
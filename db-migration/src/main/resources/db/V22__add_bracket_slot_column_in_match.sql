@@ -0,0 +1,14 @@
+-- Add bracket_slot column in match table, the slot of a knockout match numbered like a binary heap
+
+DROP PROCEDURE IF EXISTS ADD_BRACKET_SLOT_TO_MATCH;
+CREATE PROCEDURE ADD_BRACKET_SLOT_TO_MATCH()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE match
+    ADD COLUMN bracket_slot int;
+
+CREATE UNIQUE INDEX match_round_id_bracket_slot_idx ON match (round_id, bracket_slot) WHERE bracket_slot IS NOT NULL;
+END $$;
+CALL ADD_BRACKET_SLOT_TO_MATCH();
+DROP PROCEDURE ADD_BRACKET_SLOT_TO_MATCH;
@@ -0,0 +1,11 @@
+-- Add an index on the players ordered by score, best first, for the keyset pagination of the overall leaderboard
+
+DROP PROCEDURE IF EXISTS ADD_SCORE_INDEX_TO_USERS;
+CREATE PROCEDURE ADD_SCORE_INDEX_TO_USERS()
+    language plpgsql
+as $$
+BEGIN
+CREATE INDEX users_score_id_idx ON users (score DESC, id) WHERE type = 'player';
+END $$;
+CALL ADD_SCORE_INDEX_TO_USERS();
+DROP PROCEDURE ADD_SCORE_INDEX_TO_USERS;
@@ -0,0 +1,37 @@
+-- Add the Glicko-2 rating of the players, the time matches end at and the table keeping every rating change
+
+DROP PROCEDURE IF EXISTS ADD_RATING_TO_USERS;
+CREATE PROCEDURE ADD_RATING_TO_USERS()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE users
+    ADD COLUMN rating double precision NOT NULL DEFAULT 1500,
+    ADD COLUMN rating_deviation double precision NOT NULL DEFAULT 350,
+    ADD COLUMN rating_volatility double precision NOT NULL DEFAULT 0.06;
+
+ALTER TABLE match
+    ADD COLUMN end_date timestamp;
+END $$;
+CALL ADD_RATING_TO_USERS();
+DROP PROCEDURE ADD_RATING_TO_USERS;
+
+DROP TABLE IF EXISTS rating_history CASCADE;
+
+CREATE TABLE IF NOT EXISTS rating_history (
+    id serial NOT NULL PRIMARY KEY,
+    user_id int NOT NULL,
+    match_id int,
+    rating double precision NOT NULL,
+    rating_deviation double precision NOT NULL,
+    rating_volatility double precision NOT NULL,
+    rated_date timestamp NOT NULL
+);
+
+ALTER TABLE rating_history
+ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE rating_history
+ADD FOREIGN KEY (match_id) REFERENCES match(id) ON DELETE SET NULL;
+
+CREATE INDEX rating_history_user_id_rated_date_idx ON rating_history (user_id, rated_date);
@@ -0,0 +1,31 @@
+-- Create the table keeping the standings of every round of a tournament as they were when the round ended
+
+DROP TABLE IF EXISTS standings_snapshot CASCADE;
+
+CREATE TABLE IF NOT EXISTS standings_snapshot (
+    id serial NOT NULL PRIMARY KEY,
+    tournament_id int NOT NULL,
+    round_id int NOT NULL,
+    round_number int NOT NULL,
+    user_id int NOT NULL,
+    rank int NOT NULL,
+    score double precision NOT NULL,
+    buchholz double precision NOT NULL,
+    sonneborn_berger double precision NOT NULL,
+    median_buchholz double precision NOT NULL,
+    games_played int NOT NULL,
+    created_date timestamp NOT NULL
+);
+
+ALTER TABLE standings_snapshot
+ADD FOREIGN KEY (tournament_id) REFERENCES tournament(id) ON DELETE CASCADE;
+
+ALTER TABLE standings_snapshot
+ADD FOREIGN KEY (round_id) REFERENCES round(id) ON DELETE CASCADE;
+
+ALTER TABLE standings_snapshot
+ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+CREATE UNIQUE INDEX standings_snapshot_round_id_user_id_idx ON standings_snapshot (round_id, user_id);
+CREATE INDEX standings_snapshot_tournament_id_round_number_rank_idx ON standings_snapshot (tournament_id, round_number, rank);
+CREATE INDEX standings_snapshot_user_id_tournament_id_idx ON standings_snapshot (user_id, tournament_id);
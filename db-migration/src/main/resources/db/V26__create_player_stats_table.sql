@@ -0,0 +1,54 @@
+-- Add the table keeping the match statistics of every player, so searches join them instead of counting matches
+
+DROP TABLE IF EXISTS player_stats CASCADE;
+
+CREATE TABLE IF NOT EXISTS player_stats (
+    user_id int NOT NULL PRIMARY KEY,
+    matches int NOT NULL DEFAULT 0,
+    games int NOT NULL DEFAULT 0,
+    wins int NOT NULL DEFAULT 0,
+    draws int NOT NULL DEFAULT 0,
+    losses int NOT NULL DEFAULT 0,
+    last_played_date timestamp
+);
+
+ALTER TABLE player_stats
+ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+INSERT INTO player_stats (user_id, matches, games, wins, draws, losses, last_played_date)
+SELECT u.id,
+       COALESCE(scheduled.matches, 0),
+       COALESCE(played.games, 0),
+       COALESCE(played.wins, 0),
+       COALESCE(played.draws, 0),
+       COALESCE(played.losses, 0),
+       played.last_played_date
+FROM users u
+LEFT JOIN (
+    SELECT player_id, count(*) AS matches
+    FROM (SELECT first_player_id AS player_id FROM match_player
+          UNION ALL
+          SELECT second_player_id FROM match_player) pairs
+    GROUP BY player_id
+) scheduled ON scheduled.player_id = u.id
+LEFT JOIN (
+    SELECT player_id,
+           count(*) AS games,
+           count(*) FILTER (WHERE points = 1) AS wins,
+           count(*) FILTER (WHERE points = 0.5) AS draws,
+           count(*) FILTER (WHERE points = 0) AS losses,
+           max(played_date) AS last_played_date
+    FROM (SELECT r.first_player_id AS player_id,
+                 CASE r.result WHEN 'FIRST' THEN 1 WHEN 'DRAW' THEN 0.5 ELSE 0 END AS points,
+                 COALESCE(m.end_date, m.start_date) AS played_date
+          FROM match m JOIN match_result r ON r.id = m.match_result_id
+          WHERE m.state = 'ENDED' AND m.is_bye = false AND r.second_player_id IS NOT NULL AND r.result IS NOT NULL
+          UNION ALL
+          SELECT r.second_player_id,
+                 CASE r.result WHEN 'SECOND' THEN 1 WHEN 'DRAW' THEN 0.5 ELSE 0 END,
+                 COALESCE(m.end_date, m.start_date)
+          FROM match m JOIN match_result r ON r.id = m.match_result_id
+          WHERE m.state = 'ENDED' AND m.is_bye = false AND r.second_player_id IS NOT NULL AND r.result IS NOT NULL) results
+    GROUP BY player_id
+) played ON played.player_id = u.id
+WHERE u.type = 'player';
@@ -0,0 +1,37 @@
+-- Add the table keeping the games of every pair of players that met, keyed by the lower and the higher player id
+
+DROP TABLE IF EXISTS head_to_head CASCADE;
+
+CREATE TABLE IF NOT EXISTS head_to_head (
+    lower_player_id int NOT NULL,
+    higher_player_id int NOT NULL,
+    games int NOT NULL DEFAULT 0,
+    lower_player_wins int NOT NULL DEFAULT 0,
+    higher_player_wins int NOT NULL DEFAULT 0,
+    draws int NOT NULL DEFAULT 0,
+    last_played_date timestamp,
+    PRIMARY KEY (lower_player_id, higher_player_id),
+    CHECK (lower_player_id < higher_player_id)
+);
+
+ALTER TABLE head_to_head
+ADD FOREIGN KEY (lower_player_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE head_to_head
+ADD FOREIGN KEY (higher_player_id) REFERENCES users(id) ON DELETE CASCADE;
+
+CREATE INDEX head_to_head_higher_player_id_idx ON head_to_head (higher_player_id);
+
+INSERT INTO head_to_head (lower_player_id, higher_player_id, games, lower_player_wins, higher_player_wins, draws, last_played_date)
+SELECT LEAST(r.first_player_id, r.second_player_id),
+       GREATEST(r.first_player_id, r.second_player_id),
+       count(*),
+       count(*) FILTER (WHERE (r.result = 'FIRST' AND r.first_player_id < r.second_player_id)
+                           OR (r.result = 'SECOND' AND r.second_player_id < r.first_player_id)),
+       count(*) FILTER (WHERE (r.result = 'FIRST' AND r.first_player_id > r.second_player_id)
+                           OR (r.result = 'SECOND' AND r.second_player_id > r.first_player_id)),
+       count(*) FILTER (WHERE r.result = 'DRAW'),
+       max(COALESCE(m.end_date, m.start_date))
+FROM match m JOIN match_result r ON r.id = m.match_result_id
+WHERE m.state = 'ENDED' AND m.is_bye = false AND r.second_player_id IS NOT NULL AND r.result IS NOT NULL
+GROUP BY LEAST(r.first_player_id, r.second_player_id), GREATEST(r.first_player_id, r.second_player_id);
@@ -0,0 +1,12 @@
+-- Add indexes on the players of the match pairs, so the results of a player are read without scanning the tournament
+
+DROP PROCEDURE IF EXISTS ADD_PLAYER_INDEXES_TO_MATCH_PLAYER;
+CREATE PROCEDURE ADD_PLAYER_INDEXES_TO_MATCH_PLAYER()
+    language plpgsql
+as $$
+BEGIN
+CREATE INDEX match_player_first_player_id_tournament_id_idx ON match_player (first_player_id, tournament_id);
+CREATE INDEX match_player_second_player_id_tournament_id_idx ON match_player (second_player_id, tournament_id);
+END $$;
+CALL ADD_PLAYER_INDEXES_TO_MATCH_PLAYER();
+DROP PROCEDURE ADD_PLAYER_INDEXES_TO_MATCH_PLAYER;
@@ -0,0 +1,16 @@
+-- Add pending_matches column in round table, the matches of the round that did not end yet
+
+DROP PROCEDURE IF EXISTS ADD_PENDING_MATCHES_TO_ROUND;
+CREATE PROCEDURE ADD_PENDING_MATCHES_TO_ROUND()
+    language plpgsql
+as $$
+BEGIN
+ALTER TABLE round
+    ADD COLUMN pending_matches int NOT NULL DEFAULT 0;
+
+UPDATE round SET pending_matches = pending.matches
+FROM (SELECT round_id, count(*) AS matches FROM match WHERE state <> 'ENDED' GROUP BY round_id) pending
+WHERE round.id = pending.round_id;
+END $$;
+CALL ADD_PENDING_MATCHES_TO_ROUND();
+DROP PROCEDURE ADD_PENDING_MATCHES_TO_ROUND;
@@ -0,0 +1,20 @@
+-- Key match_player on its match, so the same two players can meet more than once in a tournament, as in arenas
+
+DROP PROCEDURE IF EXISTS KEY_MATCH_PLAYER_ON_MATCH_ID;
+CREATE PROCEDURE KEY_MATCH_PLAYER_ON_MATCH_ID()
+    language plpgsql
+as $$
+DECLARE
+    unique_constraint record;
+BEGIN
+FOR unique_constraint IN
+    SELECT conname FROM pg_constraint WHERE conrelid = 'match_player'::regclass AND contype = 'u'
+LOOP
+    EXECUTE 'ALTER TABLE match_player DROP CONSTRAINT ' || quote_ident(unique_constraint.conname);
+END LOOP;
+
+ALTER TABLE match_player
+    ADD UNIQUE (match_id);
+END $$;
+CALL KEY_MATCH_PLAYER_ON_MATCH_ID();
+DROP PROCEDURE KEY_MATCH_PLAYER_ON_MATCH_ID;
@@ -39,6 +39,9 @@ public class ApplicationConfig extends ResourceConfig {
         register(MultiPartFeature.class);
         register(TournamentController.class);
         register(MatchController.class);
+        register(RatingController.class);
+        register(PlayerController.class);
+        register(WebSocketController.class);
 
         register(new AbstractBinder(){
             @Override
@@ -0,0 +1,70 @@
+package com.api.controller;
+
+import com.api.config.Anonymous;
+import com.api.output.HeadToHeadJSON;
+import com.api.service.HeadToHeadService;
+import com.exception.ExceptionHandler;
+import com.util.async.Computation;
+import com.util.async.ExecutorsProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.Serializable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+@Tag(description = "Player API", name = "Player")
+@Path("/player/")
+public class PlayerController {
+    private final HeadToHeadService headToHeadService;
+
+    @Autowired
+    public PlayerController(HeadToHeadService headToHeadService) {
+        this.headToHeadService = headToHeadService;
+    }
+
+    @GET
+    @Path("head-to-head")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get the head-to-head record of two players",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the games the two players played against each other " +
+                            "across all tournaments, with the wins of each and the draws, from the point of view of the first player.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = HeadToHeadJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Player not found!"),
+                    @ApiResponse(responseCode = "422", description = "Business error."),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @Anonymous
+    public void getHeadToHead(@Valid @NotNull(message = "First player key must be provided.")
+                              @QueryParam("first_player_key") String firstPlayerKey,
+                              @Valid @NotNull(message = "Second player key must be provided.")
+                              @QueryParam("second_player_key") String secondPlayerKey,
+                              @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getHeadToHead(firstPlayerKey, secondPlayerKey), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getHeadToHead(String firstPlayerKey, String secondPlayerKey) {
+        return headToHeadService.getHeadToHead(firstPlayerKey, secondPlayerKey);
+    }
+}
@@ -0,0 +1,91 @@
+package com.api.controller;
+
+import com.api.output.RatingRecomputeJSON;
+import com.api.service.RatingService;
+import com.exception.ExceptionHandler;
+import com.util.async.Computation;
+import com.util.async.ExecutorsProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.Serializable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+@Tag(description = "Rating API", name = "Rating")
+@Path("/rating/")
+public class RatingController {
+    private final RatingService ratingService;
+
+    @Autowired
+    public RatingController(RatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    @POST
+    @Path("recompute")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    @Operation(summary = "Recompute all ratings",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Starts recomputing the ratings of all players from every game " +
+                            "played, in the background, and returns a JSON of the recompute. If a recompute is already running, it is returned instead. " +
+                            "The recompute rates weekly periods and grows the deviation of idle players, unlike the live rating of every game, " +
+                            "so it changes the ratings even when no game is missing. Tournaments cannot be started while it runs.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = RatingRecomputeJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "422", description = "Ratings cannot be recomputed while tournaments are being played or started!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    public void startRecompute(@Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> startRecompute(), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable startRecompute() {
+        return ratingService.startRecompute();
+    }
+
+    @GET
+    @Path("recompute")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    @Operation(summary = "Get rating recompute status",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the state of the last recompute and " +
+                            "how many games, rating periods and players it rated so far.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = RatingRecomputeJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Ratings were not recomputed yet!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    public void getRecompute(@Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getRecompute(), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getRecompute() {
+        return ratingService.getRecompute();
+    }
+}
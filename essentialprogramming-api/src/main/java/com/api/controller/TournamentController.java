@@ -3,11 +3,16 @@ package com.api.controller;
 import com.api.config.Anonymous;
 import com.api.model.*;
 import com.api.output.*;
+import com.api.service.LeaderboardService;
+import com.api.service.StandingsService;
 import com.api.service.TournamentService;
+import com.api.service.TournamentStartJobService;
 import com.util.async.ExecutorsProvider;
 import com.exception.ExceptionHandler;
 import com.util.async.Computation;
 import com.util.exceptions.ApiException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +21,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.client.HttpClientErrorException;
 
 import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
@@ -25,7 +31,10 @@ import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.security.GeneralSecurityException;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -36,6 +45,11 @@ import java.util.concurrent.ExecutorService;
 public class TournamentController {
 
     private final TournamentService tournamentService;
+    private final TournamentStartJobService tournamentStartJobService;
+    private final LeaderboardService leaderboardService;
+    private final StandingsService standingsService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @POST
     @Path("/create")
@@ -124,15 +138,17 @@ public class TournamentController {
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
     @Operation(description = "The tournament needs to have registered players before it's started, " +
-            "it will throw an error otherwise.",
+            "it will throw an error otherwise. The rounds and matches are generated in the background, " +
+            "the progress is pushed through the WebSocket and can be polled with the job key.",
             summary = "Generate tournament rounds and matches",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Starts tournament, generates rounds and matches " +
-                            "and returns a list of JSONs containing the rounds.",
+                    @ApiResponse(responseCode = "202", description = "Closes the registration, queues the job " +
+                            "generating the rounds and matches and returns a JSON of the job.",
                             content = @Content(mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation =  RoundJSON.class)))),
+                                    schema = @Schema(implementation = TournamentStartJobJSON.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized."),
                     @ApiResponse(responseCode = "422", description = "This tournament currently has no participants!"),
+                    @ApiResponse(responseCode = "422", description = "Tournaments cannot be started while ratings are being recomputed!"),
                     @ApiResponse(responseCode = "500", description = "Internal server error.")
             })
     public void startTournament(@Valid @NotNull(message = "Tournament key must be provided.")
@@ -141,14 +157,73 @@ public class TournamentController {
 
         ExecutorService executorService = ExecutorsProvider.getExecutorService();
         Computation.computeAsync(() -> startTournament(tournamentKey), executorService)
-                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.accepted(json).build()), executorService)
                 .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
     }
 
     public Serializable startTournament(String tournamentKey) {
-        tournamentService.startTournament(tournamentKey);
+        TournamentStartJobJSON job = tournamentStartJobService.createJob(tournamentKey);
+        tournamentStartJobService.runJob(job.getJobKey());
+
+        return job;
+    }
+
+    @GET
+    @Path("start/preview")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    @Operation(description = "Nothing is written, the tournament can still be changed afterwards. " +
+            "Previews are cached until the participants or the pairing settings change.",
+            summary = "Preview tournament rounds and matches",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns a list of JSONs containing the rounds " +
+                            "the tournament would get if it was started now.",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = RoundJSON.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "422", description = "This tournament currently has no participants!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    public void previewSchedule(@Valid @NotNull(message = "Tournament key must be provided.")
+                                @QueryParam("tournament_key") String tournamentKey,
+                                @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> previewSchedule(tournamentKey), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    public Serializable previewSchedule(String tournamentKey) {
+        return (Serializable) tournamentService.previewSchedule(tournamentKey);
+    }
+
+    @GET
+    @Path("start/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    @Operation(summary = "Get the progress of a tournament start",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the state of the start job and " +
+                            "how many rounds and matches it wrote so far.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = TournamentStartJobJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Job not found!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    public void getStartStatus(@Valid @NotNull(message = "Job key must be provided.")
+                               @QueryParam("job_key") String jobKey,
+                               @Suspended AsyncResponse asyncResponse) {
 
-        return (Serializable) tournamentService.getGeneratedRounds(tournamentKey);
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getStartStatus(jobKey), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    public Serializable getStartStatus(String jobKey) {
+        return tournamentStartJobService.getJob(jobKey);
     }
 
     @POST
@@ -239,25 +314,27 @@ public class TournamentController {
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(summary = "Get overall leaderboard",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Gets the players from all tournaments ordered by their score," +
-                            " and returns a list of JSONs containing the players.",
+                    @ApiResponse(responseCode = "200", description = "Gets a page of the players from all tournaments ordered by their score," +
+                            " and returns the players with the cursor of the next page, null on the last page.",
                             content = @Content(mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation =  PlayerJSON.class)))),
+                                    schema = @Schema(implementation = LeaderboardPageJSON.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized."),
                     @ApiResponse(responseCode = "422", description = "Business error."),
                     @ApiResponse(responseCode = "500", description = "Internal server error.")
             })
     @Anonymous
-    public void getOverallLeaderboard(@Suspended AsyncResponse asyncResponse) {
+    public void getOverallLeaderboard(@QueryParam("cursor") String cursor,
+                                      @QueryParam("limit") Integer limit,
+                                      @Suspended AsyncResponse asyncResponse) {
 
         ExecutorService executorService = ExecutorsProvider.getExecutorService();
-        Computation.computeAsync(() -> getOverallLeaderboard(), executorService)
+        Computation.computeAsync(() -> getOverallLeaderboard(cursor, limit), executorService)
                 .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
                 .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
     }
 
-    private Serializable getOverallLeaderboard() {
-        return (Serializable) tournamentService.getOverallLeaderboard();
+    private Serializable getOverallLeaderboard(String cursor, Integer limit) {
+        return leaderboardService.getOverallLeaderboard(cursor, limit);
     }
 
     @GET
@@ -265,25 +342,110 @@ public class TournamentController {
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(summary = "Get tournament leaderboard for a specific tournament",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Gets the players from the given tournament ordered by their score, " +
-                            "and returns a list of JSONs containing the players.",
+                    @ApiResponse(responseCode = "200", description = "Gets the players from the given tournament ordered by their score and tiebreaks " +
+                            "(Buchholz, Sonneborn-Berger, median Buchholz), the best ones only if a limit is given, and returns a list of JSONs containing the standings.",
                             content = @Content(mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation =  PlayerJSON.class)))),
+                                    array = @ArraySchema(schema = @Schema(implementation =  StandingJSON.class)))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized."),
                     @ApiResponse(responseCode = "422", description = "Business error."),
                     @ApiResponse(responseCode = "500", description = "Internal server error.")
             })
     @Anonymous
     public void getTournamentLeaderboard(@Valid @NotNull(message = "Tournament key must be provided.")
-                                         @PathParam("tournamentKey") String tournamentKey, @Suspended AsyncResponse asyncResponse) {
+                                         @PathParam("tournamentKey") String tournamentKey,
+                                         @QueryParam("limit") Integer limit,
+                                         @Suspended AsyncResponse asyncResponse) {
 
         ExecutorService executorService = ExecutorsProvider.getExecutorService();
-        Computation.computeAsync(() -> getTournamentLeaderboard(tournamentKey), executorService)
+        Computation.computeAsync(() -> getTournamentLeaderboard(tournamentKey, limit), executorService)
                 .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
                 .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
     }
 
-    private Serializable getTournamentLeaderboard(String tournamentKey) { return (Serializable) tournamentService.getTemporaryLeaderboard(tournamentKey); }
+    private Serializable getTournamentLeaderboard(String tournamentKey, Integer limit) { return (Serializable) leaderboardService.getTop(tournamentKey, limit); }
+
+    @GET
+    @Path("leaderboard/{tournamentKey}/rank")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get the rank of a player in a tournament leaderboard",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the rank and the score of the player in the tournament.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = LeaderboardRankJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Tournament or player not found!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @Anonymous
+    public void getLeaderboardRank(@Valid @NotNull(message = "Tournament key must be provided.")
+                                   @PathParam("tournamentKey") String tournamentKey,
+                                   @Valid @NotNull(message = "Player key must be provided.")
+                                   @QueryParam("player_key") String playerKey,
+                                   @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getLeaderboardRank(tournamentKey, playerKey), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getLeaderboardRank(String tournamentKey, String playerKey) { return leaderboardService.getRank(tournamentKey, playerKey); }
+
+    @GET
+    @Path("standings")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get the standings of a tournament after a round",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Gets the standings kept when the given round of the tournament ended, " +
+                            "ordered by rank, and returns a list of JSONs containing the standings.",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = StandingJSON.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Tournament not found or no standings were kept for the round!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @Anonymous
+    public void getStandings(@Valid @NotNull(message = "Tournament key must be provided.")
+                             @QueryParam("tournament_key") String tournamentKey,
+                             @Valid @NotNull(message = "Round must be provided.")
+                             @QueryParam("round") Integer roundNumber,
+                             @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getStandings(tournamentKey, roundNumber), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getStandings(String tournamentKey, Integer roundNumber) { return (Serializable) standingsService.getStandings(tournamentKey, roundNumber); }
+
+    @GET
+    @Path("standings/progression")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get the rank of a player after every round of a tournament",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Gets the rank and the score of the player after every ended round of the tournament, " +
+                            "ordered by round.",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = RoundRankJSON.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Tournament not found!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @Anonymous
+    public void getRankProgression(@Valid @NotNull(message = "Tournament key must be provided.")
+                                   @QueryParam("tournament_key") String tournamentKey,
+                                   @Valid @NotNull(message = "Player key must be provided.")
+                                   @QueryParam("player_key") String playerKey,
+                                   @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getRankProgression(tournamentKey, playerKey), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getRankProgression(String tournamentKey, String playerKey) { return (Serializable) standingsService.getRankProgression(tournamentKey, playerKey); }
 
     @GET
     @Path("round")
@@ -390,6 +552,45 @@ public class TournamentController {
 
     public Serializable getResults(String tournamentKey, String playerKey) { return (Serializable) tournamentService.getPlayerResults(tournamentKey, playerKey); }
 
+    @GET
+    @Path("player/results/stream")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream a player's results from a tournament",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Streams all the match results of a player as they are read, " +
+                            "for long histories, as a list of JSONs containing the results.",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation =  MatchResultJSON.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "404", description = "Tournament or player not found!"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @Anonymous
+    public Response streamResults(@Valid @NotNull(message = "Tournament key can't be null!") @QueryParam("tournament_key") String tournamentKey,
+                                  @Valid @NotNull(message = "Player key can't be null!") @QueryParam("player_key") String playerKey) {
+
+        StreamingOutput results = outputStream -> {
+            //Closing the generator leaves the response open and a failed stream unterminated
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                tournamentService.streamPlayerResults(tournamentKey, playerKey, result -> {
+                    try {
+                        objectMapper.writeValue(generator, result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (HttpClientErrorException e) {
+                //Thrown before any result is written, so the response can still carry the error
+                throw new WebApplicationException(ExceptionHandler.handleException(new CompletionException(e)));
+            }
+        };
+        return Response.ok(results).build();
+    }
+
     @GET
     @Path("active-round/summary")
     @Operation(summary = "Get summary of the active round from a tournament",
@@ -416,6 +617,33 @@ public class TournamentController {
         return tournamentService.getActiveRound(tournamentKey);
     }
 
+    @GET
+    @Path("pairing/strategies")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "List pairing strategies",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns every pairing strategy with its mode, " +
+                            "the number of rounds and the estimated pairing cost for the given number of players.",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = PairingStrategyJSON.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "422", description = "Less than two players."),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    public void getPairingStrategies(@QueryParam("players_count") int playersCount,
+                                     @Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(() -> getPairingStrategies(playersCount), executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    public Serializable getPairingStrategies(int playersCount) {
+        return (Serializable) tournamentService.getPairingStrategies(playersCount);
+    }
+
     @POST
     @Path("registration/set")
     @Produces(MediaType.APPLICATION_JSON)
@@ -0,0 +1,54 @@
+package com.api.controller;
+
+import com.api.output.WebSocketStatsJSON;
+import com.api.service.WebSocketManager;
+import com.exception.ExceptionHandler;
+import com.util.async.Computation;
+import com.util.async.ExecutorsProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.Serializable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+@Tag(description = "WebSocket API", name = "WebSocket")
+@Path("/websocket/")
+public class WebSocketController {
+
+    @GET
+    @Path("stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"ADMIN", "SUPER_ADMIN"})
+    @Operation(summary = "Get the state of the WebSocket connections",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the open sessions and topics, the messages " +
+                            "waiting in the outbound queues and what the slow consumer policy dropped, coalesced or disconnected.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = WebSocketStatsJSON.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized."),
+                    @ApiResponse(responseCode = "500", description = "Internal server error.")
+            })
+    public void getStats(@Suspended AsyncResponse asyncResponse) {
+
+        ExecutorService executorService = ExecutorsProvider.getExecutorService();
+        Computation.computeAsync(this::getStats, executorService)
+                .thenApplyAsync(json -> asyncResponse.resume(Response.ok(json).build()), executorService)
+                .exceptionally(error -> asyncResponse.resume(ExceptionHandler.handleException((CompletionException) error)));
+    }
+
+    private Serializable getStats() {
+        return WebSocketManager.getStats();
+    }
+}
@@ -0,0 +1,39 @@
+package com.api.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The games two players played against each other, across tournaments. A pair is stored once, under the lower
+ * and the higher of the two player ids, and its counters are kept up to date as results are applied.
+ * Only written by the HeadToHeadService.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "head_to_head")
+public class HeadToHead {
+
+    @EmbeddedId
+    private HeadToHeadKey id;
+
+    @Column(name = "games", nullable = false)
+    private int games;
+
+    @Column(name = "lower_player_wins", nullable = false)
+    private int lowerPlayerWins;
+
+    @Column(name = "higher_player_wins", nullable = false)
+    private int higherPlayerWins;
+
+    @Column(name = "draws", nullable = false)
+    private int draws;
+
+    @Column(name = "last_played_date")
+    private LocalDateTime lastPlayedDate;
+}
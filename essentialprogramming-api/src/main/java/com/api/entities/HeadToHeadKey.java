@@ -0,0 +1,45 @@
+package com.api.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadToHeadKey implements Serializable {
+
+    @Column(name = "lower_player_id")
+    private int lowerPlayerId;
+
+    @Column(name = "higher_player_id")
+    private int higherPlayerId;
+
+    /**
+     * @return the key of the two players, whatever order they are given in
+     */
+    public static HeadToHeadKey of(int firstPlayerId, int secondPlayerId) {
+        return new HeadToHeadKey(Math.min(firstPlayerId, secondPlayerId), Math.max(firstPlayerId, secondPlayerId));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HeadToHeadKey that = (HeadToHeadKey) o;
+        return lowerPlayerId == that.lowerPlayerId && higherPlayerId == that.higherPlayerId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lowerPlayerId, higherPlayerId);
+    }
+}
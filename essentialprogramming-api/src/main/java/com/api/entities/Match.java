@@ -30,6 +30,15 @@ public class Match {
     @Column(name="start_date")
     private LocalDateTime startDate;
 
+    @Column(name = "end_date")
+    private LocalDateTime endDate;
+
+    @Column(name = "is_bye", nullable = false)
+    private boolean bye;
+
+    @Column(name = "bracket_slot")
+    private Integer bracketSlot;
+
     @ManyToOne
     @JoinColumn(name = "round_id", referencedColumnName = "id", nullable = false)
     private Round round;
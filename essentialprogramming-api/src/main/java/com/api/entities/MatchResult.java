@@ -39,7 +39,7 @@ public class MatchResult {
     private Player firstPlayer;
 
     @OneToOne
-    @JoinColumn(name = "second_player_id", referencedColumnName = "id", nullable = false)
+    @JoinColumn(name = "second_player_id", referencedColumnName = "id")
     private Player secondPlayer;
 
 }
@@ -20,6 +20,21 @@ public class Player extends User{
     @Column(name = "score")
     private double score;
 
+    //Ratings start at the column defaults and are only written by the RatingService
+    @Column(name = "rating", insertable = false, updatable = false)
+    private double rating;
+
+    @Column(name = "rating_deviation", insertable = false, updatable = false)
+    private double ratingDeviation;
+
+    @Column(name = "rating_volatility", insertable = false, updatable = false)
+    private double ratingVolatility;
+
+    //Shares the id of the player, so it stays a lazy reference that searches join. The row may be missing
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id", referencedColumnName = "user_id", insertable = false, updatable = false)
+    private PlayerStats stats;
+
     @ManyToMany(mappedBy = "players")
     List<Tournament> playerTournaments;
 
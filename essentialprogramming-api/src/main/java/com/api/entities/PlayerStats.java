@@ -0,0 +1,43 @@
+package com.api.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The match statistics of a player, kept up to date as matches are scheduled and results applied rather than
+ * counted for every search. Players that never had a match scheduled may have no statistics yet.
+ * Only written by the PlayerStatsService.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "player_stats")
+public class PlayerStats {
+
+    @Id
+    @Column(name = "user_id", nullable = false, unique = true)
+    private int userId;
+
+    @Column(name = "matches", nullable = false)
+    private int matches;
+
+    @Column(name = "games", nullable = false)
+    private int games;
+
+    @Column(name = "wins", nullable = false)
+    private int wins;
+
+    @Column(name = "draws", nullable = false)
+    private int draws;
+
+    @Column(name = "losses", nullable = false)
+    private int losses;
+
+    @Column(name = "last_played_date")
+    private LocalDateTime lastPlayedDate;
+}
@@ -30,6 +30,10 @@ public class Round {
     @Column(name = "state")
     private GameState state;
 
+    //Counted down in the database as matches end, see RoundRepository.endMatch
+    @Column(name = "pending_matches", insertable = false, updatable = false)
+    private int pendingMatches;
+
     @ManyToOne
     @JoinColumn(name = "tournament_id", referencedColumnName = "id", nullable = false)
     private Tournament tournament;
@@ -0,0 +1,61 @@
+package com.api.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The standing of a player when a round ended. Snapshots are written once, when the tournament moves past the
+ * round, and never change.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "standings_snapshot")
+public class StandingsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true)
+    private int id;
+
+    @ManyToOne
+    @JoinColumn(name = "tournament_id", referencedColumnName = "id", nullable = false)
+    private Tournament tournament;
+
+    @ManyToOne
+    @JoinColumn(name = "round_id", referencedColumnName = "id", nullable = false)
+    private Round round;
+
+    @Column(name = "round_number", nullable = false)
+    private int roundNumber;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    private User user;
+
+    @Column(name = "rank", nullable = false)
+    private int rank;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    @Column(name = "buchholz", nullable = false)
+    private double buchholz;
+
+    @Column(name = "sonneborn_berger", nullable = false)
+    private double sonnebornBerger;
+
+    @Column(name = "median_buchholz", nullable = false)
+    private double medianBuchholz;
+
+    @Column(name = "games_played", nullable = false)
+    private int gamesPlayed;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+}
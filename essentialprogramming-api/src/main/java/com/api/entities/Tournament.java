@@ -1,6 +1,7 @@
 package com.api.entities;
 
 import com.api.model.GameState;
+import com.api.model.PairingSystem;
 import lombok.*;
 
 import javax.persistence.*;
@@ -36,6 +37,16 @@ public class Tournament {
     @Column(name = "state", nullable = false)
     private GameState state;
 
+    @Column(name = "lazy_rounds", nullable = false)
+    private boolean lazyRounds;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pairing_system", nullable = false)
+    private PairingSystem pairingSystem;
+
+    @Column(name = "rounds_count")
+    private Integer roundsCount;
+
     @OneToOne(cascade = CascadeType.PERSIST)
     @JoinColumn(name = "schedule_id", referencedColumnName = "id", nullable = false)
     private Schedule schedule;
@@ -0,0 +1,51 @@
+package com.api.entities;
+
+import com.api.model.JobState;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tournament_start_job")
+public class TournamentStartJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true)
+    private int id;
+
+    @Column(name = "job_key", nullable = false, unique = true)
+    private String jobKey;
+
+    @ManyToOne
+    @JoinColumn(name = "tournament_id", referencedColumnName = "id", nullable = false)
+    private Tournament tournament;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false)
+    private JobState state;
+
+    @Column(name = "total_rounds", nullable = false)
+    private int totalRounds;
+
+    @Column(name = "rounds_written", nullable = false)
+    private int roundsWritten;
+
+    @Column(name = "matches_written", nullable = false)
+    private int matchesWritten;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+}
@@ -0,0 +1,262 @@
+package com.api.leaderboard;
+
+import com.api.model.GameResult;
+import com.api.output.StandingJSON;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The standings of a tournament, kept sorted in memory by score, best first, then by the {@link Tiebreaks} and by
+ * player id. The entries live in a treap whose nodes count the size of their subtree, so a score update and the
+ * rank of a player both cost O(log n) and reading the top N costs O(N + log n).
+ * Scores only grow during a tournament, so an update carrying a lower score than the one held is stale and is
+ * ignored. Games are applied once by their match. This lets results committed concurrently be applied in any
+ * order.
+ */
+public final class Leaderboard {
+
+    private static final class Node {
+        private final LeaderboardEntry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(LeaderboardEntry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Random priorities = new Random();
+    private final Map<Integer, LeaderboardEntry> entries = new HashMap<>();
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final Set<Integer> matchIds = new HashSet<>();
+    private final Tiebreaks tiebreaks;
+    private Node root;
+
+    public Leaderboard(Collection<LeaderboardEntry> entries, Collection<GameResult> games) {
+        tiebreaks = new Tiebreaks(entries.size());
+        for (LeaderboardEntry entry : entries) {
+            tiebreaks.addPlayer(entry.getPlayerId(), entry.getScore());
+            put(entry);
+        }
+        games.forEach(this::addGame);
+    }
+
+    /**
+     * Sets the score of a player if it is higher than the one held.
+     *
+     * @return whether the leaderboard changed
+     */
+    public boolean raiseScore(int playerId, double score) {
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry entry = entries.get(playerId);
+            if (entry == null || score <= entry.getScore()) {
+                return false;
+            }
+            put(entry.withScore(score));
+            tiebreaks.setScore(playerId, score, this::updateTiebreaks);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a game to the tiebreaks of its players, unless it was already added.
+     *
+     * @return whether the leaderboard changed
+     */
+    public boolean addGame(GameResult game) {
+        lock.writeLock().lock();
+        try {
+            if (!matchIds.add(game.getMatchId())) {
+                return false;
+            }
+            tiebreaks.addGame(game.getFirstPlayerId(), game.getSecondPlayerId(), game.getFirstPlayerPoints(), this::updateTiebreaks);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the one based rank of the player, 0 if the player is not on the leaderboard
+     */
+    public int getRank(String playerKey) {
+        lock.readLock().lock();
+        try {
+            Integer playerId = playerIds.get(playerKey);
+            if (playerId == null) {
+                return 0;
+            }
+
+            LeaderboardEntry entry = entries.get(playerId);
+            int rank = 1;
+            Node node = root;
+            while (node != null) {
+                int comparison = compare(entry, node.entry);
+                if (comparison <= 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return rank;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<LeaderboardEntry> getEntry(String playerKey) {
+        lock.readLock().lock();
+        try {
+            Integer playerId = playerIds.get(playerKey);
+            return Optional.ofNullable(playerId != null ? entries.get(playerId) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param limit the number of players to return, the whole leaderboard if null
+     * @return the best players, best first
+     */
+    public List<StandingJSON> getTop(Integer limit) {
+        List<LeaderboardEntry> top = getEntries(limit);
+        List<StandingJSON> standings = new ArrayList<>(top.size());
+        for (LeaderboardEntry entry : top) {
+            standings.add(entry.toStandingJSON(standings.size() + 1));
+        }
+        return standings;
+    }
+
+    /**
+     * @param limit the number of entries to return, the whole leaderboard if null
+     * @return the entries of the best players, best first, so the rank of an entry is its position
+     */
+    public List<LeaderboardEntry> getEntries(Integer limit) {
+        lock.readLock().lock();
+        try {
+            int count = limit != null ? Math.min(limit, size(root)) : size(root);
+            List<LeaderboardEntry> top = new ArrayList<>(count);
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            while (top.size() < count) {
+                while (node != null) {
+                    path.push(node);
+                    node = node.left;
+                }
+                node = path.pop();
+                top.add(node.entry);
+                node = node.right;
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void updateTiebreaks(int playerId) {
+        put(entries.get(playerId).withTiebreaks(tiebreaks.getBuchholz(playerId), tiebreaks.getSonnebornBerger(playerId),
+                tiebreaks.getMedianBuchholz(playerId), tiebreaks.getGamesCount(playerId)));
+    }
+
+    private void put(LeaderboardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry previous = entries.put(entry.getPlayerId(), entry);
+            if (previous != null) {
+                Node[] lower = split(root, previous, false);
+                Node[] upper = split(lower[1], previous, true);
+                root = merge(lower[0], upper[1]);
+            }
+            playerIds.put(entry.getPlayerKey(), entry.getPlayerId());
+
+            Node[] parts = split(root, entry, false);
+            root = merge(merge(parts[0], new Node(entry, priorities.nextInt())), parts[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a subtree into the entries ranked before the given one and the others. With {@code inclusive} the
+     * given entry goes to the first part.
+     */
+    private static Node[] split(Node node, LeaderboardEntry entry, boolean inclusive) {
+        if (node == null) {
+            return new Node[2];
+        }
+
+        int comparison = compare(node.entry, entry);
+        if (comparison < 0 || (inclusive && comparison == 0)) {
+            Node[] parts = split(node.right, entry, inclusive);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+
+        Node[] parts = split(node.left, entry, inclusive);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static int compare(LeaderboardEntry first, LeaderboardEntry second) {
+        int comparison = Double.compare(second.getScore(), first.getScore());
+        if (comparison == 0) {
+            comparison = Double.compare(second.getBuchholz(), first.getBuchholz());
+        }
+        if (comparison == 0) {
+            comparison = Double.compare(second.getSonnebornBerger(), first.getSonnebornBerger());
+        }
+        if (comparison == 0) {
+            comparison = Double.compare(second.getMedianBuchholz(), first.getMedianBuchholz());
+        }
+        return comparison != 0 ? comparison : Integer.compare(first.getPlayerId(), second.getPlayerId());
+    }
+}
@@ -0,0 +1,63 @@
+package com.api.leaderboard;
+
+import com.api.output.PlayerJSON;
+import com.api.output.StandingJSON;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A player of a {@link Leaderboard} with the score and tiebreaks the player is ranked by, and the games played.
+ * Entries are immutable, a new score or new tiebreaks replace the entry.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    private final int playerId;
+    private final String playerKey;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final double score;
+    private final double buchholz;
+    private final double sonnebornBerger;
+    private final double medianBuchholz;
+    private final int gamesPlayed;
+
+    public LeaderboardEntry(int playerId, String playerKey, String email, String firstName, String lastName, double score) {
+        this(playerId, playerKey, email, firstName, lastName, score, 0, 0, 0, 0);
+    }
+
+    public LeaderboardEntry withScore(double score) {
+        return new LeaderboardEntry(playerId, playerKey, email, firstName, lastName, score, buchholz, sonnebornBerger, medianBuchholz, gamesPlayed);
+    }
+
+    public LeaderboardEntry withTiebreaks(double buchholz, double sonnebornBerger, double medianBuchholz, int gamesPlayed) {
+        return new LeaderboardEntry(playerId, playerKey, email, firstName, lastName, score, buchholz, sonnebornBerger, medianBuchholz, gamesPlayed);
+    }
+
+    public PlayerJSON toJSON() {
+        return PlayerJSON.builder()
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .score(score)
+                .playerKey(playerKey)
+                .build();
+    }
+
+    public StandingJSON toStandingJSON(int rank) {
+        return StandingJSON.builder()
+                .rank(rank)
+                .playerKey(playerKey)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .score(score)
+                .buchholz(buchholz)
+                .sonnebornBerger(sonnebornBerger)
+                .medianBuchholz(medianBuchholz)
+                .gamesPlayed(gamesPlayed)
+                .build();
+    }
+}
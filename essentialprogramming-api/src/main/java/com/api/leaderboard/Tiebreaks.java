@@ -0,0 +1,154 @@
+package com.api.leaderboard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * The tiebreaks of the players of a tournament, updated as games and scores come in rather than recomputed from
+ * all the results:
+ * <ul>
+ *     <li>Buchholz, the sum of the scores of the opponents</li>
+ *     <li>Sonneborn-Berger, the sum of the scores of the opponents weighted by the points scored against them</li>
+ *     <li>Median Buchholz, the Buchholz without the best and the worst opponent, once three games are played</li>
+ * </ul>
+ * A new score of a player only changes the tiebreaks of its opponents, so a result costs O(games * rounds).
+ * Players are kept in parallel arrays by their index, with their opponents and the points scored against them.
+ * The tiebreaks do not depend on the order in which games and scores are applied.
+ * Not thread safe, the {@link Leaderboard} guards it.
+ */
+final class Tiebreaks {
+
+    private static final int INITIAL_GAMES = 8;
+
+    private final Map<Integer, Integer> indexes = new HashMap<>();
+    private int playersCount;
+    private int[] playerIds;
+    private double[] scores;
+    private double[] buchholz;
+    private double[] sonnebornBerger;
+    private double[] medianBuchholz;
+    private int[] gamesCount;
+    private int[][] opponents;
+    private double[][] points;
+
+    Tiebreaks(int capacity) {
+        int size = Math.max(capacity, 1);
+        playerIds = new int[size];
+        scores = new double[size];
+        buchholz = new double[size];
+        sonnebornBerger = new double[size];
+        medianBuchholz = new double[size];
+        gamesCount = new int[size];
+        opponents = new int[size][];
+        points = new double[size][];
+    }
+
+    void addPlayer(int playerId, double score) {
+        if (indexes.containsKey(playerId)) {
+            return;
+        }
+        if (playersCount == playerIds.length) {
+            int size = playersCount * 2;
+            playerIds = Arrays.copyOf(playerIds, size);
+            scores = Arrays.copyOf(scores, size);
+            buchholz = Arrays.copyOf(buchholz, size);
+            sonnebornBerger = Arrays.copyOf(sonnebornBerger, size);
+            medianBuchholz = Arrays.copyOf(medianBuchholz, size);
+            gamesCount = Arrays.copyOf(gamesCount, size);
+            opponents = Arrays.copyOf(opponents, size);
+            points = Arrays.copyOf(points, size);
+        }
+
+        int player = playersCount++;
+        indexes.put(playerId, player);
+        playerIds[player] = playerId;
+        scores[player] = score;
+        opponents[player] = new int[INITIAL_GAMES];
+        points[player] = new double[INITIAL_GAMES];
+    }
+
+    /**
+     * @param changed receives the ids of the players whose tiebreaks changed
+     */
+    void setScore(int playerId, double score, IntConsumer changed) {
+        Integer player = indexes.get(playerId);
+        if (player == null || scores[player] == score) {
+            return;
+        }
+
+        double delta = score - scores[player];
+        scores[player] = score;
+        for (int game = 0; game < gamesCount[player]; game++) {
+            int opponent = opponents[player][game];
+            buchholz[opponent] += delta;
+            sonnebornBerger[opponent] += delta * (1 - points[player][game]);
+            updateMedianBuchholz(opponent);
+            changed.accept(playerIds[opponent]);
+        }
+    }
+
+    /**
+     * @param changed receives the ids of the players whose tiebreaks changed
+     */
+    void addGame(int firstPlayerId, int secondPlayerId, double firstPlayerPoints, IntConsumer changed) {
+        Integer firstPlayer = indexes.get(firstPlayerId);
+        Integer secondPlayer = indexes.get(secondPlayerId);
+        if (firstPlayer == null || secondPlayer == null) {
+            return;
+        }
+
+        addOpponent(firstPlayer, secondPlayer, firstPlayerPoints);
+        addOpponent(secondPlayer, firstPlayer, 1 - firstPlayerPoints);
+        changed.accept(firstPlayerId);
+        changed.accept(secondPlayerId);
+    }
+
+    double getBuchholz(int playerId) {
+        return buchholz[indexes.get(playerId)];
+    }
+
+    double getSonnebornBerger(int playerId) {
+        return sonnebornBerger[indexes.get(playerId)];
+    }
+
+    double getMedianBuchholz(int playerId) {
+        return medianBuchholz[indexes.get(playerId)];
+    }
+
+    int getGamesCount(int playerId) {
+        return gamesCount[indexes.get(playerId)];
+    }
+
+    private void addOpponent(int player, int opponent, double playerPoints) {
+        int game = gamesCount[player]++;
+        if (game == opponents[player].length) {
+            opponents[player] = Arrays.copyOf(opponents[player], game * 2);
+            points[player] = Arrays.copyOf(points[player], game * 2);
+        }
+        opponents[player][game] = opponent;
+        points[player][game] = playerPoints;
+
+        buchholz[player] += scores[opponent];
+        sonnebornBerger[player] += playerPoints * scores[opponent];
+        updateMedianBuchholz(player);
+    }
+
+    private void updateMedianBuchholz(int player) {
+        int games = gamesCount[player];
+        if (games < 3) {
+            medianBuchholz[player] = buchholz[player];
+            return;
+        }
+
+        double best = Double.NEGATIVE_INFINITY;
+        double worst = Double.POSITIVE_INFINITY;
+        for (int game = 0; game < games; game++) {
+            double score = scores[opponents[player][game]];
+            best = Math.max(best, score);
+            worst = Math.min(worst, score);
+        }
+        medianBuchholz[player] = buchholz[player] - best - worst;
+    }
+}
@@ -2,8 +2,10 @@ package com.api.mapper;
 
 import com.api.entities.Match;
 import com.api.entities.MatchResult;
+import com.api.model.MatchPlan;
 import com.api.model.Result;
 import com.api.output.MatchJSON;
+import com.api.output.MatchResultJSON;
 import com.api.output.SearchMatchesJSON;
 import com.util.date.DateUtil;
 import lombok.SneakyThrows;
@@ -31,6 +33,18 @@ public class MatchMapper {
                 .build();
     }
 
+    public static MatchJSON planToJSON(MatchPlan match, String tournamentKey) {
+        return MatchJSON.builder()
+                .state(match.getState().toString())
+                .matchKey(match.getMatchKey())
+                .tournamentKey(tournamentKey)
+                .result(MatchResultJSON.builder()
+                        .firstPlayer(PlayerMapper.playerToJson(match.getFirstPlayer()))
+                        .secondPlayer(match.getSecondPlayer() != null ? PlayerMapper.playerToJson(match.getSecondPlayer()) : null)
+                        .build())
+                .build();
+    }
+
     @SneakyThrows
     public static SearchMatchesJSON entityToSearchMatchJSON(Match match){
         return SearchMatchesJSON.builder()
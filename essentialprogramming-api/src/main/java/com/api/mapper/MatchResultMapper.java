@@ -1,7 +1,10 @@
 package com.api.mapper;
 
 import com.api.entities.MatchResult;
+import com.api.model.PlayerResult;
+import com.api.model.Result;
 import com.api.output.MatchResultJSON;
+import com.api.output.PlayerJSON;
 
 public class MatchResultMapper {
 
@@ -9,7 +12,7 @@ public class MatchResultMapper {
         MatchResultJSON matchResultJSON = MatchResultJSON.builder()
                 .key(matchResult.getMatchResultKey())
                 .firstPlayer(PlayerMapper.playerToJson(matchResult.getFirstPlayer()))
-                .secondPlayer(PlayerMapper.playerToJson(matchResult.getSecondPlayer()))
+                .secondPlayer(matchResult.getSecondPlayer() != null ? PlayerMapper.playerToJson(matchResult.getSecondPlayer()) : null)
                 .build();
 
 
@@ -24,5 +27,31 @@ public class MatchResultMapper {
         }
         return matchResultJSON;
     }
-}
 
+    public static MatchResultJSON playerResultToJSON(PlayerResult playerResult) {
+        return MatchResultJSON.builder()
+                .key(playerResult.getMatchResultKey())
+                .firstPlayer(PlayerJSON.builder()
+                        .playerKey(playerResult.getFirstPlayerKey())
+                        .email(playerResult.getFirstPlayerEmail())
+                        .firstName(playerResult.getFirstPlayerFirstName())
+                        .lastName(playerResult.getFirstPlayerLastName())
+                        .score(playerResult.getFirstPlayerScore())
+                        .build())
+                .secondPlayer(PlayerJSON.builder()
+                        .playerKey(playerResult.getSecondPlayerKey())
+                        .email(playerResult.getSecondPlayerEmail())
+                        .firstName(playerResult.getSecondPlayerFirstName())
+                        .lastName(playerResult.getSecondPlayerLastName())
+                        .score(playerResult.getSecondPlayerScore())
+                        .build())
+                .firstPlayerResult(valueOf(playerResult.getFirstPlayerResult()))
+                .secondPlayerResult(valueOf(playerResult.getSecondPlayerResult()))
+                .finalResult(valueOf(playerResult.getResult()))
+                .build();
+    }
+
+    private static String valueOf(Result result) {
+        return result != null ? result.getValue() : null;
+    }
+}
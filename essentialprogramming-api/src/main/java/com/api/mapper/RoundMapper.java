@@ -1,7 +1,7 @@
 package com.api.mapper;
 
-import com.api.entities.Match;
 import com.api.entities.Round;
+import com.api.model.RoundPlan;
 import com.api.output.RoundJSON;
 
 import java.util.stream.Collectors;
@@ -12,7 +12,7 @@ public class RoundMapper {
                 .roundKey(round.getRoundKey())
                 .number(round.getNumber())
                 .matches(round.getMatches().stream()
-                        .filter(RoundMapper::hasNoGhostPlayer)
+                        .filter(match -> !match.isBye())
                         .map(MatchMapper::entityToJSON)
                         .collect(Collectors.toList())
                 )
@@ -21,8 +21,16 @@ public class RoundMapper {
 
     }
 
-    private static boolean hasNoGhostPlayer(Match match) {
-        return !match.getMatchResult().getFirstPlayer().getEmail().contains("GHOST_EMAIL_")
-                && !match.getMatchResult().getSecondPlayer().getEmail().contains("GHOST_EMAIL_");
+    public static RoundJSON planToJSON(RoundPlan round, String tournamentKey) {
+        return RoundJSON.builder()
+                .roundKey(round.getRoundKey())
+                .number(round.getNumber())
+                .matches(round.getMatches().stream()
+                        .filter(match -> !match.isBye())
+                        .map(match -> MatchMapper.planToJSON(match, tournamentKey))
+                        .collect(Collectors.toList())
+                )
+                .tournamentKey(tournamentKey)
+                .build();
     }
 }
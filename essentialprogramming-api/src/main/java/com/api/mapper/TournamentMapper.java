@@ -3,6 +3,7 @@ package com.api.mapper;
 import com.api.entities.Tournament;
 import com.api.env.resources.AppResources;
 import com.api.model.GameState;
+import com.api.model.PairingSystem;
 import com.api.model.TournamentInput;
 import com.api.output.SearchTournamentsJSON;
 import com.api.output.TournamentJSON;
@@ -21,6 +22,11 @@ public class TournamentMapper {
                 .state(GameState.CREATED)
                 .registrationOpen(tournamentInput.isRegistrationOpen())
                 .maxParticipants(tournamentInput.getMaxParticipantsNo())
+                .lazyRounds(tournamentInput.isLazyRounds())
+                .pairingSystem(tournamentInput.getPairingSystem() != null
+                        ? tournamentInput.getPairingSystem()
+                        : PairingSystem.ROUND_ROBIN)
+                .roundsCount(tournamentInput.getRoundsCount())
                 .build();
     }
 
@@ -32,6 +38,9 @@ public class TournamentMapper {
                 .name(tournament.getName())
                 .registrationOpen(tournament.isRegistrationOpen())
                 .maxParticipantsNo(tournament.getMaxParticipants())
+                .lazyRounds(tournament.isLazyRounds())
+                .pairingSystem(tournament.getPairingSystem() != null ? tournament.getPairingSystem().name() : null)
+                .roundsCount(tournament.getRoundsCount())
                 .referees(tournament.getReferees() == null ? null : tournament.getReferees().stream()
                         .map(UserMapper::userToJson).collect(Collectors.toList()))
                 .build();
@@ -0,0 +1,20 @@
+package com.api.mapper;
+
+import com.api.entities.TournamentStartJob;
+import com.api.output.TournamentStartJobJSON;
+
+public class TournamentStartJobMapper {
+
+    public static TournamentStartJobJSON entityToJSON(TournamentStartJob job) {
+        return TournamentStartJobJSON.builder()
+                .jobKey(job.getJobKey())
+                .tournamentKey(job.getTournament().getTournamentKey())
+                .state(job.getState().name())
+                .totalRounds(job.getTotalRounds())
+                .roundsWritten(job.getRoundsWritten())
+                .matchesWritten(job.getMatchesWritten())
+                .error(job.getError())
+                .updatedDate(job.getUpdatedDate() != null ? job.getUpdatedDate().toString() : null)
+                .build();
+    }
+}
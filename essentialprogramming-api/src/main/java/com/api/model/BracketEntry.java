@@ -0,0 +1,28 @@
+package com.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The state of a knockout match as stored, read without going through the persistence context so the result
+ * of a match settled by a concurrent transaction is seen once that transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class BracketEntry {
+
+    private GameState state;
+    private Result result;
+    private Integer firstPlayerId;
+    private Integer secondPlayerId;
+
+    /**
+     * @return the id of the player going through, null while the match is not over
+     */
+    public Integer getWinnerId() {
+        if (!GameState.ENDED.equals(state) || result == null) {
+            return null;
+        }
+        return Result.SECOND.equals(result) ? secondPlayerId : firstPlayerId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A settled match between two players, as needed to compute tiebreaks.
+ */
+@Getter
+@AllArgsConstructor
+public class GameResult {
+
+    private int matchId;
+    private int firstPlayerId;
+    private int secondPlayerId;
+    private Result result;
+
+    public double getFirstPlayerPoints() {
+        switch (result) {
+            case FIRST:
+                return 1;
+            case DRAW:
+                return 0.5;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.api.model;
+
+public enum JobState {
+    PENDING, RUNNING, COMPLETED, FAILED
+}
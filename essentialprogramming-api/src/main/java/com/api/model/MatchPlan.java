@@ -0,0 +1,37 @@
+package com.api.model;
+
+import com.api.entities.Player;
+import lombok.*;
+
+/**
+ * In-memory representation of a match, its result and its player pair, written in bulk by the
+ * {@link com.api.service.ScheduleWriter}. The ids and the keys are filled in during the write.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchPlan {
+
+    private int id;
+    private String matchKey;
+    private int matchResultId;
+    private String matchResultKey;
+    private String matchPlayerKey;
+
+    private Player firstPlayer;
+    private Player secondPlayer;
+    private GameState state;
+    private Result result;
+
+    /**
+     * A bye has no second player and no player pair, the first player wins it.
+     */
+    private boolean bye;
+
+    /**
+     * The slot of the match in a knockout bracket, null outside of knockouts.
+     */
+    private Integer bracketSlot;
+}
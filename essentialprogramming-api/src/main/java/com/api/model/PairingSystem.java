@@ -0,0 +1,5 @@
+package com.api.model;
+
+public enum PairingSystem {
+    ROUND_ROBIN, DOUBLE_ROUND_ROBIN, SWISS, ARENA, KNOCKOUT
+}
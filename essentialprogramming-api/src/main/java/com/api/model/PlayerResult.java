@@ -0,0 +1,30 @@
+package com.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The result of a match of a player, with both players, flat as a single query selects it.
+ */
+@Getter
+@AllArgsConstructor
+public class PlayerResult {
+
+    private String matchResultKey;
+
+    private String firstPlayerKey;
+    private String firstPlayerEmail;
+    private String firstPlayerFirstName;
+    private String firstPlayerLastName;
+    private double firstPlayerScore;
+
+    private String secondPlayerKey;
+    private String secondPlayerEmail;
+    private String secondPlayerFirstName;
+    private String secondPlayerLastName;
+    private double secondPlayerScore;
+
+    private Result firstPlayerResult;
+    private Result secondPlayerResult;
+    private Result result;
+}
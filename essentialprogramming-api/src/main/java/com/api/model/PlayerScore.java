@@ -0,0 +1,13 @@
+package com.api.model;
+
+/**
+ * The tournament and overall scores of a player as stored after a result was applied.
+ */
+public interface PlayerScore {
+
+    int getPlayerId();
+
+    double getScore();
+
+    double getOverallScore();
+}
@@ -0,0 +1,26 @@
+package com.api.model;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory representation of a round that is about to be written by the
+ * {@link com.api.service.ScheduleWriter}. The id and the key are filled in during the write.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundPlan {
+
+    private int id;
+    private String roundKey;
+    private int number;
+    private GameState state;
+
+    @Builder.Default
+    private List<MatchPlan> matches = new ArrayList<>();
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
@@ -26,4 +27,8 @@ public class TournamentInput {
     @NotNull(message = "You need to specify the registration status for this tournament")
     private boolean registrationOpen;
     private int maxParticipantsNo;
+    private boolean lazyRounds;
+    private PairingSystem pairingSystem;
+    @Min(value = 1, message = "A tournament needs at least one round")
+    private Integer roundsCount;
 }
@@ -0,0 +1,20 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadToHeadJSON implements Serializable {
+    private String firstPlayerKey;
+    private String secondPlayerKey;
+    private int games;
+    private int firstPlayerWins;
+    private int secondPlayerWins;
+    private int draws;
+    private String lastPlayedDate;
+}
@@ -0,0 +1,16 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPageJSON implements Serializable {
+    private List<PlayerJSON> players;
+    private String next;
+}
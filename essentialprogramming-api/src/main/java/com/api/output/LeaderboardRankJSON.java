@@ -0,0 +1,17 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardRankJSON implements Serializable {
+    private String playerKey;
+    private int rank;
+    private double score;
+    private int playersCount;
+}
@@ -0,0 +1,19 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairingStrategyJSON implements Serializable {
+    private String pairingSystem;
+    private boolean incremental;
+    private int totalRounds;
+    private long estimatedPairingCost;
+    private long pairings;
+    private long averagePairingMicros;
+}
@@ -0,0 +1,20 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder(toBuilder = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingRecomputeJSON implements Serializable {
+    private String state;
+    private long gamesRated;
+    private int periodsRated;
+    private int playersRated;
+    private String error;
+    private String startedDate;
+    private String updatedDate;
+}
@@ -0,0 +1,16 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundRankJSON implements Serializable {
+    private int roundNumber;
+    private int rank;
+    private double score;
+}
@@ -16,9 +16,13 @@ public class SearchParticipantsJSON {
     private Double score;
     private String invitationStatus;
     private int tournamentsWon;
-    private Long totalMatchesPlayed;
+    private Integer totalMatchesPlayed;
+    private Integer wins;
+    private Integer draws;
+    private Integer losses;
 
-    public SearchParticipantsJSON(String playerKey, String email, String firstName, String lastName, Double score, Long totalMatchesPlayed, String invitationStatus) {
+    public SearchParticipantsJSON(String playerKey, String email, String firstName, String lastName, Double score,
+                                  Integer totalMatchesPlayed, Integer wins, Integer draws, Integer losses, String invitationStatus) {
         this.playerKey = playerKey;
         this.email = email;
         this.firstName = firstName;
@@ -26,5 +30,8 @@ public class SearchParticipantsJSON {
         this.score = score;
         this.invitationStatus = invitationStatus;
         this.totalMatchesPlayed = totalMatchesPlayed;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
     }
 }
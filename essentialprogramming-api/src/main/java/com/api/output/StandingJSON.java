@@ -0,0 +1,23 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingJSON implements Serializable {
+    private int rank;
+    private String playerKey;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private double score;
+    private double buchholz;
+    private double sonnebornBerger;
+    private double medianBuchholz;
+    private int gamesPlayed;
+}
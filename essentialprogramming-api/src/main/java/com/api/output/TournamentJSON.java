@@ -19,5 +19,8 @@ public class TournamentJSON implements Serializable {
     private String name;
     private boolean registrationOpen;
     private int maxParticipantsNo;
+    private boolean lazyRounds;
+    private String pairingSystem;
+    private Integer roundsCount;
     private List<UserJSON> referees;
 }
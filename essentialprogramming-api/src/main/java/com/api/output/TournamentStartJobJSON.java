@@ -0,0 +1,21 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentStartJobJSON implements Serializable {
+    private String jobKey;
+    private String tournamentKey;
+    private String state;
+    private int totalRounds;
+    private int roundsWritten;
+    private int matchesWritten;
+    private String error;
+    private String updatedDate;
+}
@@ -0,0 +1,23 @@
+package com.api.output;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketStatsJSON implements Serializable {
+    private int sessions;
+    private int connectedUsers;
+    private int subscribedTopics;
+    private long queuedMessages;
+    private int largestQueueDepth;
+    private long droppedMessages;
+    private long coalescedMessages;
+    private long disconnectedSessions;
+    private int queueCapacity;
+    private String slowConsumerPolicy;
+}
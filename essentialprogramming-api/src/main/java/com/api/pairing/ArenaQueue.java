@@ -0,0 +1,153 @@
+package com.api.pairing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Matchmaking queue of an arena. Waiting players are kept in buckets by score, in half points. A player joining
+ * the queue is paired at once with the waiting player of the nearest score, the one waiting longest first, and
+ * only waits when nobody else fits. Immediate rematches are avoided, the player waits for someone else instead,
+ * except in arenas of two players.
+ * Joining holds the queue lock for a scan over the score buckets, a few hundred nanoseconds, so the queue is safe
+ * to use from the threads settling matches.
+ */
+public final class ArenaQueue {
+
+    public static final int NO_OPPONENT = -1;
+
+    private static final class Waiting {
+        private final int player;
+        private final int halfPoints;
+        private final int lastOpponent;
+
+        private Waiting(int player, int halfPoints, int lastOpponent) {
+            this.player = player;
+            this.halfPoints = halfPoints;
+            this.lastOpponent = lastOpponent;
+        }
+    }
+
+    private final boolean avoidRematches;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, Waiting> waiting = new HashMap<>();
+    private ArrayDeque<Waiting>[] buckets = newBuckets(16);
+
+    /**
+     * @param playersCount the number of players in the arena
+     */
+    public ArenaQueue(int playersCount) {
+        this.avoidRematches = playersCount > 2;
+    }
+
+    /**
+     * Pairs the player with the nearest score waiting or, when nobody fits, puts the player in the queue.
+     * A player already waiting is left in place.
+     *
+     * @param player       the id of the player
+     * @param halfPoints   the score of the player, in half points
+     * @param lastOpponent the id of the previous opponent of the player, {@link #NO_OPPONENT} for none
+     * @return the id of the opponent, {@link #NO_OPPONENT} when the player has to wait
+     */
+    public int join(int player, int halfPoints, int lastOpponent) {
+        lock.lock();
+        try {
+            if (waiting.containsKey(player)) {
+                return NO_OPPONENT;
+            }
+
+            Waiting opponent = findOpponent(player, halfPoints, lastOpponent);
+            if (opponent != null) {
+                return opponent.player;
+            }
+
+            Waiting entry = new Waiting(player, halfPoints, lastOpponent);
+            waiting.put(player, entry);
+            bucket(halfPoints).addLast(entry);
+            return NO_OPPONENT;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a waiting player out of the queue, for example when the player withdraws.
+     *
+     * @return whether the player was waiting
+     */
+    public boolean leave(int player) {
+        lock.lock();
+        try {
+            Waiting entry = waiting.remove(player);
+            return entry != null && buckets[entry.halfPoints].remove(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isWaiting(int player) {
+        lock.lock();
+        try {
+            return waiting.containsKey(player);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Scans the buckets outwards from the score of the player and removes the first suitable opponent found.
+     */
+    private Waiting findOpponent(int player, int halfPoints, int lastOpponent) {
+        if (waiting.isEmpty()) {
+            return null;
+        }
+
+        for (int distance = 0; halfPoints - distance >= 0 || halfPoints + distance < buckets.length; distance++) {
+            for (int side = 0; side < (distance == 0 ? 1 : 2); side++) {
+                int index = side == 0 ? halfPoints - distance : halfPoints + distance;
+                if (index < 0 || index >= buckets.length || buckets[index] == null) {
+                    continue;
+                }
+
+                Iterator<Waiting> candidates = buckets[index].iterator();
+                while (candidates.hasNext()) {
+                    Waiting candidate = candidates.next();
+                    if (avoidRematches && (candidate.player == lastOpponent || candidate.lastOpponent == player)) {
+                        continue;
+                    }
+                    candidates.remove();
+                    waiting.remove(candidate.player);
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ArrayDeque<Waiting> bucket(int halfPoints) {
+        if (halfPoints >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(halfPoints + 1, buckets.length * 2));
+        }
+        if (buckets[halfPoints] == null) {
+            buckets[halfPoints] = new ArrayDeque<>();
+        }
+        return buckets[halfPoints];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Waiting>[] newBuckets(int size) {
+        return (ArrayDeque<Waiting>[]) new ArrayDeque[size];
+    }
+}
@@ -0,0 +1,53 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+
+import java.util.Arrays;
+
+/**
+ * Arena format. The whole event is a single open round: the players are paired by score once at start and then
+ * go back to an {@link ArenaQueue} as soon as their match ends. With an odd field the last player starts in the
+ * queue instead of receiving a bye.
+ */
+public final class ArenaStrategy implements PairingStrategy {
+
+    @Override
+    public PairingSystem getPairingSystem() {
+        return PairingSystem.ARENA;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public int getTotalRounds(int playersCount, Integer roundsCount) {
+        return 1;
+    }
+
+    /**
+     * Pairs neighbours in the ranking, so every player meets the nearest score available.
+     */
+    @Override
+    public RoundPairings pair(PairingHistory history, int roundIndex) {
+        int playersCount = history.getPlayersCount();
+
+        long[] ranking = new long[playersCount];
+        for (int player = 0; player < playersCount; player++) {
+            ranking[player] = ((long) -history.getHalfPoints(player) << 32) | player;
+        }
+        Arrays.sort(ranking);
+
+        int[] pairings = new int[playersCount - playersCount % 2];
+        for (int index = 0; index < pairings.length; index++) {
+            pairings[index] = (int) ranking[index];
+        }
+        return new RoundPairings(pairings);
+    }
+
+    @Override
+    public long getPairingCost(int playersCount) {
+        return (long) playersCount * (32 - Integer.numberOfLeadingZeros(Math.max(1, playersCount)));
+    }
+}
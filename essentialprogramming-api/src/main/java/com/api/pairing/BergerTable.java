@@ -0,0 +1,99 @@
+package com.api.pairing;
+
+/**
+ * Round-robin pairings computed with the Berger-table formula on player indices.
+ * <p>
+ * Player 0 stays fixed and the other players rotate one seat per round, so board {@code b} of round {@code r}
+ * pairs the players seated at {@code b} and {@code n - 1 - b}, where seat {@code s > 0} holds player
+ * {@code 1 + (s - 1 + r) mod (n - 1)}. Any round can be computed on its own in O(n) without allocating,
+ * which is what allows rounds to be materialized one at a time.
+ * <p>
+ * Colours follow the Berger tables: the fixed player alternates every round and the other players alternate as
+ * they move from board to board, with two games of the same colour in a row at most, once per cycle.
+ * <p>
+ * With more than one cycle (double round-robin) the following cycles repeat the first one with colours reversed.
+ */
+public final class BergerTable {
+
+    private final int playersCount;
+    private final int cycles;
+
+    /**
+     * @param playersCount the number of players, must be even (odd fields are padded with a bye seat)
+     * @param cycles       how many times every player meets every other player
+     */
+    public BergerTable(int playersCount, int cycles) {
+        if (playersCount < 2 || playersCount % 2 != 0) {
+            throw new IllegalArgumentException("Berger tables need an even number of players, got " + playersCount);
+        }
+        if (cycles < 1) {
+            throw new IllegalArgumentException("A round-robin needs at least one cycle, got " + cycles);
+        }
+        this.playersCount = playersCount;
+        this.cycles = cycles;
+    }
+
+    public BergerTable(int playersCount) {
+        this(playersCount, 1);
+    }
+
+    public int getPlayersCount() {
+        return playersCount;
+    }
+
+    public int getBoards() {
+        return playersCount / 2;
+    }
+
+    public int getRoundsPerCycle() {
+        return playersCount - 1;
+    }
+
+    public int getRounds() {
+        return cycles * getRoundsPerCycle();
+    }
+
+    /**
+     * Returns the pairings of a round as {@code [white0, black0, white1, black1, ...]}.
+     *
+     * @param roundIndex the zero based index of the round
+     * @return a new array with two player indices per board
+     */
+    public int[] round(int roundIndex) {
+        int[] pairings = new int[playersCount];
+        round(roundIndex, pairings);
+        return pairings;
+    }
+
+    /**
+     * Writes the pairings of a round into the given buffer as {@code [white0, black0, white1, black1, ...]},
+     * so a whole schedule can be produced with a single buffer.
+     *
+     * @param roundIndex the zero based index of the round
+     * @param pairings   a buffer of at least {@link #getPlayersCount()} elements
+     */
+    public void round(int roundIndex, int[] pairings) {
+        if (roundIndex < 0 || roundIndex >= getRounds()) {
+            throw new IndexOutOfBoundsException("Round " + roundIndex + " is outside of 0.." + (getRounds() - 1));
+        }
+        int roundsPerCycle = getRoundsPerCycle();
+        int roundInCycle = roundIndex % roundsPerCycle;
+        boolean reversed = (roundIndex / roundsPerCycle) % 2 != 0;
+
+        for (int board = 0; board < playersCount / 2; board++) {
+            int white = seat(board, roundInCycle);
+            int black = seat(playersCount - 1 - board, roundInCycle);
+
+            //The fixed player alternates colours, the others get white on odd boards from the lower seat and on even
+            //boards from the upper one, so moving one board per round flips their colour
+            boolean swap = (board == 0 ? roundInCycle % 2 != 0 : board % 2 == 0) != reversed;
+
+            pairings[2 * board] = swap ? black : white;
+            pairings[2 * board + 1] = swap ? white : black;
+        }
+    }
+
+    private int seat(int position, int roundInCycle) {
+        return position == 0 ? 0 : 1 + (position - 1 + roundInCycle) % (playersCount - 1);
+    }
+}
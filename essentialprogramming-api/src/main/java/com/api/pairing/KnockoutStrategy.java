@@ -0,0 +1,100 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+
+import java.util.Arrays;
+
+/**
+ * Single elimination. The players are seeded by rating into a bracket of the next power of two, so the top seeds
+ * meet as late as possible and take the byes of an incomplete field. Only the first round is paired here, every
+ * later match is filled in from the results of the two matches feeding it.
+ * Bracket slots are numbered like a binary heap: the final is slot 1 and the matches feeding slot k are 2k and
+ * 2k + 1, so the first round takes the slots from b / 2 to b - 1 for a bracket of size b.
+ */
+public final class KnockoutStrategy implements PairingStrategy {
+
+    @Override
+    public PairingSystem getPairingSystem() {
+        return PairingSystem.KNOCKOUT;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    /**
+     * A knockout always plays until a single player is left, the requested number of rounds is ignored.
+     */
+    @Override
+    public int getTotalRounds(int playersCount, Integer roundsCount) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, playersCount - 1));
+    }
+
+    @Override
+    public RoundPairings pair(PairingHistory history, int roundIndex) {
+        int playersCount = history.getPlayersCount();
+        if (roundIndex > 0) {
+            throw new IllegalStateException("Knockout rounds after the first are filled in from the results");
+        }
+        if (playersCount < 2) {
+            throw new IllegalStateException("A knockout needs at least two players");
+        }
+
+        long[] ranking = new long[playersCount];
+        for (int player = 0; player < playersCount; player++) {
+            ranking[player] = (-Math.round(history.getRating(player) * 2) << 32) | player;
+        }
+        Arrays.sort(ranking);
+
+        int bracketSize = Integer.highestOneBit(playersCount - 1) << 1;
+        int[] seeds = getSeedOrder(bracketSize);
+        int byesCount = bracketSize - playersCount;
+
+        int[] pairings = new int[2 * (bracketSize / 2 - byesCount)];
+        int[] boardSlots = new int[pairings.length / 2];
+        int[] byes = new int[byesCount];
+        int[] byeSlots = new int[byesCount];
+
+        int board = 0;
+        int bye = 0;
+        for (int position = 0; position < bracketSize / 2; position++) {
+            int topSeed = seeds[2 * position];
+            int bottomSeed = seeds[2 * position + 1];
+            int slot = bracketSize / 2 + position;
+
+            if (bottomSeed >= playersCount) {
+                byes[bye] = (int) ranking[topSeed];
+                byeSlots[bye++] = slot;
+            } else {
+                pairings[2 * board] = (int) ranking[topSeed];
+                pairings[2 * board + 1] = (int) ranking[bottomSeed];
+                boardSlots[board++] = slot;
+            }
+        }
+        return new RoundPairings(pairings, byes, boardSlots, byeSlots);
+    }
+
+    /**
+     * Sorting the field by rating costs n log n, placing the seeds is linear.
+     */
+    @Override
+    public long getPairingCost(int playersCount) {
+        return (long) playersCount * (32 - Integer.numberOfLeadingZeros(Math.max(1, playersCount)));
+    }
+
+    /**
+     * Lists the zero based seeds in bracket order, two per first round match, so that seed s meets seed
+     * b - 1 - s in the first round and the best seeds can only meet in the last rounds.
+     */
+    static int[] getSeedOrder(int bracketSize) {
+        int[] seeds = new int[bracketSize];
+        for (int size = 1; size < bracketSize; size *= 2) {
+            for (int position = size - 1; position >= 0; position--) {
+                seeds[2 * position] = seeds[position];
+                seeds[2 * position + 1] = 2 * size - 1 - seeds[position];
+            }
+        }
+        return seeds;
+    }
+}
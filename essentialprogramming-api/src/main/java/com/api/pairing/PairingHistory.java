@@ -0,0 +1,99 @@
+package com.api.pairing;
+
+import java.util.BitSet;
+
+/**
+ * What a pairing engine knows about the tournament so far, on player indices: the score of every player,
+ * a bitset of the opponents they already met, their colour balance (whites minus blacks), who had a bye and
+ * the overall rating used to seed brackets.
+ * <p>
+ * The opponents are kept as the lower half of the n x n matrix, one bit per pair of players, so a field of
+ * {@value #MAX_PLAYERS} players still fits the int indices of a {@link BitSet}.
+ */
+public final class PairingHistory {
+
+    /**
+     * The largest field whose pairs of players fit in a {@link BitSet}.
+     */
+    public static final int MAX_PLAYERS = 65_536;
+
+    private final int playersCount;
+    private final int[] halfPoints;
+    private final int[] colourBalance;
+    private final BitSet played;
+    private final BitSet byes;
+    private final double[] ratings;
+
+    public PairingHistory(int playersCount) {
+        if (playersCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Pairing histories hold at most " + MAX_PLAYERS + " players, got " + playersCount);
+        }
+        this.playersCount = playersCount;
+        this.halfPoints = new int[playersCount];
+        this.colourBalance = new int[playersCount];
+        this.played = new BitSet(pair(playersCount - 1, playersCount - 1));
+        this.byes = new BitSet(playersCount);
+        this.ratings = new double[playersCount];
+    }
+
+    public int getPlayersCount() {
+        return playersCount;
+    }
+
+    public void setScore(int player, double score) {
+        halfPoints[player] = (int) Math.round(score * 2);
+    }
+
+    /**
+     * @return the score of the player counted in half points, so a draw is worth 1 and a win 2
+     */
+    public int getHalfPoints(int player) {
+        return halfPoints[player];
+    }
+
+    /**
+     * Records a game that was already played, so the players are not paired again and their colours are balanced.
+     */
+    public void addGame(int white, int black) {
+        played.set(pair(white, black));
+        colourBalance[white]++;
+        colourBalance[black]--;
+    }
+
+    public boolean havePlayed(int first, int second) {
+        return first != second && played.get(pair(first, second));
+    }
+
+    /**
+     * @return the bit of two different players in the lower half of the matrix, computed in long as the product of
+     * two indices overflows an int long before the index does
+     */
+    private static int pair(int first, int second) {
+        int higher = Math.max(first, second);
+        int lower = Math.min(first, second);
+        return (int) ((long) higher * (higher - 1) / 2 + lower);
+    }
+
+    public int getColourBalance(int player) {
+        return colourBalance[player];
+    }
+
+    public void addBye(int player) {
+        byes.set(player);
+    }
+
+    public boolean hadBye(int player) {
+        return byes.get(player);
+    }
+
+    public void setRating(int player, double rating) {
+        ratings[player] = rating;
+    }
+
+    /**
+     * @return the overall rating of the player, across tournaments
+     */
+    public double getRating(int player) {
+        return ratings[player];
+    }
+}
@@ -0,0 +1,19 @@
+package com.api.pairing;
+
+/**
+ * Thrown when a pairing search runs out of steps before it either finds a round or proves that none exists.
+ * Unlike a plain {@link IllegalStateException}, it does not mean the players ran out of opponents.
+ */
+public class PairingSearchExhaustedException extends IllegalStateException {
+
+    private final int steps;
+
+    public PairingSearchExhaustedException(int steps) {
+        super("The Swiss pairing search gave up after " + steps + " steps without finding a round");
+        this.steps = steps;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+}
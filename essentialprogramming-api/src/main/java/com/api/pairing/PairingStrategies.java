@@ -0,0 +1,87 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the available {@link PairingStrategy} implementations. It also measures every pairing step,
+ * so the estimated cost of a strategy can be compared with what it actually takes.
+ */
+public final class PairingStrategies {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PairingStrategies.class);
+
+    private static final Map<PairingSystem, PairingStrategy> STRATEGIES = new EnumMap<>(PairingSystem.class);
+    private static final Map<PairingSystem, LongAdder> PAIRINGS = new EnumMap<>(PairingSystem.class);
+    private static final Map<PairingSystem, LongAdder> PAIRING_NANOS = new EnumMap<>(PairingSystem.class);
+
+    static {
+        register(new RoundRobinStrategy(PairingSystem.ROUND_ROBIN, 1));
+        register(new RoundRobinStrategy(PairingSystem.DOUBLE_ROUND_ROBIN, 2));
+        register(new SwissStrategy());
+        register(new ArenaStrategy());
+        register(new KnockoutStrategy());
+    }
+
+    private PairingStrategies() {
+    }
+
+    private static void register(PairingStrategy strategy) {
+        STRATEGIES.put(strategy.getPairingSystem(), strategy);
+        PAIRINGS.put(strategy.getPairingSystem(), new LongAdder());
+        PAIRING_NANOS.put(strategy.getPairingSystem(), new LongAdder());
+    }
+
+    /**
+     * @param pairingSystem the pairing system of a tournament, null for tournaments created before it was selectable
+     * @return the strategy implementing it
+     */
+    public static PairingStrategy of(PairingSystem pairingSystem) {
+        PairingStrategy strategy = STRATEGIES.get(pairingSystem != null ? pairingSystem : PairingSystem.ROUND_ROBIN);
+        if (strategy == null) {
+            throw new IllegalArgumentException("No pairing strategy for " + pairingSystem);
+        }
+        return strategy;
+    }
+
+    public static Iterable<PairingStrategy> all() {
+        return STRATEGIES.values();
+    }
+
+    /**
+     * Pairs a round with the given strategy and records how long it took.
+     */
+    public static RoundPairings pair(PairingStrategy strategy, PairingHistory history, int roundIndex) {
+        long start = System.nanoTime();
+        RoundPairings pairings = strategy.pair(history, roundIndex);
+        long elapsed = System.nanoTime() - start;
+
+        record(strategy.getPairingSystem(), elapsed);
+        LOG.debug("Paired round {} of {} players with {} in {} us", roundIndex + 1, history.getPlayersCount(),
+                strategy.getPairingSystem(), TimeUnit.NANOSECONDS.toMicros(elapsed));
+
+        return pairings;
+    }
+
+    /**
+     * Records a pairing step made outside of {@link #pair}, such as a pairing from an {@link ArenaQueue}.
+     */
+    public static void record(PairingSystem pairingSystem, long elapsedNanos) {
+        PAIRINGS.get(pairingSystem).increment();
+        PAIRING_NANOS.get(pairingSystem).add(elapsedNanos);
+    }
+
+    public static long getPairingsCount(PairingSystem pairingSystem) {
+        return PAIRINGS.get(pairingSystem).sum();
+    }
+
+    public static long getPairingNanos(PairingSystem pairingSystem) {
+        return PAIRING_NANOS.get(pairingSystem).sum();
+    }
+}
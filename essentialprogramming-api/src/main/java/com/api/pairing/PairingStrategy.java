@@ -0,0 +1,42 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+
+/**
+ * A pairing engine that can be selected per tournament through its {@link PairingSystem}.
+ * Engines work on player indices only, the caller maps them to players and persists the rounds.
+ */
+public interface PairingStrategy {
+
+    PairingSystem getPairingSystem();
+
+    /**
+     * Tells whether every round depends on the results of the previous ones. Incremental strategies pair a round
+     * only when the tournament switches to it, the others can generate the whole schedule up front.
+     */
+    boolean isIncremental();
+
+    /**
+     * @param playersCount the number of players, byes not included
+     * @param roundsCount  the number of rounds requested for the tournament, may be null
+     * @return the number of rounds the tournament plays
+     */
+    int getTotalRounds(int playersCount, Integer roundsCount);
+
+    /**
+     * Pairs one round.
+     *
+     * @param history    scores and previous games of the players, ignored by strategies that are not incremental
+     * @param roundIndex the zero based index of the round
+     * @return the pairings of the round
+     * @throws IllegalStateException if the round cannot be paired
+     */
+    RoundPairings pair(PairingHistory history, int roundIndex);
+
+    /**
+     * Estimates the work of a single pairing step for the given number of players, in elementary operations,
+     * so the engines can be compared for an event size. Strategies that generate the whole schedule up front
+     * pay for every round in one step.
+     */
+    long getPairingCost(int playersCount);
+}
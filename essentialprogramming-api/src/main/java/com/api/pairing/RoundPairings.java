@@ -0,0 +1,78 @@
+package com.api.pairing;
+
+/**
+ * The outcome of a pairing step: two player indices per board and the players that sit the round out.
+ * Bracket strategies also place every board and every bye in a slot of the bracket.
+ */
+public final class RoundPairings {
+
+    private static final int[] NO_BYES = new int[0];
+
+    private final int[] pairings;
+    private final int[] byes;
+    private final int[] boardSlots;
+    private final int[] byeSlots;
+
+    public RoundPairings(int[] pairings, int[] byes, int[] boardSlots, int[] byeSlots) {
+        this.pairings = pairings;
+        this.byes = byes;
+        this.boardSlots = boardSlots;
+        this.byeSlots = byeSlots;
+    }
+
+    public RoundPairings(int[] pairings, int[] byes) {
+        this(pairings, byes, null, null);
+    }
+
+    public RoundPairings(int[] pairings) {
+        this(pairings, NO_BYES);
+    }
+
+    /**
+     * @return the pairings as {@code [white0, black0, white1, black1, ...]}
+     */
+    public int[] getPairings() {
+        return pairings;
+    }
+
+    public int getBoards() {
+        return pairings.length / 2;
+    }
+
+    public int getWhite(int board) {
+        return pairings[2 * board];
+    }
+
+    public int getBlack(int board) {
+        return pairings[2 * board + 1];
+    }
+
+    /**
+     * @return the indices of the players receiving a bye, empty if everybody plays
+     */
+    public int[] getByes() {
+        return byes;
+    }
+
+    public boolean hasBye() {
+        return byes.length > 0;
+    }
+
+    /**
+     * Tells whether the boards and the byes are placed in a bracket.
+     */
+    public boolean isBracket() {
+        return boardSlots != null;
+    }
+
+    public int getBoardSlot(int board) {
+        return boardSlots[board];
+    }
+
+    /**
+     * @param bye the position of the bye in {@link #getByes()}
+     */
+    public int getByeSlot(int bye) {
+        return byeSlots[bye];
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+
+/**
+ * Round-robin and double round-robin over a {@link BergerTable}. An odd field is padded with an empty seat,
+ * the player drawn against it gets the bye of that round.
+ */
+public final class RoundRobinStrategy implements PairingStrategy {
+
+    private final PairingSystem pairingSystem;
+    private final int cycles;
+
+    RoundRobinStrategy(PairingSystem pairingSystem, int cycles) {
+        this.pairingSystem = pairingSystem;
+        this.cycles = cycles;
+    }
+
+    @Override
+    public PairingSystem getPairingSystem() {
+        return pairingSystem;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return false;
+    }
+
+    @Override
+    public int getTotalRounds(int playersCount, Integer roundsCount) {
+        return cycles * (seats(playersCount) - 1);
+    }
+
+    @Override
+    public RoundPairings pair(PairingHistory history, int roundIndex) {
+        int playersCount = history.getPlayersCount();
+        int[] seated = new BergerTable(seats(playersCount), cycles).round(roundIndex);
+
+        if (seated.length == playersCount) {
+            return new RoundPairings(seated);
+        }
+
+        int[] pairings = new int[playersCount - 1];
+        int bye = 0;
+        int position = 0;
+        for (int board = 0; board < seated.length / 2; board++) {
+            int white = seated[2 * board];
+            int black = seated[2 * board + 1];
+            if (white == playersCount || black == playersCount) {
+                bye = white == playersCount ? black : white;
+            } else {
+                pairings[position++] = white;
+                pairings[position++] = black;
+            }
+        }
+        return new RoundPairings(pairings, new int[]{bye});
+    }
+
+    @Override
+    public long getPairingCost(int playersCount) {
+        return (long) getTotalRounds(playersCount, null) * (seats(playersCount) / 2);
+    }
+
+    private static int seats(int playersCount) {
+        return playersCount % 2 == 0 ? playersCount : playersCount + 1;
+    }
+}
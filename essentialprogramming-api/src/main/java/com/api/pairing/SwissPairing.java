@@ -0,0 +1,252 @@
+package com.api.pairing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Swiss-system pairing on player indices.
+ * <p>
+ * Players are ranked by score and then by index (the seeding order) and split into score groups. Every group is
+ * paired top half against bottom half, players that cannot be paired inside their group float down to the next one.
+ * Opponents never meet twice, the bye goes to the lowest ranked player that did not have one yet, and players
+ * whose colour balance is off by two or more are not paired against each other unless no other pairing exists.
+ * <p>
+ * The history is read from a {@link PairingHistory}, which keeps it in primitive structures. The pairing itself is a depth first search over a linked list of the unpaired players, which only has
+ * to backtrack when the players left at the bottom of the ranking have already met each other.
+ * An instance holds the search state of one pairing step and is not meant to be shared between threads.
+ */
+public final class SwissPairing {
+
+    private static final int NO_BYE = -1;
+
+    /**
+     * The steps one pairing may take, shared by every bye candidate and both colour passes.
+     */
+    private static final int MAX_STEPS = 5_000_000;
+
+    private final PairingHistory history;
+    private final int playersCount;
+    private final int maxSteps;
+
+    private int[] ranked;
+    private int[] group;
+    private int[] groupRemaining;
+    private int[] next;
+    private int[] previous;
+    private int[] partner;
+    private int sentinel;
+    private int steps;
+    private boolean strictColours;
+
+    public SwissPairing(PairingHistory history) {
+        this(history, MAX_STEPS);
+    }
+
+    SwissPairing(PairingHistory history, int maxSteps) {
+        if (history.getPlayersCount() < 2) {
+            throw new IllegalArgumentException("Swiss pairing needs at least two players, got " + history.getPlayersCount());
+        }
+        this.history = history;
+        this.playersCount = history.getPlayersCount();
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Pairs the next round.
+     *
+     * @return the pairings and the bye, if the player count is odd
+     * @throws IllegalStateException           if every player already met every possible opponent
+     * @throws PairingSearchExhaustedException if the search ran out of steps before finding a pairing
+     */
+    public RoundPairings pair() {
+        int[] order = rank();
+        steps = 0;
+
+        if (playersCount % 2 == 0) {
+            int[] pairings = pair(order, NO_BYE);
+            if (pairings != null) {
+                return new RoundPairings(pairings);
+            }
+        } else {
+            for (int position = order.length - 1; position >= 0 && steps <= maxSteps; position--) {
+                int bye = order[position];
+                if (history.hadBye(bye) && position > 0) {
+                    continue;
+                }
+                int[] pairings = pair(order, bye);
+                if (pairings != null) {
+                    return new RoundPairings(pairings, new int[]{bye});
+                }
+            }
+        }
+
+        if (steps > maxSteps) {
+            throw new PairingSearchExhaustedException(maxSteps);
+        }
+        throw new IllegalStateException("No Swiss pairing exists without repeating an opponent");
+    }
+
+    private int[] rank() {
+        long[] keys = new long[playersCount];
+        for (int player = 0; player < playersCount; player++) {
+            keys[player] = ((long) -history.getHalfPoints(player) << 32) | player;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[playersCount];
+        for (int position = 0; position < playersCount; position++) {
+            order[position] = (int) keys[position];
+        }
+        return order;
+    }
+
+    private int[] pair(int[] order, int bye) {
+        int size = bye == NO_BYE ? order.length : order.length - 1;
+        ranked = new int[size];
+        group = new int[size];
+        groupRemaining = new int[size];
+        next = new int[size + 1];
+        previous = new int[size + 1];
+        partner = new int[size];
+        sentinel = size;
+
+        int groups = -1;
+        int position = 0;
+        for (int player : order) {
+            if (player == bye) {
+                continue;
+            }
+            if (position == 0 || history.getHalfPoints(player) != history.getHalfPoints(ranked[position - 1])) {
+                groups++;
+            }
+            ranked[position] = player;
+            group[position] = groups;
+            groupRemaining[groups]++;
+            position++;
+        }
+
+        for (position = 0; position <= size; position++) {
+            next[position] = position == size ? 0 : position + 1;
+            previous[position] = position == 0 ? size : position - 1;
+        }
+
+        //A failed search relinks every player it took out, so the relaxed pass starts from the same list
+        for (strictColours = true; ; strictColours = false) {
+            if (pairRemaining()) {
+                return collect(size);
+            }
+            if (!strictColours || steps > maxSteps) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Pairs the highest ranked unpaired player and recurses on the rest. Candidates are tried in Dutch order:
+     * the player half a score group below first, then the rest of the group, then lower groups by rank.
+     */
+    private boolean pairRemaining() {
+        int top = next[sentinel];
+        if (top == sentinel) {
+            return true;
+        }
+
+        unlink(top);
+        int topGroup = group[top];
+        int sameGroup = groupRemaining[topGroup];
+        int first = next[sentinel];
+
+        int ideal = first;
+        for (int skip = (sameGroup + 1) / 2 - 1; skip > 0; skip--) {
+            ideal = next[ideal];
+        }
+
+        int lowerGroups = first;
+        if (sameGroup > 0) {
+            for (int candidate = ideal; candidate != sentinel && group[candidate] == topGroup; candidate = next[candidate]) {
+                if (tryPair(top, candidate)) {
+                    return true;
+                }
+                lowerGroups = next[candidate];
+            }
+            for (int candidate = first; candidate != ideal; candidate = next[candidate]) {
+                if (tryPair(top, candidate)) {
+                    return true;
+                }
+            }
+        }
+        for (int candidate = lowerGroups; candidate != sentinel && steps <= maxSteps; candidate = next[candidate]) {
+            if (tryPair(top, candidate)) {
+                return true;
+            }
+        }
+
+        relink(top);
+        return false;
+    }
+
+    private boolean tryPair(int top, int candidate) {
+        if (++steps > maxSteps || !canPlay(ranked[top], ranked[candidate])) {
+            return false;
+        }
+
+        unlink(candidate);
+        if (pairRemaining()) {
+            partner[top] = candidate;
+            return true;
+        }
+        relink(candidate);
+        return false;
+    }
+
+    private boolean canPlay(int first, int second) {
+        if (history.havePlayed(first, second)) {
+            return false;
+        }
+        int firstBalance = history.getColourBalance(first);
+        int secondBalance = history.getColourBalance(second);
+        return !strictColours
+                || !(firstBalance >= 2 && secondBalance >= 2)
+                && !(firstBalance <= -2 && secondBalance <= -2);
+    }
+
+    private void unlink(int position) {
+        next[previous[position]] = next[position];
+        previous[next[position]] = previous[position];
+        groupRemaining[group[position]]--;
+    }
+
+    private void relink(int position) {
+        next[previous[position]] = position;
+        previous[next[position]] = position;
+        groupRemaining[group[position]]++;
+    }
+
+    private int[] collect(int size) {
+        int[] pairings = new int[size];
+        int board = 0;
+        BitSet seated = new BitSet(size);
+
+        for (int top = 0; top < size; top++) {
+            if (seated.get(top)) {
+                continue;
+            }
+            int bottom = partner[top];
+            seated.set(top);
+            seated.set(bottom);
+
+            int first = ranked[top];
+            int second = ranked[bottom];
+            int firstBalance = history.getColourBalance(first);
+            int secondBalance = history.getColourBalance(second);
+            boolean firstIsWhite = firstBalance != secondBalance
+                    ? firstBalance < secondBalance
+                    : board % 2 == 0;
+
+            pairings[2 * board] = firstIsWhite ? first : second;
+            pairings[2 * board + 1] = firstIsWhite ? second : first;
+            board++;
+        }
+        return pairings;
+    }
+}
@@ -0,0 +1,44 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+
+/**
+ * Swiss system, paired one round at a time by {@link SwissPairing}.
+ */
+public final class SwissStrategy implements PairingStrategy {
+
+    @Override
+    public PairingSystem getPairingSystem() {
+        return PairingSystem.SWISS;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    /**
+     * By default a Swiss tournament plays enough rounds to leave a single player with a perfect score.
+     */
+    @Override
+    public int getTotalRounds(int playersCount, Integer roundsCount) {
+        int rounds = roundsCount != null
+                ? roundsCount
+                : 32 - Integer.numberOfLeadingZeros(Math.max(1, playersCount - 1));
+        return Math.min(rounds, playersCount % 2 == 0 ? playersCount - 1 : playersCount);
+    }
+
+    @Override
+    public RoundPairings pair(PairingHistory history, int roundIndex) {
+        return new SwissPairing(history).pair();
+    }
+
+    /**
+     * Ranking costs n log n, scanning for the Dutch partner up to half a score group per board.
+     */
+    @Override
+    public long getPairingCost(int playersCount) {
+        long ranking = (long) playersCount * (32 - Integer.numberOfLeadingZeros(Math.max(1, playersCount)));
+        return ranking + (long) playersCount * playersCount / 4;
+    }
+}
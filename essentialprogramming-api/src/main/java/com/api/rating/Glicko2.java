@@ -0,0 +1,121 @@
+package com.api.rating;
+
+/**
+ * The Glicko-2 rating system, as described by Mark Glickman in "Example of the Glicko-2 system". Ratings and
+ * deviations are given and returned on the Glicko scale, where new players start at 1500 +/- 350.
+ */
+public final class Glicko2 {
+
+    public static final double DEFAULT_RATING = 1500;
+    public static final double DEFAULT_DEVIATION = 350;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    /**
+     * Constrains the change of the volatility over time, between 0.3 and 1.2.
+     */
+    private static final double TAU = 0.5;
+    private static final double SCALE = 173.7178;
+    private static final double CONVERGENCE = 0.000001;
+
+    private Glicko2() {
+    }
+
+    /**
+     * Rates a player over a rating period from the games played in it, against the ratings the opponents had when
+     * the period started. The games are read from index {@code from} inclusive to {@code to} exclusive.
+     *
+     * @param rating              the rating of the player when the period started
+     * @param deviation           the rating deviation of the player when the period started
+     * @param volatility          the rating volatility of the player when the period started
+     * @param opponentRatings     the ratings of the opponents
+     * @param opponentDeviations  the rating deviations of the opponents
+     * @param scores              the points scored against each opponent, 1, 0.5 or 0
+     * @param rated               receives the new rating, rating deviation and rating volatility, in this order
+     */
+    public static void rate(double rating, double deviation, double volatility,
+                            double[] opponentRatings, double[] opponentDeviations, double[] scores, int from, int to,
+                            double[] rated) {
+        double mu = (rating - DEFAULT_RATING) / SCALE;
+        double phi = deviation / SCALE;
+
+        if (from == to) {
+            rated[0] = rating;
+            rated[1] = Math.min(Math.sqrt(phi * phi + volatility * volatility) * SCALE, DEFAULT_DEVIATION);
+            rated[2] = volatility;
+            return;
+        }
+
+        double inverseVariance = 0;
+        double improvement = 0;
+        for (int game = from; game < to; game++) {
+            double opponentPhi = opponentDeviations[game] / SCALE;
+            double g = 1 / Math.sqrt(1 + 3 * opponentPhi * opponentPhi / (Math.PI * Math.PI));
+            double expected = 1 / (1 + Math.exp(-g * (mu - (opponentRatings[game] - DEFAULT_RATING) / SCALE)));
+            inverseVariance += g * g * expected * (1 - expected);
+            improvement += g * (scores[game] - expected);
+        }
+        double variance = 1 / inverseVariance;
+        double delta = variance * improvement;
+
+        double newVolatility = volatility(phi, volatility, variance, delta);
+        double preRatingPhi = Math.sqrt(phi * phi + newVolatility * newVolatility);
+        double newPhi = 1 / Math.sqrt(1 / (preRatingPhi * preRatingPhi) + 1 / variance);
+        double newMu = mu + newPhi * newPhi * improvement;
+
+        rated[0] = newMu * SCALE + DEFAULT_RATING;
+        rated[1] = Math.min(newPhi * SCALE, DEFAULT_DEVIATION);
+        rated[2] = newVolatility;
+    }
+
+    /**
+     * @return the rating deviation of a player after the given number of rating periods without a game
+     */
+    public static double inflateDeviation(double deviation, double volatility, int idlePeriods) {
+        if (idlePeriods <= 0) {
+            return deviation;
+        }
+        double phi = deviation / SCALE;
+        return Math.min(Math.sqrt(phi * phi + idlePeriods * volatility * volatility) * SCALE, DEFAULT_DEVIATION);
+    }
+
+    /**
+     * Finds the new volatility with the Illinois algorithm.
+     */
+    private static double volatility(double phi, double volatility, double variance, double delta) {
+        double a = Math.log(volatility * volatility);
+
+        double lower = a;
+        double upper;
+        if (delta * delta > phi * phi + variance) {
+            upper = Math.log(delta * delta - phi * phi - variance);
+        } else {
+            int k = 1;
+            while (volatilityFunction(a - k * TAU, a, phi, variance, delta) < 0) {
+                k++;
+            }
+            upper = a - k * TAU;
+        }
+
+        double lowerValue = volatilityFunction(lower, a, phi, variance, delta);
+        double upperValue = volatilityFunction(upper, a, phi, variance, delta);
+        while (Math.abs(upper - lower) > CONVERGENCE) {
+            double next = lower + (lower - upper) * lowerValue / (upperValue - lowerValue);
+            double nextValue = volatilityFunction(next, a, phi, variance, delta);
+            if (nextValue * upperValue <= 0) {
+                lower = upper;
+                lowerValue = upperValue;
+            } else {
+                lowerValue = lowerValue / 2;
+            }
+            upper = next;
+            upperValue = nextValue;
+        }
+        return Math.exp(lower / 2);
+    }
+
+    private static double volatilityFunction(double x, double a, double phi, double variance, double delta) {
+        double ex = Math.exp(x);
+        double denominator = phi * phi + variance + ex;
+        return ex * (delta * delta - phi * phi - variance - ex) / (2 * denominator * denominator) - (x - a) / (TAU * TAU);
+    }
+}
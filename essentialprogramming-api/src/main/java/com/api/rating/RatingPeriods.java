@@ -0,0 +1,243 @@
+package com.api.rating;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes {@link Glicko2} ratings from a history of games sorted by time and grouped in rating periods. The players
+ * of a period are all rated from the ratings they had when it started, so they are rated in parallel on a fork-join
+ * pool. A period is rated when the first game of the next one comes in, so the history can be streamed through and
+ * only the games of one period are held, in primitive arrays like the players.
+ * The deviation of a player grows with the periods the player sat out, as Glicko-2 prescribes.
+ * Not thread safe, games are fed from one thread.
+ */
+public final class RatingPeriods {
+
+    public interface RatingListener {
+        void rated(int playerId, double rating, double deviation, double volatility);
+    }
+
+    private static final int PLAYERS_PER_TASK = 256;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ForkJoinPool pool;
+    private final RatingListener periodListener;
+
+    private final Map<Integer, Integer> indexes = new HashMap<>();
+    private int playersCount;
+    private int[] playerIds = new int[INITIAL_CAPACITY];
+    private double[] ratings = new double[INITIAL_CAPACITY];
+    private double[] deviations = new double[INITIAL_CAPACITY];
+    private double[] volatilities = new double[INITIAL_CAPACITY];
+    private long[] lastPeriods = new long[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+
+    private long period = Long.MIN_VALUE;
+    private int gamesCount;
+    private int[] firstPlayers = new int[INITIAL_CAPACITY];
+    private int[] secondPlayers = new int[INITIAL_CAPACITY];
+    private double[] firstPlayerScores = new double[INITIAL_CAPACITY];
+
+    private int periodsCount;
+    private long totalGamesCount;
+
+    /**
+     * @param pool           the pool rating the players of a period
+     * @param periodListener receives the new rating of every player who played in a period, once it is rated
+     */
+    public RatingPeriods(ForkJoinPool pool, RatingListener periodListener) {
+        this.pool = pool;
+        this.periodListener = periodListener;
+    }
+
+    /**
+     * @param period the rating period the game was played in, games must come in period order
+     */
+    public void addGame(long period, int firstPlayerId, int secondPlayerId, double firstPlayerScore) {
+        if (period < this.period) {
+            throw new IllegalArgumentException("Games must come in the order of their rating periods");
+        }
+        if (period != this.period) {
+            ratePeriod();
+            this.period = period;
+        }
+
+        if (gamesCount == firstPlayers.length) {
+            firstPlayers = Arrays.copyOf(firstPlayers, gamesCount * 2);
+            secondPlayers = Arrays.copyOf(secondPlayers, gamesCount * 2);
+            firstPlayerScores = Arrays.copyOf(firstPlayerScores, gamesCount * 2);
+        }
+        firstPlayers[gamesCount] = index(firstPlayerId);
+        secondPlayers[gamesCount] = index(secondPlayerId);
+        firstPlayerScores[gamesCount] = firstPlayerScore;
+        gamesCount++;
+        totalGamesCount++;
+    }
+
+    /**
+     * Rates the last period and gives the final rating of every player, with the deviation grown by the periods
+     * the player sat out since the last game.
+     */
+    public void finish(RatingListener listener) {
+        ratePeriod();
+        for (int player = 0; player < playersCount; player++) {
+            double deviation = Glicko2.inflateDeviation(deviations[player], volatilities[player], (int) (period - lastPeriods[player]));
+            listener.rated(playerIds[player], ratings[player], deviation, volatilities[player]);
+        }
+    }
+
+    public int getPeriodsCount() {
+        return periodsCount;
+    }
+
+    public long getGamesCount() {
+        return totalGamesCount;
+    }
+
+    public int getPlayersCount() {
+        return playersCount;
+    }
+
+    private int index(int playerId) {
+        Integer index = indexes.get(playerId);
+        if (index != null) {
+            return index;
+        }
+
+        if (playersCount == playerIds.length) {
+            int capacity = playersCount * 2;
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            deviations = Arrays.copyOf(deviations, capacity);
+            volatilities = Arrays.copyOf(volatilities, capacity);
+            lastPeriods = Arrays.copyOf(lastPeriods, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        int player = playersCount++;
+        indexes.put(playerId, player);
+        playerIds[player] = playerId;
+        ratings[player] = Glicko2.DEFAULT_RATING;
+        deviations[player] = Glicko2.DEFAULT_DEVIATION;
+        volatilities[player] = Glicko2.DEFAULT_VOLATILITY;
+        lastPeriods[player] = Long.MIN_VALUE;
+        positions[player] = -1;
+        return player;
+    }
+
+    private void ratePeriod() {
+        if (gamesCount == 0) {
+            return;
+        }
+
+        //The players of the period get a position and their games are grouped by position
+        int[] periodPlayers = new int[Math.min(2 * gamesCount, playersCount)];
+        int[] offsets = new int[periodPlayers.length + 1];
+        int periodPlayersCount = 0;
+        for (int game = 0; game < gamesCount; game++) {
+            periodPlayersCount = addGameToPosition(firstPlayers[game], periodPlayers, periodPlayersCount, offsets);
+            periodPlayersCount = addGameToPosition(secondPlayers[game], periodPlayers, periodPlayersCount, offsets);
+        }
+        for (int position = 0; position < periodPlayersCount; position++) {
+            offsets[position + 1] += offsets[position];
+        }
+
+        //The deviations grow by the periods sat out before the period is rated
+        for (int position = 0; position < periodPlayersCount; position++) {
+            int player = periodPlayers[position];
+            if (lastPeriods[player] != Long.MIN_VALUE) {
+                deviations[player] = Glicko2.inflateDeviation(deviations[player], volatilities[player], (int) (period - lastPeriods[player] - 1));
+            }
+        }
+
+        double[] opponentRatings = new double[2 * gamesCount];
+        double[] opponentDeviations = new double[2 * gamesCount];
+        double[] scores = new double[2 * gamesCount];
+        int[] filled = Arrays.copyOf(offsets, periodPlayersCount);
+        for (int game = 0; game < gamesCount; game++) {
+            int firstPlayer = firstPlayers[game];
+            int secondPlayer = secondPlayers[game];
+
+            int slot = filled[positions[firstPlayer]]++;
+            opponentRatings[slot] = ratings[secondPlayer];
+            opponentDeviations[slot] = deviations[secondPlayer];
+            scores[slot] = firstPlayerScores[game];
+
+            slot = filled[positions[secondPlayer]]++;
+            opponentRatings[slot] = ratings[firstPlayer];
+            opponentDeviations[slot] = deviations[firstPlayer];
+            scores[slot] = 1 - firstPlayerScores[game];
+        }
+
+        double[] rated = new double[3 * periodPlayersCount];
+        pool.invoke(new RatePlayers(periodPlayers, offsets, opponentRatings, opponentDeviations, scores, rated, 0, periodPlayersCount));
+
+        for (int position = 0; position < periodPlayersCount; position++) {
+            int player = periodPlayers[position];
+            ratings[player] = rated[3 * position];
+            deviations[player] = rated[3 * position + 1];
+            volatilities[player] = rated[3 * position + 2];
+            lastPeriods[player] = period;
+            positions[player] = -1;
+            periodListener.rated(playerIds[player], ratings[player], deviations[player], volatilities[player]);
+        }
+
+        gamesCount = 0;
+        periodsCount++;
+    }
+
+    /**
+     * Counts a game for a player, in the slot after the player's position so the counts turn into offsets.
+     */
+    private int addGameToPosition(int player, int[] periodPlayers, int periodPlayersCount, int[] offsets) {
+        if (positions[player] < 0) {
+            positions[player] = periodPlayersCount;
+            periodPlayers[periodPlayersCount++] = player;
+        }
+        offsets[positions[player] + 1]++;
+        return periodPlayersCount;
+    }
+
+    private final class RatePlayers extends RecursiveAction {
+        private final int[] periodPlayers;
+        private final int[] offsets;
+        private final double[] opponentRatings;
+        private final double[] opponentDeviations;
+        private final double[] scores;
+        private final double[] rated;
+        private final int from;
+        private final int to;
+
+        private RatePlayers(int[] periodPlayers, int[] offsets, double[] opponentRatings, double[] opponentDeviations,
+                            double[] scores, double[] rated, int from, int to) {
+            this.periodPlayers = periodPlayers;
+            this.offsets = offsets;
+            this.opponentRatings = opponentRatings;
+            this.opponentDeviations = opponentDeviations;
+            this.scores = scores;
+            this.rated = rated;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PLAYERS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RatePlayers(periodPlayers, offsets, opponentRatings, opponentDeviations, scores, rated, from, middle),
+                        new RatePlayers(periodPlayers, offsets, opponentRatings, opponentDeviations, scores, rated, middle, to));
+                return;
+            }
+
+            double[] playerRated = new double[3];
+            for (int position = from; position < to; position++) {
+                int player = periodPlayers[position];
+                Glicko2.rate(ratings[player], deviations[player], volatilities[player],
+                        opponentRatings, opponentDeviations, scores, offsets[position], offsets[position + 1], playerRated);
+                System.arraycopy(playerRated, 0, rated, 3 * position, 3);
+            }
+        }
+    }
+}
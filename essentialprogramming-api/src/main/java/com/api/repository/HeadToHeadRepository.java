@@ -0,0 +1,10 @@
+package com.api.repository;
+
+import com.api.entities.HeadToHead;
+import com.api.entities.HeadToHeadKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HeadToHeadRepository extends JpaRepository<HeadToHead, HeadToHeadKey> {
+}
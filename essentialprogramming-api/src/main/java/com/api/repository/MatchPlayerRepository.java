@@ -1,13 +1,42 @@
 package com.api.repository;
 
 import com.api.entities.MatchPlayer;
+import com.api.entities.Player;
 import com.api.entities.Tournament;
+import com.api.model.PlayerResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface MatchPlayerRepository extends JpaRepository <MatchPlayer, Integer> {
+
+    String PLAYER_RESULTS = "SELECT new com.api.model.PlayerResult(r.matchResultKey, " +
+            "f.userKey, f.email, f.firstName, f.lastName, f.score, " +
+            "s.userKey, s.email, s.firstName, s.lastName, s.score, " +
+            "r.firstPlayerResult, r.secondPlayerResult, r.result) " +
+            "FROM MatchPlayer mp JOIN mp.match m JOIN m.matchResult r JOIN r.firstPlayer f JOIN r.secondPlayer s " +
+            "WHERE mp.tournament = :tournament AND (mp.firstPlayer = :player OR mp.secondPlayer = :player) " +
+            "ORDER BY m.id";
+
     List<MatchPlayer> findAllByTournament(Tournament tournament);
 
+    @Query(PLAYER_RESULTS)
+    List<PlayerResult> findPlayerResults(@Param("tournament") Tournament tournament, @Param("player") Player player);
+
+    /**
+     * Streams the results of a player, for long histories. Must be consumed inside a transaction and closed.
+     */
+    @Query(PLAYER_RESULTS)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<PlayerResult> streamPlayerResults(@Param("tournament") Tournament tournament, @Param("player") Player player);
+
     void deleteAllByTournament(Tournament tournament);
 }
@@ -1,22 +1,45 @@
 package com.api.repository;
 
 import com.api.entities.Match;
+import com.api.entities.Round;
 import com.api.entities.Tournament;
 import com.api.entities.User;
+import com.api.model.BracketEntry;
+import com.api.model.GameResult;
 import com.api.model.GameState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MatchRepository extends JpaRepository<Match, Integer>, JpaSpecificationExecutor<Match>, MatchRepositoryCustom {
     Optional<Match> findByMatchKey(String matchKey);
 
-    Optional<Match> findTopByTournamentAndStateOrderByStartDateDesc(Tournament tournament, GameState state);
+    Optional<Match> findTopByTournamentAndStateAndByeFalseOrderByStartDateDesc(Tournament tournament, GameState state);
+
+    @Query("SELECT m.matchResult.firstPlayer.id FROM match m WHERE m.tournament = :tournament AND m.bye = true")
+    List<Integer> findByePlayerIds(@Param("tournament") Tournament tournament);
 
     long countByTournamentAndState(Tournament tournament, GameState state);
 
+    List<Match> findAllByTournamentAndState(Tournament tournament, GameState state);
+
     void deleteAllByTournament(Tournament tournament);
 
     long countByReferee(User user);
+
+    @Query("SELECT new com.api.model.BracketEntry(m.state, r.result, f.id, s.id) FROM match m JOIN m.matchResult r " +
+            "JOIN r.firstPlayer f LEFT JOIN r.secondPlayer s WHERE m.round = :round AND m.bracketSlot = :bracketSlot")
+    Optional<BracketEntry> findBracketEntry(@Param("round") Round round, @Param("bracketSlot") int bracketSlot);
+
+    @Query("SELECT new com.api.model.GameResult(m.id, f.id, s.id, r.result) FROM match m JOIN m.matchResult r " +
+            "JOIN r.firstPlayer f JOIN r.secondPlayer s WHERE m.tournament = :tournament AND m.state = com.api.model.GameState.ENDED " +
+            "AND m.bye = false")
+    List<GameResult> findGameResults(@Param("tournament") Tournament tournament);
+
+    @Query(value = "SELECT id FROM match WHERE round_id = :roundId AND bracket_slot = :bracketSlot FOR UPDATE", nativeQuery = true)
+    Integer lockBracketSlot(@Param("roundId") int roundId, @Param("bracketSlot") int bracketSlot);
 }
@@ -1,10 +1,12 @@
 package com.api.repository;
 
 import com.api.entities.Player;
-import com.api.output.PlayerJSON;
+import com.api.leaderboard.LeaderboardEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,9 +16,17 @@ import java.util.Optional;
 
 public interface PlayerRepository extends JpaRepository<Player, Integer>, JpaSpecificationExecutor<Player>, PlayerRepositoryCustom, RefereeRepositoryCustom {
 
-    @Query("SELECT distinct new com.api.output.PlayerJSON(p.email, p.firstName, p.lastName, p.score, p.userKey) " +
-            "FROM Player p WHERE p.email NOT LIKE 'GHOST_EMAIL_%' ORDER BY p.score DESC")
-    List<PlayerJSON> findAllByOrderByScoreDesc();
+    @Query("SELECT new com.api.leaderboard.LeaderboardEntry(p.id, p.userKey, p.email, p.firstName, p.lastName, p.score) " +
+            "FROM Player p ORDER BY p.score DESC, p.id")
+    List<LeaderboardEntry> findOverallLeaderboard(Pageable pageable);
+
+    /**
+     * Reads the overall leaderboard after the given position, walking the (score desc, id) index from there
+     * instead of skipping the rows before it.
+     */
+    @Query("SELECT new com.api.leaderboard.LeaderboardEntry(p.id, p.userKey, p.email, p.firstName, p.lastName, p.score) " +
+            "FROM Player p WHERE p.score <= :score AND (p.score < :score OR p.id > :id) ORDER BY p.score DESC, p.id")
+    List<LeaderboardEntry> findOverallLeaderboardAfter(@Param("score") double score, @Param("id") int id, Pageable pageable);
 
     Optional<Player> findById(int id);
 
@@ -3,6 +3,9 @@ package com.api.repository;
 import com.api.entities.Round;
 import com.api.entities.Tournament;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,5 +16,27 @@ public interface RoundRepository extends JpaRepository<Round, Integer> {
 
     Optional<Round> findByRoundKey(String roundKey);
 
+    Optional<Round> findByTournamentAndNumber(Tournament tournament, int number);
+
+    long countByTournament(Tournament tournament);
+
     void deleteAllByTournament(Tournament tournament);
+
+    /**
+     * Ends a match and counts it down from the pending matches of its round in a single statement. Concurrent
+     * reports of the same match wait on its row, so only one of them ends it.
+     *
+     * @return the matches of the round still pending, empty if the match had already ended
+     */
+    @Query(value = "WITH ended AS (UPDATE match SET state = 'ENDED' WHERE id = :matchId AND state <> 'ENDED' RETURNING round_id) " +
+            "UPDATE round SET pending_matches = round.pending_matches - 1 FROM ended WHERE round.id = ended.round_id " +
+            "RETURNING round.pending_matches", nativeQuery = true)
+    List<Integer> endMatch(@Param("matchId") int matchId);
+
+    /**
+     * Sets the number of matches a round still has pending, when the round is started again.
+     */
+    @Modifying
+    @Query(value = "UPDATE round SET pending_matches = :pendingMatches WHERE id = :roundId", nativeQuery = true)
+    void setPendingMatches(@Param("roundId") int roundId, @Param("pendingMatches") int pendingMatches);
 }
@@ -0,0 +1,25 @@
+package com.api.repository;
+
+import com.api.entities.StandingsSnapshot;
+import com.api.entities.Tournament;
+import com.api.output.RoundRankJSON;
+import com.api.output.StandingJSON;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingsSnapshotRepository extends JpaRepository<StandingsSnapshot, Integer> {
+
+    @Query("SELECT new com.api.output.StandingJSON(s.rank, u.userKey, u.email, u.firstName, u.lastName, s.score, " +
+            "s.buchholz, s.sonnebornBerger, s.medianBuchholz, s.gamesPlayed) " +
+            "FROM StandingsSnapshot s JOIN s.user u WHERE s.tournament = :tournament AND s.roundNumber = :roundNumber ORDER BY s.rank")
+    List<StandingJSON> findStandings(@Param("tournament") Tournament tournament, @Param("roundNumber") int roundNumber);
+
+    @Query("SELECT new com.api.output.RoundRankJSON(s.roundNumber, s.rank, s.score) " +
+            "FROM StandingsSnapshot s WHERE s.tournament = :tournament AND s.user.userKey = :playerKey ORDER BY s.roundNumber")
+    List<RoundRankJSON> findRankProgression(@Param("tournament") Tournament tournament, @Param("playerKey") String playerKey);
+}
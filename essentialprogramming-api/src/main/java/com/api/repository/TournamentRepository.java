@@ -2,6 +2,7 @@ package com.api.repository;
 
 import com.api.entities.Tournament;
 import com.api.model.GameState;
+import com.api.model.PairingSystem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,6 +22,15 @@ public interface TournamentRepository extends JpaRepository<Tournament,Integer>,
             "FROM Tournament t WHERE t.state = :state")
     List<Tournament> findAllByState(@Param("state") GameState state);
 
+    List<Tournament> findByState(GameState state);
+
+    boolean existsByState(GameState state);
+
+    List<Tournament> findAllByStateAndPairingSystem(GameState state, PairingSystem pairingSystem);
+
+    @Query(value = "SELECT id FROM tournament WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockById(@Param("id") int id);
+
     @Override
     @Query("SELECT distinct new com.api.entities.Tournament(t.schedule, t.name, t.registrationOpen, t.maxParticipants, t.state, t.tournamentKey) "+
            "FROM Tournament t ORDER BY t.state")
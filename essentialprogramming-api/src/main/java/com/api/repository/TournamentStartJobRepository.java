@@ -0,0 +1,33 @@
+package com.api.repository;
+
+import com.api.entities.Tournament;
+import com.api.entities.TournamentStartJob;
+import com.api.model.JobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TournamentStartJobRepository extends JpaRepository<TournamentStartJob, Integer> {
+
+    Optional<TournamentStartJob> findByJobKey(String jobKey);
+
+    /**
+     * Locks the row of a job for the current transaction, unless another transaction holds it already.
+     *
+     * @return the job, empty if it does not exist or another node is running a step of it
+     */
+    @Query(value = "SELECT * FROM tournament_start_job WHERE job_key = :jobKey FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<TournamentStartJob> lockByJobKey(@Param("jobKey") String jobKey);
+
+    Optional<TournamentStartJob> findTopByTournamentAndStateIn(Tournament tournament, Collection<JobState> states);
+
+    List<TournamentStartJob> findAllByStateIn(Collection<JobState> states);
+
+    boolean existsByStateIn(Collection<JobState> states);
+
+    void deleteAllByTournament(Tournament tournament);
+}
@@ -1,7 +1,11 @@
 package com.api.repository;
 
 import com.api.entities.*;
+import com.api.leaderboard.LeaderboardEntry;
+import com.api.model.PlayerScore;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +14,9 @@ import java.util.Optional;
 @Repository
 public interface TournamentUserRepository extends JpaRepository<TournamentUser, TournamentUserKey> {
 
-    List<TournamentUser> findByTournamentOrderByScoreDesc(Tournament tournament);
+    @Query("SELECT new com.api.leaderboard.LeaderboardEntry(u.id, u.userKey, u.email, u.firstName, u.lastName, tu.score) " +
+            "FROM TournamentUser tu JOIN tu.user u WHERE tu.tournament = :tournament")
+    List<LeaderboardEntry> findLeaderboardEntries(@Param("tournament") Tournament tournament);
 
     Optional<TournamentUser> findTopByTournamentOrderByScoreDesc(Tournament tournament);
 
@@ -19,4 +25,43 @@ public interface TournamentUserRepository extends JpaRepository<TournamentUser,
     void deleteAllByTournament(Tournament tournament);
 
     int countTournamentUserByTournament(Tournament tournament);
+
+    /**
+     * Locks the rows of two players in id order. Taken before their scores change, so two results of the same
+     * players wait on each other instead of deadlocking, whatever order the update itself visits the rows in.
+     *
+     * @return the ids of the players locked
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:firstPlayerId, :secondPlayerId) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockPlayers(@Param("firstPlayerId") int firstPlayerId, @Param("secondPlayerId") int secondPlayerId);
+
+    /**
+     * Adds to the tournament and overall scores of two players in a single statement. The rows are incremented
+     * in place, so concurrent results involving the same player cannot overwrite each other.
+     *
+     * @return the new scores, fewer than two if a player is not in the tournament
+     */
+    @Query(value = "WITH delta (user_id, score) AS (VALUES (:firstPlayerId, :firstScore), (:secondPlayerId, :secondScore)), " +
+            "player_score AS (UPDATE users SET score = users.score + delta.score FROM delta WHERE users.id = delta.user_id " +
+            "RETURNING users.id, users.score) " +
+            "UPDATE tournament_user SET score = tournament_user.score + delta.score " +
+            "FROM delta JOIN player_score ON player_score.id = delta.user_id " +
+            "WHERE tournament_user.tournament_id = :tournamentId AND tournament_user.user_id = delta.user_id " +
+            "RETURNING tournament_user.user_id AS \"playerId\", tournament_user.score AS \"score\", " +
+            "player_score.score AS \"overallScore\"", nativeQuery = true)
+    List<PlayerScore> addScores(@Param("tournamentId") int tournamentId,
+                                @Param("firstPlayerId") int firstPlayerId, @Param("firstScore") double firstScore,
+                                @Param("secondPlayerId") int secondPlayerId, @Param("secondScore") double secondScore);
+
+    /**
+     * Adds to the tournament and overall score of a player in a single statement.
+     *
+     * @return the new scores, empty if the player is not in the tournament
+     */
+    @Query(value = "WITH player_score AS (UPDATE users SET score = score + :score WHERE id = :playerId RETURNING score) " +
+            "UPDATE tournament_user SET score = tournament_user.score + :score FROM player_score " +
+            "WHERE tournament_user.tournament_id = :tournamentId AND tournament_user.user_id = :playerId " +
+            "RETURNING tournament_user.user_id AS \"playerId\", tournament_user.score AS \"score\", " +
+            "player_score.score AS \"overallScore\"", nativeQuery = true)
+    List<PlayerScore> addScore(@Param("tournamentId") int tournamentId, @Param("playerId") int playerId, @Param("score") double score);
 }
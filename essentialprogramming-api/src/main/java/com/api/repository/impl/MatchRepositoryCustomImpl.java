@@ -124,24 +124,6 @@ public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
         return subquery;
     }
 
-    private Subquery<String> getFirstPlayerEmail(CriteriaBuilder builder, CriteriaQuery<?> criteriaQuery, Root<Match> matchRoot) {
-        Subquery<String> subquery = criteriaQuery.subquery(String.class);
-        Root<MatchResult> matchResultRoot = subquery.from(MatchResult.class);
-
-
-        Predicate idsEqual = builder.equal(matchResultRoot.get("id"), matchRoot.get("matchResult").get("id"));
-        return subquery.select(matchResultRoot.get("firstPlayer").get("email")).where(idsEqual);
-    }
-
-    private Subquery<String> getSecondPlayerEmail(CriteriaBuilder builder, CriteriaQuery<?> criteriaQuery, Root<Match> matchRoot) {
-        Subquery<String> subquery = criteriaQuery.subquery(String.class);
-        Root<MatchResult> matchResultRoot = subquery.from(MatchResult.class);
-
-
-        Predicate idsEqual = builder.equal(matchResultRoot.get("id"), matchRoot.get("matchResult").get("id"));
-        return subquery.select(matchResultRoot.get("secondPlayer").get("email")).where(idsEqual);
-    }
-
     private List<Predicate> getFilterPredicates(MatchSearchCriteria matchSearchCriteria, CriteriaBuilder builder, Root<Match> matchRoot, CriteriaQuery<?> criteriaQuery) {
         Predicate stateCondition = null;
         Predicate roundNoCondition = null;
@@ -149,8 +131,7 @@ public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
         Predicate refereeCondition = null;
         Predicate matchResultCondition = null;
         Predicate startDateCondition;
-        Predicate firstPlayerNotGhost = builder.notLike(getFirstPlayerEmail(builder, criteriaQuery, matchRoot), "%" + "GHOST_EMAIL_" + "%");
-        Predicate secondPlayerNotGhost = builder.notLike(getSecondPlayerEmail(builder, criteriaQuery, matchRoot), "%" + "GHOST_EMAIL_" + "%");
+        Predicate notBye = builder.isFalse(matchRoot.get("bye"));
         LocalDateTime startDateMin;
         LocalDateTime startDateMax;
 
@@ -223,8 +204,7 @@ public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
                         refereeCondition,
                         startDateCondition,
                         matchResultCondition,
-                        firstPlayerNotGhost,
-                        secondPlayerNotGhost)
+                        notBye)
 
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
@@ -34,7 +34,8 @@ public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
         Predicate isInTournament = criteriaBuilder.exists(generateSubqueryAcceptedParticipants(criteriaBuilder, criteriaQuery, playerRoot));
         Predicate isPlayerInvitationInPending = criteriaBuilder.exists(generateSubqueryPendingParticipants(criteriaBuilder,criteriaQuery,playerRoot));
 
-        Subquery<Long> totalMatchesSubquery = generateSubqueryForTotalMatches(criteriaBuilder, criteriaQuery, playerRoot);
+        //Players that never had a match scheduled have no statistics yet
+        Join<Player, PlayerStats> stats = playerRoot.join("stats", JoinType.LEFT);
 
         criteriaQuery.select(criteriaBuilder.construct(
                 SearchParticipantsJSON.class,
@@ -43,13 +44,15 @@ public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
                 playerRoot.get("firstName"),
                 playerRoot.get("lastName"),
                 playerRoot.get("score"),
-                totalMatchesSubquery.getSelection(),
+                criteriaBuilder.coalesce(stats.<Integer>get("matches"), 0),
+                criteriaBuilder.coalesce(stats.<Integer>get("wins"), 0),
+                criteriaBuilder.coalesce(stats.<Integer>get("draws"), 0),
+                criteriaBuilder.coalesce(stats.<Integer>get("losses"), 0),
                 criteriaBuilder.selectCase()
                         .when(isInTournament,"ACCEPTED")
                         .when(isPlayerInvitationInPending,"PENDING")
                         .otherwise("REJECTED")
-                ))
-                .groupBy(playerRoot.get("firstName"), playerRoot.get("lastName"), playerRoot.get("email"), playerRoot.get("id"), playerRoot.get("score")); //SELECT FROM
+                )); //SELECT FROM
 
         List<Predicate> predicates = getFilterPredicates(participantSearchCriteria, criteriaBuilder, playerRoot);
         if (!predicates.isEmpty()) {
@@ -78,21 +81,6 @@ public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
             return builder.trim(builder.lower(playerRoot.get(participantSearchCriteria.getSortKey())));
     }
 
-    private Subquery<Long> generateSubqueryForTotalMatches(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> criteriaQuery,
-                                                               Root<Player> playerRoot) {
-
-        Subquery<Long> subquery = criteriaQuery.subquery(Long.class);
-        Root<MatchPlayer> matchPlayerRoot = subquery.from(MatchPlayer.class);
-
-        Predicate firstPlayerPredicate = criteriaBuilder.equal(matchPlayerRoot.get("firstPlayer").get("email"), playerRoot.get("email"));
-        Predicate secondPlayerPredicate = criteriaBuilder.equal(matchPlayerRoot.get("secondPlayer").get("email"), playerRoot.get("email"));
-        Predicate condition = criteriaBuilder.or(firstPlayerPredicate, secondPlayerPredicate);
-
-        subquery.select(criteriaBuilder.count(matchPlayerRoot)).where(condition);
-
-        return subquery;
-    }
-
     private Subquery<String> generateSubqueryAcceptedParticipants(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> criteriaQuery, Root<Player> playerRoot) {
         Subquery<String> userSubquery = criteriaQuery.subquery(String.class);
         Root<TournamentUser> tournamentUserRoot = userSubquery.from(TournamentUser.class);
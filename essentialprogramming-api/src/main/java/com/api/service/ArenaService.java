@@ -0,0 +1,258 @@
+package com.api.service;
+
+import com.api.entities.Match;
+import com.api.entities.Player;
+import com.api.entities.Tournament;
+import com.api.entities.TournamentUser;
+import com.api.entities.TournamentUserKey;
+import com.api.mapper.MatchMapper;
+import com.api.model.GameState;
+import com.api.model.MatchPlan;
+import com.api.model.PairingSystem;
+import com.api.output.WebSocketMessage;
+import com.api.pairing.ArenaQueue;
+import com.api.pairing.PairingStrategies;
+import com.api.repository.MatchRepository;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentUserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the arenas of the active tournaments with the {@link PairingSystem#ARENA} format. Players go back to the
+ * {@link ArenaQueue} of their tournament as soon as their match is settled and get paired right away. The new matches
+ * are added to the single round of the arena in small batches, every {@value #FLUSH_INTERVAL_MILLIS} ms, and announced
+ * to both players through the WebSocket.
+ * Arenas live in memory only. They are rebuilt from the active matches when the application starts, every player not
+ * playing goes back to the queue.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class ArenaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArenaService.class);
+
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+    private static final int MATCHES_PER_BATCH = 100;
+
+    private final TournamentRepository tournamentRepository;
+    private final MatchRepository matchRepository;
+    private final TournamentUserRepository tournamentUserRepository;
+    private final ScheduleWriter scheduleWriter;
+
+    private final Map<Integer, Arena> arenas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final class Arena {
+        private final Tournament tournament;
+        private final int roundId;
+        private final Map<Integer, Player> players;
+        private final ArenaQueue queue;
+        private final Queue<MatchPlan> pending = new ConcurrentLinkedQueue<>();
+
+        private Arena(Tournament tournament, int roundId, Map<Integer, Player> players) {
+            this.tournament = tournament;
+            this.roundId = roundId;
+            this.players = players;
+            this.queue = new ArenaQueue(players.size());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    /**
+     * Rebuilds the arenas of the tournaments that were running when the node stopped.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void reopenArenas() {
+        for (Tournament tournament : tournamentRepository.findAllByStateAndPairingSystem(GameState.ACTIVE, PairingSystem.ARENA)) {
+            arenas.computeIfAbsent(tournament.getId(), id -> open(tournament, Collections.emptySet()));
+        }
+    }
+
+    /**
+     * Must be called inside the transaction settling a match. For arena tournaments both players go back to the
+     * queue, with their new scores, once the transaction commits.
+     *
+     * @param match the match that just ended
+     */
+    public void matchEnded(Match match) {
+        Tournament tournament = match.getTournament();
+        if (!PairingSystem.ARENA.equals(tournament.getPairingSystem()) || !GameState.ACTIVE.equals(tournament.getState())) {
+            return;
+        }
+
+        int firstPlayer = match.getMatchResult().getFirstPlayer().getId();
+        int secondPlayer = match.getMatchResult().getSecondPlayer().getId();
+        Set<Integer> settledPlayers = new HashSet<>(Arrays.asList(firstPlayer, secondPlayer));
+        Arena arena = arenas.computeIfAbsent(tournament.getId(), id -> open(tournament, settledPlayers));
+
+        int firstHalfPoints = getHalfPoints(tournament, firstPlayer);
+        int secondHalfPoints = getHalfPoints(tournament, secondPlayer);
+        Runnable requeue = () -> {
+            join(arena, firstPlayer, firstHalfPoints, secondPlayer);
+            join(arena, secondPlayer, secondHalfPoints, firstPlayer);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requeue.run();
+                }
+            });
+        } else {
+            requeue.run();
+        }
+    }
+
+    /**
+     * Drops the arena of a tournament, together with the matches not written yet.
+     */
+    public void close(int tournamentId) {
+        arenas.remove(tournamentId);
+    }
+
+    /**
+     * Writes the matches paired since the last flush, in batches of {@value #MATCHES_PER_BATCH}. A batch that fails
+     * is written again one match at a time, and the matches that still fail are dropped. Their players go back to
+     * the queue once the arena is flushed, so they are paired again at the next flush instead of blocking the
+     * matches paired after them.
+     */
+    public void flush() {
+        for (Arena arena : arenas.values()) {
+            List<MatchPlan> dropped = new ArrayList<>();
+            while (!arena.pending.isEmpty()) {
+                List<MatchPlan> batch = new ArrayList<>(MATCHES_PER_BATCH);
+                MatchPlan match;
+                while (batch.size() < MATCHES_PER_BATCH && (match = arena.pending.poll()) != null) {
+                    batch.add(match);
+                }
+
+                try {
+                    scheduleWriter.writeMatches(arena.tournament, arena.roundId, batch);
+                    batch.forEach(written -> announce(arena, written));
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not write {} arena matches of tournament {}, writing them one by one", batch.size(),
+                            arena.tournament.getTournamentKey(), e);
+                    batch.forEach(single -> writeMatch(arena, single, dropped));
+                }
+            }
+            dropped.forEach(match -> requeue(arena, match));
+        }
+    }
+
+    private void writeMatch(Arena arena, MatchPlan match, List<MatchPlan> dropped) {
+        try {
+            scheduleWriter.writeMatches(arena.tournament, arena.roundId, Collections.singletonList(match));
+            announce(arena, match);
+        } catch (RuntimeException e) {
+            LOG.error("Dropped the arena match of players {} and {} in tournament {}", match.getFirstPlayer().getId(),
+                    match.getSecondPlayer().getId(), arena.tournament.getTournamentKey(), e);
+            dropped.add(match);
+        }
+    }
+
+    private void requeue(Arena arena, MatchPlan match) {
+        int firstPlayer = match.getFirstPlayer().getId();
+        int secondPlayer = match.getSecondPlayer().getId();
+        join(arena, firstPlayer, getHalfPoints(arena.tournament, firstPlayer), secondPlayer);
+        join(arena, secondPlayer, getHalfPoints(arena.tournament, secondPlayer), firstPlayer);
+    }
+
+    /**
+     * Builds the arena of a tournament and pairs the players that are not playing, best scores first.
+     *
+     * @param tournament     the arena tournament
+     * @param excludedPlayers players that go back to the queue later on
+     */
+    private Arena open(Tournament tournament, Set<Integer> excludedPlayers) {
+        Map<Integer, Player> players = tournament.getPlayers().stream()
+                .collect(Collectors.toMap(Player::getId, player -> player));
+        Arena arena = new Arena(tournament, tournament.getCurrentRound().getId(), players);
+
+        Set<Integer> playing = new HashSet<>(excludedPlayers);
+        for (Match match : matchRepository.findAllByTournamentAndState(tournament, GameState.ACTIVE)) {
+            playing.add(match.getMatchResult().getFirstPlayer().getId());
+            playing.add(match.getMatchResult().getSecondPlayer().getId());
+        }
+
+        tournamentUserRepository.findUserByTournament(tournament).stream()
+                .filter(tournamentUser -> !playing.contains(tournamentUser.getTournamentUserId().getUserId()))
+                .sorted(Comparator.comparingDouble(TournamentUser::getScore).reversed())
+                .forEach(tournamentUser -> join(arena, tournamentUser.getTournamentUserId().getUserId(),
+                        toHalfPoints(tournamentUser.getScore()), ArenaQueue.NO_OPPONENT));
+
+        LOG.info("Opened arena of tournament {}: {} players, {} waiting", tournament.getTournamentKey(),
+                players.size(), arena.queue.size());
+        return arena;
+    }
+
+    private void join(Arena arena, int player, int halfPoints, int lastOpponent) {
+        long start = System.nanoTime();
+        int opponent = arena.queue.join(player, halfPoints, lastOpponent);
+        if (opponent == ArenaQueue.NO_OPPONENT) {
+            return;
+        }
+
+        arena.pending.add(MatchPlan.builder()
+                .firstPlayer(arena.players.get(opponent))
+                .secondPlayer(arena.players.get(player))
+                .state(GameState.ACTIVE)
+                .build());
+        PairingStrategies.record(PairingSystem.ARENA, System.nanoTime() - start);
+    }
+
+    private void announce(Arena arena, MatchPlan match) {
+        try {
+            WebSocketMessage message = WebSocketMessage.builder()
+                    .type("arena_match_started")
+                    .content(objectMapper.writeValueAsString(MatchMapper.planToJSON(match, arena.tournament.getTournamentKey())))
+                    .build();
+            WebSocketManager.sendMessageByUserKey(message, match.getFirstPlayer().getUserKey());
+            WebSocketManager.sendMessageByUserKey(message, match.getSecondPlayer().getUserKey());
+        } catch (JsonProcessingException e) {
+            LOG.warn("Could not announce arena match {}", match.getMatchKey(), e);
+        }
+    }
+
+    private int getHalfPoints(Tournament tournament, int playerId) {
+        return tournamentUserRepository.findById(new TournamentUserKey(tournament.getId(), playerId))
+                .map(tournamentUser -> toHalfPoints(tournamentUser.getScore()))
+                .orElse(0);
+    }
+
+    private static int toHalfPoints(double score) {
+        return (int) Math.round(Math.max(0, score) * 2);
+    }
+}
@@ -0,0 +1,112 @@
+package com.api.service;
+
+import com.api.entities.HeadToHeadKey;
+import com.api.entities.Player;
+import com.api.entities.Tournament;
+import com.api.model.Result;
+import com.api.output.HeadToHeadJSON;
+import com.api.repository.HeadToHeadRepository;
+import com.api.repository.PlayerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.inject.Inject;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the head-to-head records of the players, one row per pair of players that met, under the lower and the
+ * higher of their ids. A record is read with a single primary key lookup instead of scanning the pairs of every
+ * tournament. The counters are incremented in the database as results are applied and taken back when a tournament
+ * and its matches are deleted.
+ * <p>
+ * Pairing engines do not read these records. Whether two players already met is answered in O(1) by the
+ * {@link com.api.pairing.PairingHistory} of the tournament, which only holds the games of that tournament, as
+ * players are only kept from meeting twice within one.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class HeadToHeadService {
+
+    private static final String ADD_GAME =
+            "INSERT INTO head_to_head (lower_player_id, higher_player_id, games, lower_player_wins, higher_player_wins, draws, last_played_date) " +
+            "VALUES (?, ?, 1, ?, ?, ?, ?) " +
+            "ON CONFLICT (lower_player_id, higher_player_id) DO UPDATE SET games = head_to_head.games + 1, " +
+            "lower_player_wins = head_to_head.lower_player_wins + EXCLUDED.lower_player_wins, " +
+            "higher_player_wins = head_to_head.higher_player_wins + EXCLUDED.higher_player_wins, " +
+            "draws = head_to_head.draws + EXCLUDED.draws, " +
+            "last_played_date = GREATEST(head_to_head.last_played_date, EXCLUDED.last_played_date)";
+    private static final String REMOVE_TOURNAMENT =
+            "UPDATE head_to_head h SET games = h.games - t.games, lower_player_wins = h.lower_player_wins - t.lower_player_wins, " +
+            "higher_player_wins = h.higher_player_wins - t.higher_player_wins, draws = h.draws - t.draws " +
+            "FROM (SELECT LEAST(r.first_player_id, r.second_player_id) AS lower_player_id, " +
+            "GREATEST(r.first_player_id, r.second_player_id) AS higher_player_id, count(*) AS games, " +
+            "count(*) FILTER (WHERE (r.result = 'FIRST') = (r.first_player_id < r.second_player_id) AND r.result <> 'DRAW') AS lower_player_wins, " +
+            "count(*) FILTER (WHERE (r.result = 'FIRST') = (r.first_player_id > r.second_player_id) AND r.result <> 'DRAW') AS higher_player_wins, " +
+            "count(*) FILTER (WHERE r.result = 'DRAW') AS draws " +
+            "FROM match m JOIN match_result r ON r.id = m.match_result_id " +
+            "WHERE m.tournament_id = ? AND m.state = 'ENDED' AND m.is_bye = false AND r.second_player_id IS NOT NULL AND r.result IS NOT NULL " +
+            "GROUP BY 1, 2) t " +
+            "WHERE h.lower_player_id = t.lower_player_id AND h.higher_player_id = t.higher_player_id";
+    private static final String DELETE_UNPLAYED = "DELETE FROM head_to_head WHERE games <= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HeadToHeadRepository headToHeadRepository;
+    private final PlayerRepository playerRepository;
+
+    /**
+     * Counts a settled game in the record of its two players. Must be called inside the transaction applying the
+     * result.
+     */
+    public void gamePlayed(int firstPlayerId, int secondPlayerId, Result result) {
+        HeadToHeadKey key = HeadToHeadKey.of(firstPlayerId, secondPlayerId);
+        Result lowerPlayerWin = key.getLowerPlayerId() == firstPlayerId ? Result.FIRST : Result.SECOND;
+        Result higherPlayerWin = key.getLowerPlayerId() == firstPlayerId ? Result.SECOND : Result.FIRST;
+
+        jdbcTemplate.update(ADD_GAME, key.getLowerPlayerId(), key.getHigherPlayerId(),
+                lowerPlayerWin.equals(result) ? 1 : 0,
+                higherPlayerWin.equals(result) ? 1 : 0,
+                Result.DRAW.equals(result) ? 1 : 0,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Takes back the games of a tournament about to be deleted. Must be called before its matches are deleted.
+     */
+    public void tournamentDeleted(Tournament tournament) {
+        jdbcTemplate.update(REMOVE_TOURNAMENT, tournament.getId());
+        jdbcTemplate.update(DELETE_UNPLAYED);
+    }
+
+    /**
+     * Returns the head-to-head record of two players, from the point of view of the first one.
+     */
+    @Transactional(readOnly = true)
+    public HeadToHeadJSON getHeadToHead(String firstPlayerKey, String secondPlayerKey) {
+        Player firstPlayer = playerRepository.findByUserKey(firstPlayerKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
+        Player secondPlayer = playerRepository.findByUserKey(secondPlayerKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
+        if (firstPlayer.getId() == secondPlayer.getId()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "A player has no head-to-head record with itself!");
+        }
+
+        HeadToHeadJSON.HeadToHeadJSONBuilder json = HeadToHeadJSON.builder()
+                .firstPlayerKey(firstPlayerKey)
+                .secondPlayerKey(secondPlayerKey);
+        headToHeadRepository.findById(HeadToHeadKey.of(firstPlayer.getId(), secondPlayer.getId()))
+                .ifPresent(record -> {
+                    boolean firstIsLower = record.getId().getLowerPlayerId() == firstPlayer.getId();
+                    json.games(record.getGames())
+                            .firstPlayerWins(firstIsLower ? record.getLowerPlayerWins() : record.getHigherPlayerWins())
+                            .secondPlayerWins(firstIsLower ? record.getHigherPlayerWins() : record.getLowerPlayerWins())
+                            .draws(record.getDraws())
+                            .lastPlayedDate(record.getLastPlayedDate() != null ? record.getLastPlayedDate().toString() : null);
+                });
+        return json.build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.api.service;
+
+import com.api.entities.Match;
+import com.api.entities.Player;
+import com.api.entities.Round;
+import com.api.entities.Tournament;
+import com.api.model.BracketEntry;
+import com.api.model.GameState;
+import com.api.model.MatchPlan;
+import com.api.model.PairingSystem;
+import com.api.model.Result;
+import com.api.model.RoundPlan;
+import com.api.pairing.KnockoutStrategy;
+import com.api.repository.MatchRepository;
+import com.api.repository.PlayerRepository;
+import com.api.repository.RoundRepository;
+import com.api.repository.TournamentRepository;
+import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves the winners through the brackets of the tournaments with the {@link PairingSystem#KNOCKOUT} format.
+ * Only the first round is written when the tournament starts, along with the second round matches of the players
+ * whose byes feed the same slot. Any other match of a later round is written as soon as both matches feeding it are
+ * over, looked up by their {@link KnockoutStrategy bracket slots}, so settling a result costs the same whatever the
+ * size of the bracket.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class KnockoutService {
+
+    private final TournamentRepository tournamentRepository;
+    private final MatchRepository matchRepository;
+    private final RoundRepository roundRepository;
+    private final PlayerRepository playerRepository;
+    private final ScheduleWriter scheduleWriter;
+
+    /**
+     * Rejects the results a knockout match cannot end with.
+     *
+     * @param match  the match being reported
+     * @param result the reported result
+     */
+    public void checkResult(Match match, Result result) {
+        if (PairingSystem.KNOCKOUT.equals(match.getTournament().getPairingSystem()) && Result.DRAW.equals(result)) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Knockout matches cannot end in a draw!");
+        }
+    }
+
+    /**
+     * Must be called inside the transaction settling a match. For knockout tournaments, once the other match of
+     * the pair is over too, the two winners are paired in the next round. The final has nowhere to go.
+     *
+     * @param match the match that just ended
+     */
+    public void matchEnded(Match match) {
+        Tournament tournament = match.getTournament();
+        Integer bracketSlot = match.getBracketSlot();
+        if (!PairingSystem.KNOCKOUT.equals(tournament.getPairingSystem()) || bracketSlot == null || bracketSlot <= 1) {
+            return;
+        }
+
+        //Both matches of a pair lock the even one, so only the one settled last sees the other over
+        Round round = match.getRound();
+        matchRepository.lockBracketSlot(round.getId(), bracketSlot & ~1);
+        Integer otherWinnerId = matchRepository.findBracketEntry(round, bracketSlot ^ 1)
+                .map(BracketEntry::getWinnerId)
+                .orElse(null);
+        if (otherWinnerId == null) {
+            return;
+        }
+
+        int winnerId = Result.SECOND.equals(match.getMatchResult().getResult())
+                ? match.getMatchResult().getSecondPlayer().getId()
+                : match.getMatchResult().getFirstPlayer().getId();
+        boolean upperHalf = bracketSlot % 2 == 0;
+
+        MatchPlan nextMatch = MatchPlan.builder()
+                .firstPlayer(playerRepository.getOne(upperHalf ? winnerId : otherWinnerId))
+                .secondPlayer(playerRepository.getOne(upperHalf ? otherWinnerId : winnerId))
+                .state(GameState.ACTIVE)
+                .bracketSlot(bracketSlot / 2)
+                .build();
+        Round nextRound = getRound(tournament, round.getNumber() + 1);
+        scheduleWriter.writeMatches(tournament, nextRound.getId(), Collections.singletonList(nextMatch));
+    }
+
+    /**
+     * Must be called inside the transaction writing the first round of a knockout. Byes are written already over
+     * and are never settled, so the players of two byes feeding the same slot are paired here instead of when a
+     * result comes in. Their match is played, so the bracket never has to be walked further up.
+     *
+     * @param tournament the tournament the round belongs to
+     * @param round      the written first round, with its id and bracket slots
+     */
+    public void firstRoundWritten(Tournament tournament, RoundPlan round) {
+        if (!PairingSystem.KNOCKOUT.equals(tournament.getPairingSystem())) {
+            return;
+        }
+
+        Map<Integer, Player> byes = new TreeMap<>();
+        for (MatchPlan match : round.getMatches()) {
+            if (match.isBye() && match.getBracketSlot() != null) {
+                byes.put(match.getBracketSlot(), match.getFirstPlayer());
+            }
+        }
+
+        List<MatchPlan> nextMatches = new ArrayList<>();
+        byes.forEach((bracketSlot, player) -> {
+            Player otherPlayer = byes.get(bracketSlot + 1);
+            if (bracketSlot % 2 == 0 && otherPlayer != null) {
+                nextMatches.add(MatchPlan.builder()
+                        .firstPlayer(player)
+                        .secondPlayer(otherPlayer)
+                        .state(GameState.ACTIVE)
+                        .bracketSlot(bracketSlot / 2)
+                        .build());
+            }
+        });
+        if (nextMatches.isEmpty()) {
+            return;
+        }
+
+        Round nextRound = getRound(tournament, round.getNumber() + 1);
+        scheduleWriter.writeMatches(tournament, nextRound.getId(), nextMatches);
+    }
+
+    /**
+     * Returns a round of the bracket, written by the first winner reaching it.
+     */
+    private Round getRound(Tournament tournament, int number) {
+        return roundRepository.findByTournamentAndNumber(tournament, number).orElseGet(() -> {
+            tournamentRepository.lockById(tournament.getId());
+            return roundRepository.findByTournamentAndNumber(tournament, number).orElseGet(() -> {
+                Round round = roundRepository.save(Round.builder()
+                        .number(number)
+                        .roundKey(NanoIdUtils.randomNanoId())
+                        .state(GameState.CREATED)
+                        .tournament(tournament)
+                        .matches(new ArrayList<>())
+                        .build());
+                if (tournament.getRounds() != null) {
+                    tournament.getRounds().put(number, round);
+                }
+                return round;
+            });
+        });
+    }
+}
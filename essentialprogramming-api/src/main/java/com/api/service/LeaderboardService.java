@@ -0,0 +1,326 @@
+package com.api.service;
+
+import com.api.entities.Tournament;
+import com.api.leaderboard.Leaderboard;
+import com.api.leaderboard.LeaderboardEntry;
+import com.api.model.GameResult;
+import com.api.model.GameState;
+import com.api.model.PlayerScore;
+import com.api.output.LeaderboardPageJSON;
+import com.api.output.LeaderboardRankJSON;
+import com.api.output.PlayerJSON;
+import com.api.output.StandingJSON;
+import com.api.repository.MatchRepository;
+import com.api.repository.PlayerRepository;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the leaderboards of the active tournaments from memory. A {@link Leaderboard} is loaded from the database
+ * the first time it is read and then kept up to date by the results, so spectators refreshing it during a round
+ * do not reach the database. Leaderboards are rebuilt for every active tournament when the application starts.
+ * Tournaments that are not active are read from the database every time.
+ * <p>
+ * The overall leaderboard is read a page at a time, each page continuing after the last player of the previous
+ * one. The first players are cached and the cache is only dropped when a score changes among them or rises above
+ * the last of them.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class LeaderboardService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final int OVERALL_PAGE_SIZE = 50;
+    private static final int OVERALL_MAX_PAGE_SIZE = 500;
+    private static final int OVERALL_TOP_CACHED = 100;
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentUserRepository tournamentUserRepository;
+    private final PlayerRepository playerRepository;
+    private final MatchRepository matchRepository;
+
+    private final Map<Integer, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> leaderboardsByKey = new ConcurrentHashMap<>();
+
+    private final Object overallTopLock = new Object();
+    private long overallTopVersion;
+    private volatile OverallTop overallTop;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void loadLeaderboards() {
+        for (Tournament tournament : tournamentRepository.findByState(GameState.ACTIVE)) {
+            getLeaderboard(tournament);
+        }
+        LOG.info("Loaded the leaderboards of {} active tournaments", leaderboards.size());
+    }
+
+    /**
+     * @param tournamentKey the key of the tournament
+     * @param limit         the number of players to return, all of them if null
+     * @return the players of the tournament ordered by their score and tiebreaks, best first
+     */
+    public List<StandingJSON> getTop(String tournamentKey, Integer limit) {
+        if (limit != null && limit < 0) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Limit must not be negative!");
+        }
+
+        Leaderboard leaderboard = leaderboardsByKey.get(tournamentKey);
+        return (leaderboard != null ? leaderboard : loadLeaderboard(tournamentKey)).getTop(limit);
+    }
+
+    public LeaderboardRankJSON getRank(String tournamentKey, String playerKey) {
+        Leaderboard leaderboard = leaderboardsByKey.get(tournamentKey);
+        if (leaderboard == null) {
+            leaderboard = loadLeaderboard(tournamentKey);
+        }
+
+        LeaderboardEntry entry = leaderboard.getEntry(playerKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament"));
+
+        return LeaderboardRankJSON.builder()
+                .playerKey(playerKey)
+                .rank(leaderboard.getRank(playerKey))
+                .score(entry.getScore())
+                .playersCount(leaderboard.size())
+                .build();
+    }
+
+    /**
+     * @param cursor the {@link LeaderboardPageJSON#getNext() next} cursor of the previous page, null for the first
+     * @param limit  the number of players to return, {@value OVERALL_PAGE_SIZE} if null
+     * @return the players from all tournaments ordered by their overall score, best first
+     */
+    public LeaderboardPageJSON getOverallLeaderboard(String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : OVERALL_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > OVERALL_MAX_PAGE_SIZE) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Limit must be between 1 and " + OVERALL_MAX_PAGE_SIZE + "!");
+        }
+
+        //One player more than the page is read to know whether there is a next page
+        List<LeaderboardEntry> entries;
+        if (cursor != null) {
+            LeaderboardEntry after = decodeCursor(cursor);
+            entries = playerRepository.findOverallLeaderboardAfter(after.getScore(), after.getPlayerId(), PageRequest.of(0, pageSize + 1));
+        } else if (pageSize < OVERALL_TOP_CACHED) {
+            entries = getOverallTop();
+        } else {
+            entries = playerRepository.findOverallLeaderboard(PageRequest.of(0, pageSize + 1));
+        }
+
+        List<PlayerJSON> players = entries.stream()
+                .limit(pageSize)
+                .map(LeaderboardEntry::toJSON)
+                .collect(Collectors.toList());
+        return LeaderboardPageJSON.builder()
+                .players(players)
+                .next(entries.size() > pageSize ? encodeCursor(entries.get(pageSize - 1)) : null)
+                .build();
+    }
+
+    /**
+     * Must be called inside the transaction applying the result of a game. The game and the new scores reach the
+     * leaderboard of the tournament, if it is loaded, and the overall leaderboard once the transaction commits.
+     *
+     * @param tournamentId the id of the tournament
+     * @param game         the game settled
+     * @param scores       the scores as stored by the result
+     */
+    public void resultApplied(int tournamentId, GameResult game, List<PlayerScore> scores) {
+        scoresChanged(tournamentId, game, scores);
+    }
+
+    /**
+     * Must be called inside the transaction applying a bye. The new score reaches the leaderboards once the
+     * transaction commits.
+     *
+     * @param tournamentId the id of the tournament
+     * @param scores       the scores as stored by the bye
+     */
+    public void scoresChanged(int tournamentId, List<PlayerScore> scores) {
+        scoresChanged(tournamentId, null, scores);
+    }
+
+    private void scoresChanged(int tournamentId, GameResult game, List<PlayerScore> scores) {
+        afterCommit(() -> {
+            leaderboards.computeIfPresent(tournamentId, (id, leaderboard) -> {
+                scores.forEach(score -> leaderboard.raiseScore(score.getPlayerId(), score.getScore()));
+                if (game != null) {
+                    leaderboard.addGame(game);
+                }
+                return leaderboard;
+            });
+            synchronized (overallTopLock) {
+                OverallTop top = overallTop;
+                if (top == null || scores.stream().anyMatch(top::isChangedBy)) {
+                    dropOverallTop();
+                }
+            }
+        });
+    }
+
+    /**
+     * Must be called inside the transaction setting the overall score of a player back to zero.
+     */
+    public void overallScoreReset(int playerId) {
+        afterCommit(() -> {
+            synchronized (overallTopLock) {
+                OverallTop top = overallTop;
+                if (top == null || top.scores.containsKey(playerId)) {
+                    dropOverallTop();
+                }
+            }
+        });
+    }
+
+    /**
+     * Must be called inside the transaction deleting players.
+     */
+    public void playersDeleted() {
+        afterCommit(() -> {
+            synchronized (overallTopLock) {
+                dropOverallTop();
+            }
+        });
+    }
+
+    /**
+     * Drops the leaderboard of a tournament that ended or was deleted.
+     */
+    public void close(Tournament tournament) {
+        leaderboards.remove(tournament.getId());
+        leaderboardsByKey.remove(tournament.getTournamentKey());
+    }
+
+    /**
+     * @return the first players of the overall leaderboard, all of them if there are not more
+     */
+    private List<LeaderboardEntry> getOverallTop() {
+        OverallTop top = overallTop;
+        if (top != null) {
+            return top.entries;
+        }
+
+        //A score changed while the players are read drops the version, so the players are not cached stale
+        long version;
+        synchronized (overallTopLock) {
+            version = overallTopVersion;
+        }
+        List<LeaderboardEntry> entries = playerRepository.findOverallLeaderboard(PageRequest.of(0, OVERALL_TOP_CACHED));
+        if (entries.size() == OVERALL_TOP_CACHED) {
+            synchronized (overallTopLock) {
+                if (version == overallTopVersion) {
+                    overallTop = new OverallTop(entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void dropOverallTop() {
+        overallTopVersion++;
+        overallTop = null;
+    }
+
+    private static String encodeCursor(LeaderboardEntry entry) {
+        String position = entry.getScore() + ":" + entry.getPlayerId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LeaderboardEntry decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (position.length == 2) {
+                return new LeaderboardEntry(Integer.parseInt(position[1]), null, null, null, null, Double.parseDouble(position[0]));
+            }
+        } catch (IllegalArgumentException e) {
+            //Reported below
+        }
+        throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid cursor!");
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private Leaderboard loadLeaderboard(String tournamentKey) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        if (!GameState.ACTIVE.equals(tournament.getState())) {
+            return buildLeaderboard(tournament);
+        }
+        return getLeaderboard(tournament);
+    }
+
+    /**
+     * Loads the leaderboard of an active tournament once. A result committed while the leaderboard loads waits for
+     * it and is applied after, so none is missed.
+     */
+    private Leaderboard getLeaderboard(Tournament tournament) {
+        Leaderboard leaderboard = leaderboards.computeIfAbsent(tournament.getId(), id -> buildLeaderboard(tournament));
+        leaderboardsByKey.put(tournament.getTournamentKey(), leaderboard);
+        return leaderboard;
+    }
+
+    /**
+     * Builds the leaderboard of a tournament from the database as the current transaction sees it, without
+     * keeping it.
+     */
+    public Leaderboard buildLeaderboard(Tournament tournament) {
+        return new Leaderboard(tournamentUserRepository.findLeaderboardEntries(tournament), matchRepository.findGameResults(tournament));
+    }
+
+    /**
+     * The first players of the overall leaderboard, full, with the last of them as the boundary of the cache.
+     */
+    private static final class OverallTop {
+        private final List<LeaderboardEntry> entries;
+        private final Map<Integer, Double> scores = new HashMap<>();
+        private final LeaderboardEntry last;
+
+        private OverallTop(List<LeaderboardEntry> entries) {
+            this.entries = entries;
+            entries.forEach(entry -> scores.put(entry.getPlayerId(), entry.getScore()));
+            last = entries.get(entries.size() - 1);
+        }
+
+        private boolean isChangedBy(PlayerScore score) {
+            Double cached = scores.get(score.getPlayerId());
+            if (cached != null) {
+                return cached != score.getOverallScore();
+            }
+            return score.getOverallScore() > last.getScore()
+                    || (score.getOverallScore() == last.getScore() && score.getPlayerId() < last.getPlayerId());
+        }
+    }
+}
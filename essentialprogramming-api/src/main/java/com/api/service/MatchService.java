@@ -4,23 +4,29 @@ import com.api.entities.*;
 import com.api.mapper.MatchMapper;
 import com.api.model.GameState;
 import com.api.model.MatchSearchCriteria;
+import com.api.model.PairingSystem;
 import com.api.model.Result;
 import com.api.output.*;
 import com.api.repository.*;
+import com.api.websocket.Topics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.util.web.JsonResponse;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.HttpClientErrorException;
 
 import javax.inject.Inject;
-import javax.persistence.criteria.Join;
 import java.io.Serializable;
 import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -33,6 +39,8 @@ import static org.springframework.data.jpa.domain.Specification.where;
 @RequiredArgsConstructor(onConstructor = @__(@Inject))
 public class MatchService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(MatchService.class);
+
     private final PlayerRepository playerRepository;
     private final MatchRepository matchRepository;
     private final TournamentUserRepository tournamentUserRepository;
@@ -40,6 +48,9 @@ public class MatchService {
     private final TournamentService tournamentService;
     private final UserRepository userRepository;
     private final ResultService resultService;
+    private final ArenaService arenaService;
+    private final KnockoutService knockoutService;
+    private final TournamentStateService tournamentStateService;
 
     @Transactional
     public MatchJSON reportMatchByPlayer(String userKey, String matchKey, String resultString) throws GeneralSecurityException, JsonProcessingException {
@@ -51,6 +62,7 @@ public class MatchService {
         Player player = playerRepository.findByUserKey(userKey).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
         MatchResult matchResult = currentMatch.getMatchResult();
         Result result = convertToResult(resultString);
+        knockoutService.checkResult(currentMatch, result);
 
         if (player.getId() == matchResult.getFirstPlayer().getId()) {
             if (matchResult.getFirstPlayerResult() == null) {
@@ -68,10 +80,10 @@ public class MatchService {
 
         if (bothResultsPresentAndEqual(matchResult)) {
             matchResult.setResult(result);
-            resultService.applyResults(matchResult.getFirstPlayer().getId(), matchResult.getSecondPlayer().getId(), result, currentMatch.getTournament().getId());
-            currentMatch.setState(GameState.ENDED);
+            endMatch(currentMatch, result);
 
-            WebSocketManager.sendMessage(buildNotification("match_result_settled", matchResult));
+            WebSocketManager.publish(buildNotification("match_result_settled", matchResult),
+                Topics.tournament(currentMatch.getTournament().getTournamentKey()), Topics.match(currentMatch.getMatchKey()));
 
         } else if (matchResult.getFirstPlayerResult() != null && matchResult.getSecondPlayerResult() != null) {
 
@@ -118,24 +130,67 @@ public class MatchService {
 
         MatchResult matchResult = currentMatch.getMatchResult();
         Result result = convertToResult(resultString);
+        knockoutService.checkResult(currentMatch, result);
 
         matchResult.setResult(result);
         currentMatch.setMatchResult(matchResult);
-        resultService.applyResults(matchResult.getFirstPlayer().getId(), matchResult.getSecondPlayer().getId(), result, currentMatch.getTournament().getId());
-        currentMatch.setState(GameState.ENDED);
+        endMatch(currentMatch, result);
+
+        WebSocketManager.publish(buildNotification("match_result_settled", matchResult),
+                Topics.tournament(currentMatch.getTournament().getTournamentKey()), Topics.match(currentMatch.getMatchKey()));
+
+        return MatchMapper.entityToJSON(currentMatch);
+    }
 
-        //Check if current round is over and switch to the next one
-        Round currentRound = roundRepository.findByRoundKey(currentMatch.getRound().getRoundKey())
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Round not found!"));
+    /**
+     * Ends a match with its settled result. The match is counted down from the pending matches of its round in the
+     * database, so of several last reports arriving together exactly one sees the round finished and switches to
+     * the next round, arenas excepted as they play a single open round. The switch happens once the report
+     * committed, so a next round that cannot be paired does not lose the result. A report of a match that another
+     * one already ended is refused.
+     */
+    private void endMatch(Match currentMatch, Result result) {
+        List<Integer> pendingMatches = roundRepository.endMatch(currentMatch.getId());
+        if (pendingMatches.isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "This match ended, cannot report a new result!");
+        }
 
-        if (tournamentService.roundFinished(currentRound)
+        MatchResult matchResult = currentMatch.getMatchResult();
+        resultService.applyResults(currentMatch.getId(), matchResult.getFirstPlayer().getId(), matchResult.getSecondPlayer().getId(), result, currentMatch.getTournament().getId());
+        currentMatch.setState(GameState.ENDED);
+        currentMatch.setEndDate(LocalDateTime.now());
+        arenaService.matchEnded(currentMatch);
+        knockoutService.matchEnded(currentMatch);
+        tournamentStateService.stateChanged(currentMatch.getTournament().getTournamentKey());
+
+        Round currentRound = currentMatch.getRound();
+        currentRound.setPendingMatches(pendingMatches.get(0));
+        if (!PairingSystem.ARENA.equals(currentMatch.getTournament().getPairingSystem())
+                && tournamentService.roundFinished(currentRound)
                 && currentRound.getState() == GameState.ACTIVE) {
-            tournamentService.switchToNextRound(currentRound.getTournament().getTournamentKey());
+            advanceRoundAfterCommit(currentMatch.getTournament().getTournamentKey());
         }
+    }
 
-        WebSocketManager.sendMessage(buildNotification("match_result_settled", matchResult));
+    private void advanceRoundAfterCommit(String tournamentKey) {
+        Runnable advance = () -> {
+            try {
+                tournamentService.advanceRound(tournamentKey);
+            } catch (RuntimeException e) {
+                LOG.error("Could not switch tournament {} to its next round", tournamentKey, e);
+            }
+        };
 
-        return MatchMapper.entityToJSON(currentMatch);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance.run();
+                }
+            });
+        } else {
+            advance.run();
+        }
     }
 
     @Transactional
@@ -187,7 +242,7 @@ public class MatchService {
         List<SearchMatchesJSON> matchList;
 
         if (matchSearchCriteria.isEmpty()) {
-            matchList = matchRepository.findAll(where(hasNoGhostPlayer()))
+            matchList = matchRepository.findAll(where(isNotBye()))
                     .stream()
                     .sorted(Comparator.comparingInt(Match::getId))
                     .map(MatchMapper::entityToSearchMatchJSON)
@@ -215,15 +270,8 @@ public class MatchService {
         return matchList;
     }
 
-    private Specification<Match> hasNoGhostPlayer() {
-        return (matchRoot, criteriaQuery, builder) -> {
-            Join<Match, MatchResult> join = matchRoot.join("matchResult");
-
-            return builder.and(
-                    builder.notLike(join.get("firstPlayer").get("email"), "%" + "GHOST_EMAIL_" + "%"),
-                    builder.notLike(join.get("secondPlayer").get("email"), "%" + "GHOST_EMAIL_" + "%")
-            );
-        };
+    private Specification<Match> isNotBye() {
+        return (matchRoot, criteriaQuery, builder) -> builder.isFalse(matchRoot.get("bye"));
     }
 
 }
\ No newline at end of file
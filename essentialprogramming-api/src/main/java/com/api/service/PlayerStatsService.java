@@ -0,0 +1,103 @@
+package com.api.service;
+
+import com.api.entities.Tournament;
+import com.api.model.MatchPlan;
+import com.api.model.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.inject.Inject;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the player_stats aggregate: the matches scheduled for every player and the games, wins, draws and
+ * losses it played. The counts are incremented in the database as matches are written and results applied,
+ * and taken back when a tournament and its matches are deleted, so searches read them instead of counting.
+ * Rows are upserted in player id order, so concurrent writers lock them in the same order.
+ * Must be called inside the transaction writing the matches or the result.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class PlayerStatsService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String ADD_MATCHES =
+            "INSERT INTO player_stats (user_id, matches) VALUES (?, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET matches = player_stats.matches + EXCLUDED.matches";
+    private static final String ADD_GAME =
+            "INSERT INTO player_stats (user_id, games, wins, draws, losses, last_played_date) VALUES (?, 1, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET games = player_stats.games + 1, " +
+            "wins = player_stats.wins + EXCLUDED.wins, draws = player_stats.draws + EXCLUDED.draws, " +
+            "losses = player_stats.losses + EXCLUDED.losses, " +
+            "last_played_date = GREATEST(player_stats.last_played_date, EXCLUDED.last_played_date)";
+    private static final String REMOVE_TOURNAMENT =
+            "UPDATE player_stats s SET matches = s.matches - t.matches, games = s.games - t.games, " +
+            "wins = s.wins - t.wins, draws = s.draws - t.draws, losses = s.losses - t.losses " +
+            "FROM (SELECT player_id, count(*) AS matches, count(points) AS games, " +
+            "count(*) FILTER (WHERE points = 1) AS wins, count(*) FILTER (WHERE points = 0.5) AS draws, " +
+            "count(*) FILTER (WHERE points = 0) AS losses " +
+            "FROM (SELECT mp.first_player_id AS player_id, " +
+            "CASE WHEN m.state <> 'ENDED' THEN NULL WHEN r.result = 'FIRST' THEN 1 WHEN r.result = 'DRAW' THEN 0.5 WHEN r.result = 'SECOND' THEN 0 END AS points " +
+            "FROM match_player mp JOIN match m ON m.id = mp.match_id JOIN match_result r ON r.id = m.match_result_id WHERE mp.tournament_id = ? " +
+            "UNION ALL " +
+            "SELECT mp.second_player_id, " +
+            "CASE WHEN m.state <> 'ENDED' THEN NULL WHEN r.result = 'SECOND' THEN 1 WHEN r.result = 'DRAW' THEN 0.5 WHEN r.result = 'FIRST' THEN 0 END " +
+            "FROM match_player mp JOIN match m ON m.id = mp.match_id JOIN match_result r ON r.id = m.match_result_id WHERE mp.tournament_id = ?) games " +
+            "GROUP BY player_id) t " +
+            "WHERE s.user_id = t.player_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Counts the matches just written for their players, byes are not counted.
+     */
+    public void matchesScheduled(List<MatchPlan> matches) {
+        Map<Integer, Integer> matchesPerPlayer = new TreeMap<>();
+        for (MatchPlan match : matches) {
+            if (!match.isBye()) {
+                matchesPerPlayer.merge(match.getFirstPlayer().getId(), 1, Integer::sum);
+                matchesPerPlayer.merge(match.getSecondPlayer().getId(), 1, Integer::sum);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(matchesPerPlayer.size());
+        matchesPerPlayer.forEach((playerId, count) -> rows.add(new Object[]{playerId, count}));
+        jdbcTemplate.batchUpdate(ADD_MATCHES, rows, BATCH_SIZE, (statement, row) -> {
+            statement.setInt(1, (Integer) row[0]);
+            statement.setInt(2, (Integer) row[1]);
+        });
+    }
+
+    /**
+     * Counts a settled game for both of its players.
+     */
+    public void gamePlayed(int firstPlayerId, int secondPlayerId, Result result) {
+        Timestamp playedDate = Timestamp.valueOf(LocalDateTime.now());
+        Object[] firstPlayer = {firstPlayerId, count(Result.FIRST, result), count(Result.DRAW, result), count(Result.SECOND, result), playedDate};
+        Object[] secondPlayer = {secondPlayerId, count(Result.SECOND, result), count(Result.DRAW, result), count(Result.FIRST, result), playedDate};
+
+        jdbcTemplate.batchUpdate(ADD_GAME, firstPlayerId < secondPlayerId
+                ? Arrays.asList(firstPlayer, secondPlayer)
+                : Arrays.asList(secondPlayer, firstPlayer));
+    }
+
+    /**
+     * Takes back the matches and games of a tournament about to be deleted. Must be called before its matches
+     * are deleted.
+     */
+    public void tournamentDeleted(Tournament tournament) {
+        jdbcTemplate.update(REMOVE_TOURNAMENT, tournament.getId(), tournament.getId());
+    }
+
+    private static int count(Result counted, Result result) {
+        return counted.equals(result) ? 1 : 0;
+    }
+}
@@ -0,0 +1,258 @@
+package com.api.service;
+
+import com.api.model.GameState;
+import com.api.model.JobState;
+import com.api.model.Result;
+import com.api.output.RatingRecomputeJSON;
+import com.api.rating.Glicko2;
+import com.api.rating.RatingPeriods;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentStartJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps the Glicko-2 ratings of the players. Every settled game rates its two players at once, as a rating period
+ * of its own, and records the new ratings in the rating history.
+ * The ratings can also be recomputed from all the games ever played, grouped in weekly rating periods. The games
+ * are streamed from the database in the order they ended and the players of each period are rated in parallel.
+ * <p>
+ * The two do not use the same model: a live rating never grows the deviation of a player for the time spent without
+ * playing, while the recompute inflates it for every weekly period a player sat out, and rates the games of a week
+ * together against the ratings the opponents had when the week started. A recompute therefore replaces the live
+ * ratings with different, not just more up to date, values.
+ * <p>
+ * The recompute replaces the ratings and the history in a single transaction. It is refused while tournaments are
+ * being played or started, and tournaments cannot be started while it runs, since the games they settle meanwhile
+ * would be rated from ratings about to be replaced.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class RatingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatingService.class);
+
+    private static final long RATING_PERIOD_DAYS = 7;
+    private static final int FETCH_SIZE = 10000;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_RATINGS =
+            "SELECT id, rating, rating_deviation, rating_volatility FROM users WHERE id IN (?, ?)";
+    private static final String UPDATE_RATING =
+            "UPDATE users SET rating = ?, rating_deviation = ?, rating_volatility = ? WHERE id = ?";
+    private static final String RESET_RATINGS =
+            "UPDATE users SET rating = ?, rating_deviation = ?, rating_volatility = ? WHERE type = 'player'";
+    private static final String INSERT_RATING_HISTORY =
+            "INSERT INTO rating_history (user_id, match_id, rating, rating_deviation, rating_volatility, rated_date) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_RATING_HISTORY = "DELETE FROM rating_history";
+    private static final String SELECT_GAMES =
+            "SELECT COALESCE(m.end_date, m.start_date) AS played_date, r.first_player_id, r.second_player_id, r.result " +
+            "FROM match m JOIN match_result r ON r.id = m.match_result_id " +
+            "WHERE m.state = 'ENDED' AND m.is_bye = false AND r.second_player_id IS NOT NULL " +
+            "ORDER BY played_date NULLS FIRST, m.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TournamentRepository tournamentRepository;
+    private final TournamentStartJobRepository tournamentStartJobRepository;
+
+    private final ExecutorService recomputeExecutor = Executors.newSingleThreadExecutor();
+    private final ForkJoinPool ratingPool = new ForkJoinPool();
+    private volatile RatingRecomputeJSON recompute;
+
+    /**
+     * Rates the two players of a settled game. Must be called inside the transaction applying the result, once the
+     * rows of both players are locked by the new scores.
+     */
+    public void rateGame(int matchId, int firstPlayerId, int secondPlayerId, Result result) {
+        Map<Integer, double[]> ratings = new HashMap<>();
+        jdbcTemplate.query(SELECT_RATINGS, (RowCallbackHandler) resultSet -> ratings.put(resultSet.getInt("id"), new double[]{
+                resultSet.getDouble("rating"), resultSet.getDouble("rating_deviation"), resultSet.getDouble("rating_volatility")
+        }), firstPlayerId, secondPlayerId);
+        double[] firstPlayer = ratings.get(firstPlayerId);
+        double[] secondPlayer = ratings.get(secondPlayerId);
+        if (firstPlayer == null || secondPlayer == null) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!");
+        }
+
+        double firstPlayerScore = Result.FIRST.equals(result) ? 1 : Result.DRAW.equals(result) ? 0.5 : 0;
+        double[] firstPlayerRated = new double[3];
+        double[] secondPlayerRated = new double[3];
+        Glicko2.rate(firstPlayer[0], firstPlayer[1], firstPlayer[2],
+                new double[]{secondPlayer[0]}, new double[]{secondPlayer[1]}, new double[]{firstPlayerScore}, 0, 1, firstPlayerRated);
+        Glicko2.rate(secondPlayer[0], secondPlayer[1], secondPlayer[2],
+                new double[]{firstPlayer[0]}, new double[]{firstPlayer[1]}, new double[]{1 - firstPlayerScore}, 0, 1, secondPlayerRated);
+
+        Timestamp ratedDate = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_RATING, Arrays.asList(
+                new Object[]{firstPlayerRated[0], firstPlayerRated[1], firstPlayerRated[2], firstPlayerId},
+                new Object[]{secondPlayerRated[0], secondPlayerRated[1], secondPlayerRated[2], secondPlayerId}));
+        jdbcTemplate.batchUpdate(INSERT_RATING_HISTORY, Arrays.asList(
+                new Object[]{firstPlayerId, matchId, firstPlayerRated[0], firstPlayerRated[1], firstPlayerRated[2], ratedDate},
+                new Object[]{secondPlayerId, matchId, secondPlayerRated[0], secondPlayerRated[1], secondPlayerRated[2], ratedDate}));
+    }
+
+    /**
+     * Starts recomputing all the ratings in the background, unless a recompute is already running.
+     *
+     * @return the JSON of the recompute
+     */
+    public synchronized RatingRecomputeJSON startRecompute() {
+        if (recompute != null && isUnfinished(recompute)) {
+            return recompute;
+        }
+        if (tournamentRepository.existsByState(GameState.ACTIVE)) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Ratings cannot be recomputed while tournaments are being played!");
+        }
+        if (tournamentStartJobRepository.existsByStateIn(Arrays.asList(JobState.PENDING, JobState.RUNNING))) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Ratings cannot be recomputed while tournaments are being started!");
+        }
+
+        String now = LocalDateTime.now().toString();
+        recompute = RatingRecomputeJSON.builder()
+                .state(JobState.PENDING.name())
+                .startedDate(now)
+                .updatedDate(now)
+                .build();
+        recomputeExecutor.execute(this::recompute);
+        return recompute;
+    }
+
+    /**
+     * @return whether a recompute was started and did not finish yet
+     */
+    public boolean isRecomputing() {
+        RatingRecomputeJSON current = recompute;
+        return current != null && isUnfinished(current);
+    }
+
+    public RatingRecomputeJSON getRecompute() {
+        RatingRecomputeJSON current = recompute;
+        if (current == null) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Ratings were not recomputed yet!");
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recomputeExecutor.shutdownNow();
+        ratingPool.shutdownNow();
+    }
+
+    private void recompute() {
+        long start = System.nanoTime();
+        update(JobState.RUNNING, null, null);
+        try {
+            RatingPeriods periods = new TransactionTemplate(transactionManager).execute(status -> {
+                RecomputeStream stream = new RecomputeStream();
+
+                jdbcTemplate.update(DELETE_RATING_HISTORY);
+                JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streamingTemplate.setFetchSize(FETCH_SIZE);
+                streamingTemplate.query(SELECT_GAMES, stream);
+
+                List<Object[]> ratings = new ArrayList<>();
+                stream.periods.finish((playerId, rating, deviation, volatility) ->
+                        ratings.add(new Object[]{rating, deviation, volatility, playerId}));
+                stream.flushHistory();
+                jdbcTemplate.update(RESET_RATINGS, Glicko2.DEFAULT_RATING, Glicko2.DEFAULT_DEVIATION, Glicko2.DEFAULT_VOLATILITY);
+                jdbcTemplate.batchUpdate(UPDATE_RATING, ratings, BATCH_SIZE, (statement, rating) -> {
+                    for (int column = 0; column < rating.length; column++) {
+                        statement.setObject(column + 1, rating[column]);
+                    }
+                });
+                return stream.periods;
+            });
+
+            update(JobState.COMPLETED, periods, null);
+            LOG.info("Recomputed the ratings of {} players from {} games in {} periods in {} ms", periods.getPlayersCount(),
+                    periods.getGamesCount(), periods.getPeriodsCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            LOG.error("Recomputing the ratings failed", e);
+            update(JobState.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void update(JobState state, RatingPeriods periods, String error) {
+        RatingRecomputeJSON.RatingRecomputeJSONBuilder updated = recompute.toBuilder()
+                .state(state.name())
+                .error(error)
+                .updatedDate(LocalDateTime.now().toString());
+        if (periods != null) {
+            updated.gamesRated(periods.getGamesCount())
+                    .periodsRated(periods.getPeriodsCount())
+                    .playersRated(periods.getPlayersCount());
+        }
+        recompute = updated.build();
+    }
+
+    private static boolean isUnfinished(RatingRecomputeJSON recompute) {
+        return JobState.PENDING.name().equals(recompute.getState()) || JobState.RUNNING.name().equals(recompute.getState());
+    }
+
+    /**
+     * Feeds the streamed games to the rating periods and writes the ratings of every period to the history, dated
+     * at the last game of the period.
+     */
+    private final class RecomputeStream implements RowCallbackHandler {
+        private final RatingPeriods periods = new RatingPeriods(ratingPool, this::rated);
+        private final List<Object[]> history = new ArrayList<>(BATCH_SIZE);
+        private Timestamp periodEnd;
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            Timestamp playedDate = resultSet.getTimestamp("played_date");
+            long period = playedDate != null ? playedDate.toLocalDateTime().toLocalDate().toEpochDay() / RATING_PERIOD_DAYS : 0;
+            Result result = Result.valueOf(resultSet.getString("result"));
+            double firstPlayerScore = Result.FIRST.equals(result) ? 1 : Result.DRAW.equals(result) ? 0.5 : 0;
+
+            int periodsCount = periods.getPeriodsCount();
+            periods.addGame(period, resultSet.getInt("first_player_id"), resultSet.getInt("second_player_id"), firstPlayerScore);
+            periodEnd = playedDate != null ? playedDate : periodEnd;
+            if (periods.getPeriodsCount() != periodsCount) {
+                update(JobState.RUNNING, periods, null);
+            }
+        }
+
+        private void rated(int playerId, double rating, double deviation, double volatility) {
+            history.add(new Object[]{playerId, null, rating, deviation, volatility,
+                    periodEnd != null ? periodEnd : new Timestamp(0)});
+            if (history.size() == BATCH_SIZE) {
+                flushHistory();
+            }
+        }
+
+        private void flushHistory() {
+            jdbcTemplate.batchUpdate(INSERT_RATING_HISTORY, history, BATCH_SIZE, (statement, row) -> {
+                for (int column = 0; column < row.length; column++) {
+                    statement.setObject(column + 1, row[column]);
+                }
+            });
+            history.clear();
+        }
+    }
+}
@@ -1,10 +1,8 @@
 package com.api.service;
 
-import com.api.entities.Player;
-import com.api.entities.TournamentUser;
-import com.api.entities.TournamentUserKey;
+import com.api.model.GameResult;
+import com.api.model.PlayerScore;
 import com.api.model.Result;
-import com.api.repository.PlayerRepository;
 import com.api.repository.TournamentUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,47 +10,60 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.List;
+
+/**
+ * Applies results to the tournament and overall scores of the players. Scores are incremented in the database
+ * rather than read and written back, so referees settling matches of the same player at the same moment do not
+ * lose points. The entities already loaded keep the score they were read with, the new scores go to the
+ * {@link LeaderboardService}. Games, unlike byes, also rate their players and count in their statistics
+ * and head-to-head record.
+ */
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ResultService {
 
-    private final PlayerRepository playerRepository;
     private final TournamentUserRepository tournamentUserRepository;
+    private final LeaderboardService leaderboardService;
+    private final RatingService ratingService;
+    private final PlayerStatsService playerStatsService;
+    private final HeadToHeadService headToHeadService;
 
-    public void applyResults(int firstPlayerId, int secondPlayerId, Result result, int tournamentId) {
-
-        Player firstPlayer = playerRepository.findById(firstPlayerId).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
-        Player secondPlayer = playerRepository.findById(secondPlayerId).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
-
-        TournamentUser tournamentUserFirstPlayer = tournamentUserRepository.findById(new TournamentUserKey(tournamentId, firstPlayerId))
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament"));
-        TournamentUser tournamentUserSecondPlayer = tournamentUserRepository.findById(new TournamentUserKey(tournamentId, secondPlayerId))
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament"));
+    public void applyResults(int matchId, int firstPlayerId, int secondPlayerId, Result result, int tournamentId) {
 
+        double firstPlayerScore = 0;
+        double secondPlayerScore = 0;
         switch (result) {
             case FIRST:
-                firstPlayer.setScore(firstPlayer.getScore() + 1);
-                tournamentUserFirstPlayer.setScore(tournamentUserFirstPlayer.getScore() + 1);
+                firstPlayerScore = 1;
                 break;
             case SECOND:
-                secondPlayer.setScore(secondPlayer.getScore() + 1);
-                tournamentUserSecondPlayer.setScore(tournamentUserSecondPlayer.getScore() + 1);
+                secondPlayerScore = 1;
                 break;
             case DRAW:
-                firstPlayer.setScore(firstPlayer.getScore() + 0.5);
-                secondPlayer.setScore(secondPlayer.getScore() + 0.5);
-                tournamentUserFirstPlayer.setScore(tournamentUserFirstPlayer.getScore() + 0.5);
-                tournamentUserSecondPlayer.setScore(tournamentUserSecondPlayer.getScore() + 0.5);
+                firstPlayerScore = 0.5;
+                secondPlayerScore = 0.5;
         }
-    }
 
-    public void applyResultForGhost(int playerId, int tournamentId) {
+        //The order the update locks rows in depends on its plan, so both players are locked in id order first
+        tournamentUserRepository.lockPlayers(firstPlayerId, secondPlayerId);
+        List<PlayerScore> scores = tournamentUserRepository.addScores(tournamentId, firstPlayerId, firstPlayerScore,
+                secondPlayerId, secondPlayerScore);
+        if (scores.size() < 2) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament");
+        }
+        leaderboardService.resultApplied(tournamentId, new GameResult(matchId, firstPlayerId, secondPlayerId, result), scores);
+        ratingService.rateGame(matchId, firstPlayerId, secondPlayerId, result);
+        playerStatsService.gamePlayed(firstPlayerId, secondPlayerId, result);
+        headToHeadService.gamePlayed(firstPlayerId, secondPlayerId, result);
+    }
 
-        Player player = playerRepository.findById(playerId).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
-        player.setScore(player.getScore() + 1);
+    public void applyResultForBye(int playerId, int tournamentId) {
 
-        TournamentUser tournamentPlayer = tournamentUserRepository.findById(new TournamentUserKey(tournamentId, playerId))
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament"));
-        tournamentPlayer.setScore(tournamentPlayer.getScore() + 1);
+        List<PlayerScore> scores = tournamentUserRepository.addScore(tournamentId, playerId, 1);
+        if (scores.isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "This player is not participating in the tournament");
+        }
+        leaderboardService.scoresChanged(tournamentId, scores);
     }
 }
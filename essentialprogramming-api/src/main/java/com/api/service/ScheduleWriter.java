@@ -0,0 +1,212 @@
+package com.api.service;
+
+import com.api.entities.Tournament;
+import com.api.model.GameState;
+import com.api.model.MatchPlan;
+import com.api.model.RoundPlan;
+import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a whole schedule (rounds, matches, match results and match player pairs) with chunked JDBC batches,
+ * or small batches of matches added to an existing round, as arenas and knockout brackets do.
+ * Byes get a match and a match result without a second player, but no match player pair.
+ * Ids are reserved up front from the serial sequences of each table, so the rows can reference each other
+ * without a round trip per insert. Every round counts the matches it still has pending. The write joins the
+ * surrounding JPA transaction.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ScheduleWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduleWriter.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_ROUND =
+            "INSERT INTO round (id, round_key, tournament_id, number, state, pending_matches) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ADD_PENDING_MATCHES =
+            "UPDATE round SET pending_matches = pending_matches + ? WHERE id = ?";
+    private static final String INSERT_MATCH_RESULT =
+            "INSERT INTO match_result (id, match_result_key, first_player_id, second_player_id, result) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_MATCH =
+            "INSERT INTO match (id, match_key, round_id, tournament_id, match_result_id, state, start_date, is_bye, bracket_slot) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MATCH_PLAYER =
+            "INSERT INTO match_player (match_player_key, first_player_id, second_player_id, tournament_id, match_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayerStatsService playerStatsService;
+
+    /**
+     * Persists the given rounds and all of their matches. On return every plan carries its generated id and key.
+     *
+     * @param tournament the tournament the rounds belong to
+     * @param rounds     the rounds to write
+     * @return the number of rows written
+     */
+    public long write(Tournament tournament, List<RoundPlan> rounds) {
+        long start = System.nanoTime();
+
+        List<MatchPlan> matches = rounds.stream()
+                .flatMap(round -> round.getMatches().stream())
+                .collect(Collectors.toList());
+
+        List<Integer> roundIds = nextIds("round", rounds.size());
+        for (int index = 0; index < rounds.size(); index++) {
+            rounds.get(index).setId(roundIds.get(index));
+            rounds.get(index).setRoundKey(NanoIdUtils.randomNanoId());
+        }
+        assignKeys(matches);
+
+        Timestamp startDate = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        int tournamentId = tournament.getId();
+
+        jdbcTemplate.batchUpdate(INSERT_ROUND, rounds, BATCH_SIZE, (statement, round) -> {
+            statement.setInt(1, round.getId());
+            statement.setString(2, round.getRoundKey());
+            statement.setInt(3, tournamentId);
+            statement.setInt(4, round.getNumber());
+            statement.setString(5, round.getState().name());
+            statement.setInt(6, countPending(round.getMatches()));
+        });
+
+        insertMatchResults(matches);
+        for (RoundPlan round : rounds) {
+            insertMatches(tournamentId, round.getId(), round.getMatches(), startDate);
+        }
+        long games = insertMatchPlayers(tournamentId, matches);
+
+        long rows = rounds.size() + 2L * matches.size() + games;
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info("Wrote schedule of tournament {}: {} rounds, {} matches, {} rows in {} ms ({} rows/s)",
+                tournament.getTournamentKey(), rounds.size(), matches.size(), rows, elapsedMillis, rows * 1000 / elapsedMillis);
+
+        return rows;
+    }
+
+    /**
+     * Persists matches of a round that already exists, in their own transaction. On return every plan carries
+     * its generated id and key.
+     *
+     * @param tournament the tournament the matches belong to
+     * @param roundId    the id of the round the matches belong to
+     * @param matches    the matches to write
+     * @return the number of rows written
+     */
+    @Transactional
+    public long writeMatches(Tournament tournament, int roundId, List<MatchPlan> matches) {
+        assignKeys(matches);
+
+        Timestamp startDate = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        int tournamentId = tournament.getId();
+
+        insertMatchResults(matches);
+        insertMatches(tournamentId, roundId, matches, startDate);
+        long games = insertMatchPlayers(tournamentId, matches);
+        jdbcTemplate.update(ADD_PENDING_MATCHES, countPending(matches), roundId);
+
+        return 2L * matches.size() + games;
+    }
+
+    private void insertMatchResults(List<MatchPlan> matches) {
+        jdbcTemplate.batchUpdate(INSERT_MATCH_RESULT, matches, BATCH_SIZE, (statement, match) -> {
+            statement.setInt(1, match.getMatchResultId());
+            statement.setString(2, match.getMatchResultKey());
+            statement.setInt(3, match.getFirstPlayer().getId());
+            if (match.isBye()) {
+                statement.setNull(4, Types.INTEGER);
+            } else {
+                statement.setInt(4, match.getSecondPlayer().getId());
+            }
+            if (match.getResult() != null) {
+                statement.setString(5, match.getResult().name());
+            } else {
+                statement.setNull(5, Types.VARCHAR);
+            }
+        });
+    }
+
+    private void insertMatches(int tournamentId, int roundId, List<MatchPlan> matches, Timestamp startDate) {
+        jdbcTemplate.batchUpdate(INSERT_MATCH, matches, BATCH_SIZE, (statement, match) -> {
+            statement.setInt(1, match.getId());
+            statement.setString(2, match.getMatchKey());
+            statement.setInt(3, roundId);
+            statement.setInt(4, tournamentId);
+            statement.setInt(5, match.getMatchResultId());
+            statement.setString(6, match.getState().name());
+            statement.setTimestamp(7, startDate);
+            statement.setBoolean(8, match.isBye());
+            if (match.getBracketSlot() != null) {
+                statement.setInt(9, match.getBracketSlot());
+            } else {
+                statement.setNull(9, Types.INTEGER);
+            }
+        });
+    }
+
+    /**
+     * Writes the match player pairs of the given matches, byes have none, and counts them in the player statistics.
+     *
+     * @return the number of pairs written
+     */
+    private long insertMatchPlayers(int tournamentId, List<MatchPlan> matches) {
+        List<MatchPlan> games = matches.stream()
+                .filter(match -> !match.isBye())
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate(INSERT_MATCH_PLAYER, games, BATCH_SIZE, (statement, match) -> {
+            statement.setString(1, match.getMatchPlayerKey());
+            statement.setInt(2, match.getFirstPlayer().getId());
+            statement.setInt(3, match.getSecondPlayer().getId());
+            statement.setInt(4, tournamentId);
+            statement.setInt(5, match.getId());
+        });
+        playerStatsService.matchesScheduled(games);
+        return games.size();
+    }
+
+    private void assignKeys(List<MatchPlan> matches) {
+        List<Integer> matchIds = nextIds("match", matches.size());
+        List<Integer> matchResultIds = nextIds("match_result", matches.size());
+        for (int index = 0; index < matches.size(); index++) {
+            MatchPlan match = matches.get(index);
+            match.setId(matchIds.get(index));
+            match.setMatchKey(NanoIdUtils.randomNanoId());
+            match.setMatchResultId(matchResultIds.get(index));
+            match.setMatchResultKey(NanoIdUtils.randomNanoId());
+            match.setMatchPlayerKey(NanoIdUtils.randomNanoId());
+        }
+    }
+
+    /**
+     * Counts the matches that still have to end for their round to finish, byes end as they are written.
+     */
+    private static int countPending(List<MatchPlan> matches) {
+        return (int) matches.stream()
+                .filter(match -> !GameState.ENDED.equals(match.getState()))
+                .count();
+    }
+
+    /**
+     * Reserves a block of ids from the serial sequence backing the id column of the given table.
+     */
+    private List<Integer> nextIds(String table, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Integer.class, table, count);
+    }
+}
@@ -0,0 +1,88 @@
+package com.api.service;
+
+import com.api.entities.Round;
+import com.api.entities.Tournament;
+import com.api.leaderboard.LeaderboardEntry;
+import com.api.output.RoundRankJSON;
+import com.api.output.StandingJSON;
+import com.api.repository.StandingsSnapshotRepository;
+import com.api.repository.TournamentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.inject.Inject;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the standings of every round as they were when the tournament moved past it, so past standings and the
+ * rank progression of a player are read back rather than replayed from the results. A snapshot is written once,
+ * in the transaction ending the round, and is never changed after: it is also the last known good state of the
+ * tournament when a round has to be recovered.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class StandingsService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO standings_snapshot (tournament_id, round_id, round_number, user_id, rank, score, buchholz, " +
+            "sonneborn_berger, median_buchholz, games_played, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (round_id, user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaderboardService leaderboardService;
+    private final TournamentRepository tournamentRepository;
+    private final StandingsSnapshotRepository standingsSnapshotRepository;
+
+    /**
+     * Writes the standings of the round that just ended. Must be called inside the transaction ending the round.
+     *
+     * @return the number of standings written
+     */
+    public int snapshotRound(Tournament tournament, Round round) {
+        List<LeaderboardEntry> standings = leaderboardService.buildLeaderboard(tournament).getEntries(null);
+        Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>(standings.size());
+        for (int index = 0; index < standings.size(); index++) {
+            LeaderboardEntry standing = standings.get(index);
+            rows.add(new Object[]{tournament.getId(), round.getId(), round.getNumber(), standing.getPlayerId(), index + 1,
+                    standing.getScore(), standing.getBuchholz(), standing.getSonnebornBerger(), standing.getMedianBuchholz(),
+                    standing.getGamesPlayed(), createdDate});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, rows, BATCH_SIZE, (statement, row) -> {
+            for (int column = 0; column < row.length; column++) {
+                statement.setObject(column + 1, row[column]);
+            }
+        });
+        return rows.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<StandingJSON> getStandings(String tournamentKey, int roundNumber) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        List<StandingJSON> standings = standingsSnapshotRepository.findStandings(tournament, roundNumber);
+        if (standings.isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "No standings were kept for this round!");
+        }
+        return standings;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RoundRankJSON> getRankProgression(String tournamentKey, String playerKey) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        return standingsSnapshotRepository.findRankProgression(tournament, playerKey);
+    }
+}
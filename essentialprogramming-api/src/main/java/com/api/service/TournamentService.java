@@ -5,10 +5,20 @@ import com.api.env.resources.AppResources;
 import com.api.mapper.*;
 import com.api.model.*;
 import com.api.output.*;
+import com.api.pairing.PairingHistory;
+import com.api.pairing.PairingSearchExhaustedException;
+import com.api.pairing.PairingStrategies;
+import com.api.pairing.PairingStrategy;
+import com.api.pairing.RoundPairings;
 import com.api.repository.*;
+import com.api.websocket.Topics;
 import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
 import com.email.model.Template;
 import com.email.service.EmailManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.util.enums.PlatformType;
 import com.util.web.JsonResponse;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +26,7 @@ import org.apache.commons.lang3.EnumUtils;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
@@ -24,7 +35,9 @@ import javax.persistence.criteria.Join;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,7 +47,8 @@ import static org.springframework.data.jpa.domain.Specification.*;
 @RequiredArgsConstructor(onConstructor = @__(@Inject))
 public class TournamentService {
 
-    private final static String GHOST_PLAYER_EMAIL = "GHOST_EMAIL_";
+    private final static int MATCHES_PER_START_STEP = 5000;
+    private final static int SCHEDULE_PREVIEWS_CACHED = 100;
 
     private final TournamentRepository tournamentRepository;
     private final EmailManager emailManager;
@@ -42,12 +56,25 @@ public class TournamentService {
     private final MatchRepository matchRepository;
     private final MatchPlayerRepository matchPlayerRepository;
     private final RoundRepository roundRepository;
-    private final MatchResultRepository matchResultRepository;
     private final TournamentUserRepository tournamentUserRepository;
+    private final TournamentStartJobRepository tournamentStartJobRepository;
     private final UserSettingsRepository userSettingsRepository;
     private final UserRepository userRepository;
     private final UserPlatformRepository userPlatformRepository;
     private final ResultService resultService;
+    private final ScheduleWriter scheduleWriter;
+    private final ArenaService arenaService;
+    private final KnockoutService knockoutService;
+    private final LeaderboardService leaderboardService;
+    private final StandingsService standingsService;
+    private final PlayerStatsService playerStatsService;
+    private final HeadToHeadService headToHeadService;
+    private final TournamentStateService tournamentStateService;
+
+    private final Cache<String, List<RoundJSON>> schedulePreviews = CacheBuilder.newBuilder()
+            .maximumSize(SCHEDULE_PREVIEWS_CACHED)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
 
     @Transactional
     public TournamentJSON addTournament(final TournamentInput tournamentInput) {
@@ -150,6 +177,7 @@ public class TournamentService {
     @Transactional
     public void addPlayerToTournament(Player player, Tournament tournament) {
         player.setScore(0);
+        leaderboardService.overallScoreReset(player.getId());
 
         if (tournament.addPlayer(player)) {
             tournamentRepository.save(tournament);
@@ -168,123 +196,344 @@ public class TournamentService {
     }
 
     /**
-     * This methods sets a tournament's status to ACTIVE, then sends a notification through the WebSocket
-     * to all connected clients stating the tournament has started, updates the tournament in DB and then proceeds
-     * to generated the rounds
+     * Sets the given tournament's status to ENDED
      *
      * @param tournamentKey the key of the tournament to start
      */
 
     @Transactional
-    public void startTournament(String tournamentKey) {
+    public JsonResponse endTournament(String tournamentKey) {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
-        if (GameState.ACTIVE.equals(tournament.getState())) {
-            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already started!");
-        } else if (GameState.ENDED.equals(tournament.getState())) {
+        if (GameState.ENDED.equals(tournament.getState())) {
             throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already ended!");
+        } else if (GameState.CREATED.equals(tournament.getState())) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament did not start yet!");
         }
 
-        generateRounds(tournament);
-
         tournament.setRegistrationOpen(false);
+        tournament.setState(GameState.ENDED);
+        arenaService.close(tournament.getId());
+        leaderboardService.close(tournament);
 
-        tournament.setState(GameState.ACTIVE);
-
-        sendNotification("Tournament started!");
+        sendNotification(tournament, "Tournament '" + tournament.getName() + "' ended! The winner is: "
+                + getTournamentWinner(tournament).getFullName());
+        tournamentStateService.stateChanged(tournament.getTournamentKey());
 
+        return new JsonResponse().with("status", "ok")
+                .with("message", "Tournament ended.");
     }
 
     /**
-     * Sets the given tournament's status to ENDED
+     * Plans the rounds from {@code fromRound} inclusive to {@code toRound} exclusive of a tournament that is not
+     * paired incrementally and writes them in bulk. Only the byes of the first round are awarded now, those of the
+     * next rounds when the tournament switches to them.
      *
-     * @param tournamentKey the key of the tournament to start
+     * @param tournament the tournament the rounds belong to
+     * @param fromRound  the zero based index of the first round to write
+     * @param toRound    the zero based index after the last round to write
+     * @return the written rounds, carrying their ids
      */
+    private List<RoundPlan> writeRounds(Tournament tournament, int fromRound, int toRound) {
+        PairingStrategy strategy = PairingStrategies.of(tournament.getPairingSystem());
+        List<Player> schedulePlayers = getSchedulePlayers(tournament);
+        PairingHistory history = new PairingHistory(schedulePlayers.size());
+
+        List<RoundPlan> rounds = new ArrayList<>(toRound - fromRound);
+        for (int roundIndex = fromRound; roundIndex < toRound; roundIndex++) {
+            RoundPlan currentRound = planRound(tournament, strategy, schedulePlayers, history, roundIndex);
+            if (roundIndex == 0) {
+                currentRound.getMatches().forEach(currentMatch -> applyBye(tournament, currentMatch));
+            }
+            rounds.add(currentRound);
+        }
+
+        scheduleWriter.write(tournament, rounds);
+        return rounds;
+    }
 
+    /**
+     * Runs one step of a background start job. Every step commits on its own, so a job interrupted by a restart
+     * resumes after the rounds already written instead of starting over. Round robin schedules are written
+     * {@value #MATCHES_PER_START_STEP} matches at a time, incremental strategies and lazy rounds write the first round
+     * only. The last step activates the tournament. A step locks the row of its job, so a job resumed by several
+     * nodes is only stepped by one of them at a time.
+     *
+     * @param jobKey the key of the start job
+     * @return the job with its progress updated, null if another node is running a step of it
+     */
     @Transactional
-    public JsonResponse endTournament(String tournamentKey) {
-        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
+    public TournamentStartJob startTournamentStep(String jobKey) {
+        TournamentStartJob job = tournamentStartJobRepository.lockByJobKey(jobKey).orElse(null);
+        if (job == null) {
+            tournamentStartJobRepository.findByJobKey(jobKey)
+                    .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Job not found!"));
+            return null;
+        }
+        Tournament tournament = job.getTournament();
+        job.setUpdatedDate(LocalDateTime.now());
 
-        if (GameState.ENDED.equals(tournament.getState())) {
-            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already ended!");
-        } else if (GameState.CREATED.equals(tournament.getState())) {
-            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament did not start yet!");
+        if (!GameState.CREATED.equals(tournament.getState())) {
+            job.setState(JobState.COMPLETED);
+            return job;
+        }
+        if (tournament.getPlayers().isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "This tournament currently has no participants!");
+        }
+        job.setState(JobState.RUNNING);
+
+        int roundsWritten = (int) roundRepository.countByTournament(tournament);
+        if (pairsIncrementally(tournament)) {
+            job.setTotalRounds(1);
+            if (roundsWritten == 0) {
+                RoundPlan round = materializeRound(tournament, 0);
+                job.setMatchesWritten(job.getMatchesWritten() + round.getMatches().size());
+            }
+            job.setRoundsWritten(1);
+        } else {
+            int totalRounds = getTotalRounds(tournament);
+            int boards = (tournament.getPlayers().size() + 1) / 2;
+            int toRound = Math.min(totalRounds, roundsWritten + Math.max(1, MATCHES_PER_START_STEP / boards));
+
+            List<RoundPlan> rounds = writeRounds(tournament, roundsWritten, toRound);
+            job.setTotalRounds(totalRounds);
+            job.setRoundsWritten(toRound);
+            job.setMatchesWritten(job.getMatchesWritten()
+                    + rounds.stream().mapToInt(round -> round.getMatches().size()).sum());
+
+            if (toRound < totalRounds) {
+                return job;
+            }
         }
 
+        tournament.setCurrentRound(roundRepository.findByTournamentAndNumber(tournament, 1)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Round not found!")));
         tournament.setRegistrationOpen(false);
-        tournament.setState(GameState.ENDED);
+        tournament.setState(GameState.ACTIVE);
+        job.setState(JobState.COMPLETED);
 
-        sendNotification("Tournament '" + tournament.getName() + "' ended! The winner is: "
-                + getTournamentWinner(tournament).getFullName());
+        sendNotification(tournament, "Tournament started!");
+        tournamentStateService.stateChanged(tournament.getTournamentKey());
 
-        return new JsonResponse().with("status", "ok")
-                .with("message", "Tournament ended.");
+        return job;
     }
 
     /**
-     * This method generates rounds and matches for a given tournament according to the
-     * Round Robin algorithm. If the player count is odd
-     * then a ghost player gets generated against which a player always wins.
-     * The algorithm shifts players between lists, clockwise, starting from the second player,
-     * so that each player will play against each other. The number of rounds generated
-     * according to RR algorithm is n = players size - 1
+     * Pairs a single round with the given strategy and maps the player indices it returns to matches.
+     * The byes come first, as already ended matches without a second player. Bracket strategies also give every
+     * match its bracket slot.
      *
-     * @param tournament the tournament for which the rounds need to be generated
+     * @param tournament the tournament the round belongs to
+     * @param strategy   the pairing strategy of the tournament
+     * @param players    the players in schedule order
+     * @param history    scores and previous games of the players
+     * @param roundIndex the zero based index of the round
+     * @return the round with its matches, not yet persisted
      */
+    private RoundPlan planRound(Tournament tournament, PairingStrategy strategy, List<Player> players,
+                                PairingHistory history, int roundIndex) {
+        RoundPairings pairings;
+        try {
+            pairings = PairingStrategies.pair(strategy, history, roundIndex);
+        } catch (PairingSearchExhaustedException e) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "The round could not be paired within the search limit!");
+        } catch (IllegalStateException e) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "No more rounds can be paired!");
+        }
+
+        RoundPlan round = generateRound(roundIndex);
+        for (int byeIndex = 0; byeIndex < pairings.getByes().length; byeIndex++) {
+            MatchPlan bye = generateBye(players.get(pairings.getByes()[byeIndex]));
+            if (pairings.isBracket()) {
+                bye.setBracketSlot(pairings.getByeSlot(byeIndex));
+            }
+            round.getMatches().add(bye);
+        }
 
-    private void generateRounds(Tournament tournament) {
-        List<Player> players = tournament.getPlayers();
+        for (int matchIndex = 0; matchIndex < pairings.getBoards(); matchIndex++) {
+            Player firstPlayer = players.get(pairings.getWhite(matchIndex));
+            Player secondPlayer = players.get(pairings.getBlack(matchIndex));
 
-        if (players.size() <= 0) {
-            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "This tournament currently has no participants!");
-        } else {
-            if (players.size() % 2 != 0) {
-                players.add(generateGhost(tournament.getTournamentKey()));
+            MatchPlan match = generateMatch(round, firstPlayer, secondPlayer);
+            if (pairings.isBracket()) {
+                match.setBracketSlot(pairings.getBoardSlot(matchIndex));
+            }
+            round.getMatches().add(match);
+        }
+
+        return round;
+    }
+
+    /**
+     * Builds the pairing history of the given players from their overall scores, the current tournament scores,
+     * the opponents every player already met and the byes already given.
+     */
+    private PairingHistory loadPairingHistory(Tournament tournament, List<Player> players) {
+        PairingHistory history = new PairingHistory(players.size());
+        Map<Integer, Integer> playerIndexes = new HashMap<>();
+        for (int playerIndex = 0; playerIndex < players.size(); playerIndex++) {
+            playerIndexes.put(players.get(playerIndex).getId(), playerIndex);
+            history.setRating(playerIndex, players.get(playerIndex).getRating());
+        }
+
+        for (TournamentUser tournamentUser : tournamentUserRepository.findUserByTournament(tournament)) {
+            Integer playerIndex = playerIndexes.get(tournamentUser.getTournamentUserId().getUserId());
+            if (playerIndex != null) {
+                history.setScore(playerIndex, tournamentUser.getScore());
             }
-            int playersCount = players.size();
-            int totalRounds = playersCount - 1;
+        }
+        for (MatchPlayer matchPlayer : matchPlayerRepository.findAllByTournament(tournament)) {
+            Integer firstPlayerIndex = playerIndexes.get(matchPlayer.getMatchPlayerId().getFirstPlayerId());
+            Integer secondPlayerIndex = playerIndexes.get(matchPlayer.getMatchPlayerId().getSecondPlayerId());
+            if (firstPlayerIndex != null && secondPlayerIndex != null) {
+                history.addGame(firstPlayerIndex, secondPlayerIndex);
+            }
+        }
+        for (Integer playerId : matchRepository.findByePlayerIds(tournament)) {
+            Integer playerIndex = playerIndexes.get(playerId);
+            if (playerIndex != null) {
+                history.addBye(playerIndex);
+            }
+        }
+        return history;
+    }
 
-            LinkedList<Player> firstHalf = new LinkedList<>(players.subList(0, players.size() / 2));
-            LinkedList<Player> secondHalf = new LinkedList<>(players.subList(players.size() / 2, players.size()));
+    /**
+     * Computes and writes a single round with all of its matches, except the byes, already active.
+     *
+     * @param tournament the tournament the round belongs to
+     * @param roundIndex the zero based index of the round
+     * @return the written round, carrying its id
+     */
+    private RoundPlan materializeRound(Tournament tournament, int roundIndex) {
+        PairingStrategy strategy = PairingStrategies.of(tournament.getPairingSystem());
+        List<Player> players = getSchedulePlayers(tournament);
+        PairingHistory history = strategy.isIncremental()
+                ? loadPairingHistory(tournament, players)
+                : new PairingHistory(players.size());
+
+        RoundPlan round = planRound(tournament, strategy, players, history, roundIndex);
+        round.setState(GameState.ACTIVE);
 
-            Map<Integer, Round> roundsMap = new HashMap<>();
-            for (int roundIndex = 0; roundIndex < totalRounds; roundIndex++) {
+        for (MatchPlan currentMatch : round.getMatches()) {
+            if (!currentMatch.isBye()) {
+                currentMatch.setState(GameState.ACTIVE);
+            }
+            applyBye(tournament, currentMatch);
+        }
 
-                Round currentRound = generateRound(tournament, roundIndex);
-                roundsMap.put(currentRound.getNumber(), currentRound);
+        scheduleWriter.write(tournament, Collections.singletonList(round));
+        if (roundIndex == 0) {
+            knockoutService.firstRoundWritten(tournament, round);
+        }
 
-                if (roundIndex == 0) {
-                    tournament.setCurrentRound(currentRound);
-                }
+        return round;
+    }
 
-                List<Match> matchList = new ArrayList<>();
-                for (int matchIndex = 0; matchIndex < playersCount / 2; matchIndex++) {
+    /**
+     * Returns the tournament players in the order the schedule is computed from.
+     * The order must not change between rounds, because lazy rounds are computed one at a time.
+     */
+    private List<Player> getSchedulePlayers(Tournament tournament) {
+        return tournament.getPlayers().stream()
+                .sorted(Comparator.comparingInt(Player::getId))
+                .collect(Collectors.toList());
+    }
+
+    private int getTotalRounds(Tournament tournament) {
+        return PairingStrategies.of(tournament.getPairingSystem())
+                .getTotalRounds(getSchedulePlayers(tournament).size(), tournament.getRoundsCount());
+    }
 
-                    Match currentMatch = generateMatch(currentRound, tournament);
-                    matchList.add(currentMatch);
+    /**
+     * Tells whether the rounds of the tournament are written one at a time, when the tournament switches to them,
+     * instead of all at start.
+     */
+    private static boolean pairsIncrementally(Tournament tournament) {
+        return tournament.isLazyRounds() || PairingStrategies.of(tournament.getPairingSystem()).isIncremental();
+    }
 
-                    Player firstPlayer = firstHalf.get(matchIndex);
-                    Player secondPlayer = secondHalf.get(secondHalf.size() - 1 - matchIndex);
+    /**
+     * Lists the available pairing strategies with how they would handle a field of the given size and how long
+     * their pairing steps took so far, so organizers can pick the cheapest engine for an event.
+     *
+     * @param playersCount the expected number of participants
+     * @return one JSON per pairing strategy
+     */
+    public List<PairingStrategyJSON> getPairingStrategies(int playersCount) {
+        if (playersCount < 2) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "A tournament needs at least two players!");
+        }
 
-                    generateMatchPlayer(tournament, currentMatch, firstPlayer, secondPlayer);
-                    checkGhostPlayer(firstPlayer, secondPlayer, currentMatch);
-                }
-                currentRound.setMatches(matchList);
+        List<PairingStrategyJSON> strategies = new ArrayList<>();
+        for (PairingStrategy strategy : PairingStrategies.all()) {
+            long pairings = PairingStrategies.getPairingsCount(strategy.getPairingSystem());
+            long pairingNanos = PairingStrategies.getPairingNanos(strategy.getPairingSystem());
+
+            strategies.add(PairingStrategyJSON.builder()
+                    .pairingSystem(strategy.getPairingSystem().name())
+                    .incremental(strategy.isIncremental())
+                    .totalRounds(strategy.getTotalRounds(playersCount, null))
+                    .estimatedPairingCost(strategy.getPairingCost(playersCount))
+                    .pairings(pairings)
+                    .averagePairingMicros(pairings == 0 ? 0 : pairingNanos / pairings / 1000)
+                    .build());
+        }
+        return strategies;
+    }
+
+    /**
+     * Computes the schedule the tournament would get if it was started now, without writing anything. Incremental
+     * strategies only preview the first round, because the next ones depend on its results, and pair it from the
+     * same history as the start does, so a knockout preview is seeded by rating.
+     * Previews are cached by tournament, participants, their ratings and the pairing settings, so they are computed
+     * again only after one of them changes.
+     *
+     * @param tournamentKey the key of the tournament
+     * @return returns a list of JSONs with the rounds the tournament would get, without keys
+     */
+    @Transactional(readOnly = true)
+    public List<RoundJSON> previewSchedule(String tournamentKey) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
-                firstHalf.add(1, secondHalf.getLast());
-                secondHalf.addFirst(firstHalf.getLast());
+        if (!GameState.CREATED.equals(tournament.getState())) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already started!");
+        }
+        if (tournament.getPlayers().isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "This tournament currently has no participants!");
+        }
 
-                firstHalf.removeLast();
-                secondHalf.removeLast();
+        List<Player> schedulePlayers = getSchedulePlayers(tournament);
+        Hasher participants = Hashing.murmur3_128().newHasher();
+        schedulePlayers.forEach(player -> participants.putInt(player.getId()).putDouble(player.getRating()));
+        String previewKey = String.join(":", tournamentKey, participants.hash().toString(),
+                String.valueOf(tournament.getPairingSystem()), String.valueOf(tournament.getRoundsCount()));
+
+        List<RoundJSON> preview = schedulePreviews.getIfPresent(previewKey);
+        if (preview == null) {
+            PairingStrategy strategy = PairingStrategies.of(tournament.getPairingSystem());
+            PairingHistory history = strategy.isIncremental()
+                    ? loadPairingHistory(tournament, schedulePlayers)
+                    : new PairingHistory(schedulePlayers.size());
+            int totalRounds = strategy.isIncremental() ? 1 : getTotalRounds(tournament);
+
+            List<RoundJSON> rounds = new ArrayList<>(totalRounds);
+            for (int roundIndex = 0; roundIndex < totalRounds; roundIndex++) {
+                RoundPlan round = planRound(tournament, strategy, schedulePlayers, history, roundIndex);
+                rounds.add(RoundMapper.planToJSON(round, tournamentKey));
             }
-            tournament.setRounds(roundsMap);
+
+            preview = Collections.unmodifiableList(rounds);
+            schedulePreviews.put(previewKey, preview);
         }
+        return preview;
     }
 
     /**
      * This method is used by the controller to return a list of round JSONs after generating the rounds.
+     * For tournaments with lazy rounds, the rounds that were not played yet are computed previews without keys.
      *
      * @param tournamentKey the key of the tournament
      * @return returns a list of JSONs with the rounds of a tournament
@@ -294,39 +543,53 @@ public class TournamentService {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
-        return roundRepository.findAllByTournament(tournament)
+        List<RoundJSON> rounds = roundRepository.findAllByTournament(tournament)
                 .stream()
                 .map(RoundMapper::entityToJSON)
                 .collect(Collectors.toList());
+
+        PairingStrategy strategy = PairingStrategies.of(tournament.getPairingSystem());
+        if (tournament.isLazyRounds() && !strategy.isIncremental() && !GameState.CREATED.equals(tournament.getState())) {
+            List<Player> schedulePlayers = getSchedulePlayers(tournament);
+            PairingHistory history = new PairingHistory(schedulePlayers.size());
+            for (int roundIndex = rounds.size(); roundIndex < getTotalRounds(tournament); roundIndex++) {
+                RoundPlan round = planRound(tournament, strategy, schedulePlayers, history, roundIndex);
+                rounds.add(RoundMapper.planToJSON(round, tournamentKey));
+            }
+        }
+
+        return rounds;
     }
 
     /**
-     * This method checks if one of the players is a Ghost, if so it generated the match result
-     * because a player will always win against a Ghost player.
+     * This method awards the point of a bye to the player receiving it. Regular matches are left untouched.
      *
-     * @param firstPlayer  the entity containing the first player
-     * @param secondPlayer the entity containing the second player
+     * @param tournament   the tournament the match belongs to
      * @param currentMatch the match that is currently being generated
      */
 
-    @Transactional
-    public void checkGhostPlayer(Player firstPlayer, Player secondPlayer, Match currentMatch) {
-        String ghostEmail = GHOST_PLAYER_EMAIL + currentMatch.getTournament().getTournamentKey();
-
-        if (ghostEmail.equals(firstPlayer.getEmail())) {
-            generateMatchResult(firstPlayer, secondPlayer, currentMatch, Result.SECOND);
-            resultService.applyResultForGhost(secondPlayer.getId(), currentMatch.getTournament().getId());
-            currentMatch.setState(GameState.ENDED);
-
-        } else if (ghostEmail.equals(secondPlayer.getEmail())) {
-            generateMatchResult(firstPlayer, secondPlayer, currentMatch, Result.FIRST);
-            resultService.applyResultForGhost(firstPlayer.getId(), currentMatch.getTournament().getId());
-            currentMatch.setState(GameState.ENDED);
-        } else {
-            generateMatchResult(firstPlayer, secondPlayer, currentMatch, null);
+    public void applyBye(Tournament tournament, MatchPlan currentMatch) {
+        if (currentMatch.isBye()) {
+            resultService.applyResultForBye(currentMatch.getFirstPlayer().getId(), tournament.getId());
         }
     }
 
+    /**
+     * Awards the byes of a round written ahead of time the first time it starts, so the scores, and the standings
+     * kept of the rounds before it, do not count them yet.
+     *
+     * @param tournament the tournament the round belongs to
+     * @param round      the round about to start
+     */
+    private void applyByes(Tournament tournament, Round round) {
+        if (!GameState.CREATED.equals(round.getState())) {
+            return;
+        }
+        round.getMatches().stream()
+                .filter(Match::isBye)
+                .forEach(bye -> resultService.applyResultForBye(bye.getMatchResult().getFirstPlayer().getId(), tournament.getId()));
+    }
+
     /**
      * This method sends an email to a user based on one of the HTML templates from resources/mail/html.
      *
@@ -382,132 +645,55 @@ public class TournamentService {
     }
 
     /**
-     * This method generates a Ghost player. The ghost player automatically loses when playing against other players.
-     * Is only called when a tournament's number of participants is odd.
-     *
-     * @param tournamentKey the key of the tournament
-     * @return returns an entity containing a Ghost player
-     */
-    public Player generateGhost(String tournamentKey) {
-        Player ghostPlayer = Player.builder()
-                .score(-1)
-                .email(GHOST_PLAYER_EMAIL + tournamentKey)
-                .build();
-
-        playerRepository.save(ghostPlayer);
-
-        return ghostPlayer;
-    }
-
-    /**
-     * This method sends a message through the WebSocket to all connected clients.
+     * This method sends a message through the WebSocket to the clients subscribed to the tournament.
      *
-     * @param message the message to send
+     * @param tournament the tournament the message is about
+     * @param message    the message to send
      */
-    public static void sendNotification(String message) {
-        WebSocketManager.sendMessage(message);
+    public static void sendNotification(Tournament tournament, String message) {
+        WebSocketManager.publish(message, Topics.tournament(tournament.getTournamentKey()));
     }
 
-    public MatchResult generateMatchResult(Player firstPlayer,
-                                           Player secondPlayer,
-                                           Match currentMatch,
-                                           Result result) {
-
-        MatchResult matchResult = MatchResult.builder()
-                .result(result)
-                .firstPlayer(firstPlayer)
-                .secondPlayer(secondPlayer)
-                .build();
-
-        matchResultRepository.save(matchResult);
-        currentMatch.setMatchResult(matchResult);
-        matchResult.setMatchResultKey(NanoIdUtils.randomNanoId());
-
-        return matchResult;
-    }
-
-    public Round generateRound(Tournament tournament, int roundIndex) {
+    public RoundPlan generateRound(int roundIndex) {
         GameState state = roundIndex == 0 ? GameState.ACTIVE : GameState.CREATED;
 
-        Round currentRound = Round.builder()
+        return RoundPlan.builder()
                 .state(state)
-                .tournament(tournament)
                 .number(roundIndex + 1)
                 .build();
-
-        roundRepository.save(currentRound);
-        currentRound.setRoundKey(NanoIdUtils.randomNanoId());
-
-        return currentRound;
     }
 
-    public Match generateMatch(Round round, Tournament tournament) {
+    public MatchPlan generateMatch(RoundPlan round, Player firstPlayer, Player secondPlayer) {
         GameState state = round.getNumber() == 1 ? GameState.ACTIVE : GameState.CREATED;
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        String localDateTime = LocalDateTime.now().format(formatter);
-
-        Match currentMatch = Match.builder()
-                .round(round)
-                .tournament(tournament)
+        return MatchPlan.builder()
+                .firstPlayer(firstPlayer)
+                .secondPlayer(secondPlayer)
                 .state(state)
-                .startDate(LocalDateTime.parse(localDateTime, formatter))
                 .build();
-
-        matchRepository.save(currentMatch);
-        currentMatch.setMatchKey(NanoIdUtils.randomNanoId());
-
-        return currentMatch;
     }
 
-    public MatchPlayer generateMatchPlayer(Tournament tournament,
-                                           Match match,
-                                           Player firstPlayer, Player secondPlayer) {
-
-        MatchPlayer matchPlayer = new MatchPlayer(match, firstPlayer, secondPlayer, tournament);
-        matchPlayer.setMatchPlayerKey(NanoIdUtils.randomNanoId());
-
-        matchPlayerRepository.save(matchPlayer);
-        return matchPlayer;
+    /**
+     * Builds the bye of a player. A bye has no opponent and is won by the player from the start.
+     */
+    public MatchPlan generateBye(Player player) {
+        return MatchPlan.builder()
+                .firstPlayer(player)
+                .bye(true)
+                .result(Result.FIRST)
+                .state(GameState.ENDED)
+                .build();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ChessTournamentJSON getTournament(String tournamentKey) {
 
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
-        sendTournamentStatus(tournament);
-
         return ChessTournamentMapper.entityToJSON(tournament);
     }
 
-    public static void sendTournamentStatus(Tournament tournament) {
-        WebSocketManager.sendTournamentInformation(tournament);
-    }
-
-    @Transactional
-    public List<PlayerJSON> getOverallLeaderboard() {
-        return playerRepository.findAllByOrderByScoreDesc();
-    }
-
-
-    @Transactional
-    public List<PlayerJSON> getTemporaryLeaderboard(String tournamentKey) {
-        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
-                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
-        List<TournamentUser> tournamentPlayers = tournamentUserRepository.findByTournamentOrderByScoreDesc(tournament);
-
-        return tournamentPlayers.stream()
-                .filter(player -> player.getTournamentUserId().getTournamentId() == tournament.getId()
-                        && !player.getUser().getEmail().contains(GHOST_PLAYER_EMAIL))
-                .map(player -> {
-                    PlayerJSON playerJSON = PlayerMapper.userToPlayerJson(player.getUser());
-                    playerJSON.setScore(player.getScore());
-                    return playerJSON;
-                })
-                .collect(Collectors.toList());
-    }
 
     private User getTournamentWinner(Tournament tournament) {
         return tournamentUserRepository.findTopByTournamentOrderByScoreDesc(tournament)
@@ -538,7 +724,7 @@ public class TournamentService {
             throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY,
                     "Tournament hasn't started yet!");
         }
-        sendNotification("Round " + currentRound.getNumber() + " started!");
+        sendNotification(tournament, "Round " + currentRound.getNumber() + " started!");
         return new JsonResponse().with("status", "ok")
                 .with("message", "Round " + currentRound.getNumber() + " started!")
                 .done();
@@ -567,7 +753,9 @@ public class TournamentService {
      * then the round's last match state will be set to 'ENDED' , the round's state will be set to 'ENDED'
      * and the tournament's state will be set to 'ENDED'.
      * If the current round is not final, it will switch to the next round and set its matches state to 'ACTIVE'
-     * and notify the players that the next round started.
+     * and notify the players that the next round started. For tournaments with lazy rounds and Swiss tournaments
+     * the next round is computed and written at this point. The standings of the round that ends are kept first,
+     * before the byes of the next round change the scores.
      *
      * @param tournamentKey the key of the tournament to switch rounds for
      * @return returns the next round of the given tournament in JSON format
@@ -585,25 +773,52 @@ public class TournamentService {
         Round currentRound = tournament.getCurrentRound();
 
         if (isFinalRound(tournament, currentRound)) {
+            standingsService.snapshotRound(tournament, currentRound);
             currentRound.getMatches().get(currentRound.getMatches().size() - 1).setState(GameState.ENDED);
             currentRound.setState(GameState.ENDED);
             tournament.setState(GameState.ENDED);
+            leaderboardService.close(tournament);
+            tournamentStateService.stateChanged(tournament.getTournamentKey());
             return RoundMapper.entityToJSON(currentRound);
         }
 
         Round nextRound = tournament.getRounds().get(currentRound.getNumber() + 1);
-        boolean canMoveToNextRound = nextRound != null && (GameState.ACTIVE.equals(tournament.getState()) && roundFinished(currentRound));
+        boolean canMoveToNextRound = GameState.ACTIVE.equals(tournament.getState()) && roundFinished(currentRound);
 
-        if (canMoveToNextRound) {
+        if (canMoveToNextRound && nextRound == null && pairsIncrementally(tournament)) {
+            standingsService.snapshotRound(tournament, currentRound);
+            nextRound = roundRepository.getOne(materializeRound(tournament, currentRound.getNumber()).getId());
+            currentRound.setState(GameState.ENDED);
+            tournament.setCurrentRound(nextRound);
+            roundNotification(tournament);
+            tournamentStateService.stateChanged(tournament.getTournamentKey());
+            return RoundMapper.entityToJSON(nextRound);
+        }
+
+        if (canMoveToNextRound && nextRound != null) {
+            standingsService.snapshotRound(tournament, currentRound);
             switchRounds(tournament, currentRound, nextRound);
-            startRound(nextRound);
             roundNotification(tournament);
+            tournamentStateService.stateChanged(tournament.getTournamentKey());
             return RoundMapper.entityToJSON(nextRound);
         }
 
         throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Round is still ongoing!");
     }
 
+    /**
+     * Switches a tournament to its next round once the last match of its current round ended. Called after the
+     * report of that match committed, in a transaction of its own, so a next round that cannot be paired leaves the
+     * result recorded and the organizer can still switch rounds by hand.
+     *
+     * @param tournamentKey the key of the tournament to switch rounds for
+     * @return returns the next round of the given tournament in JSON format
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RoundJSON advanceRound(String tournamentKey) {
+        return switchToNextRound(tournamentKey);
+    }
+
     /***
      * Takes a tournament key and round key and sets the round as the tournament's current round.
      * If the round is already set as the current round of the tournament, it will throw a HttpClientErrorException with code 422.
@@ -612,6 +827,7 @@ public class TournamentService {
      * @param roundKey the key of the round
      * @return the round that has been set as the current round, in JSON format
      */
+    @Transactional
     public RoundJSON setRound(String tournamentKey, String roundKey) {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
@@ -623,29 +839,26 @@ public class TournamentService {
             throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Given round is already set as the current round!");
         }
 
+        applyByes(tournament, round);
         round.setState(GameState.ACTIVE);
 
         tournament.setCurrentRound(round);
         startRound(round);
-        sendNotification("Round " + round.getNumber() + " is about to start!");
+        sendNotification(tournament, "Round " + round.getNumber() + " is about to start!");
+        tournamentStateService.stateChanged(tournament.getTournamentKey());
 
         return RoundMapper.entityToJSON(round);
     }
 
     /***
-     * Takes a given round and iterates over its matches, filtering the matches that ended
-     * and compares the total size of the matches list, with the number of matches that ended.
+     * Takes a given round and checks whether all of its matches ended, from the count of matches it still has
+     * pending rather than by going over its matches.
      *
      * @param round the round to verify
-     * @return returns a boolean result of the comparison between the two total counts
+     * @return returns whether the round has no pending matches left
      */
     public boolean roundFinished(Round round) {
-        int finishedMatches = (int) round.getMatches()
-                .stream()
-                .filter(match -> GameState.ENDED.equals(match.getState()))
-                .count();
-
-        return round.getMatches().size() == finishedMatches;
+        return round.getPendingMatches() == 0;
     }
 
 
@@ -662,6 +875,7 @@ public class TournamentService {
                              Round currentRound,
                              Round nextRound) {
 
+        applyByes(tournament, nextRound);
         currentRound.setState(GameState.ENDED);
         tournament.setCurrentRound(nextRound);
         nextRound.setState(GameState.ACTIVE);
@@ -670,18 +884,23 @@ public class TournamentService {
     }
 
     /***
-     * Takes a given round's list of matches, and sets their state to 'ACTIVE' for all of them.
+     * Takes a given round's list of matches, and sets their state to 'ACTIVE' for all of them except those already
+     * ended, the byes included. The pending matches of the round are counted again from the states of its matches,
+     * so a round started again finishes once the matches it has left end.
      *
      * @param round the round with the matches that will be started
      */
     public void startRound(Round round) {
-        List<Match> activeMatches = round.getMatches().stream()
-                .map(match -> {
-                    match.setState(GameState.ACTIVE);
-                    matchRepository.save(match);
-                    return match;
-                })
-                .collect(Collectors.toList());
+        int pendingMatches = 0;
+        for (Match match : round.getMatches()) {
+            if (!GameState.ENDED.equals(match.getState())) {
+                match.setState(GameState.ACTIVE);
+                matchRepository.save(match);
+                pendingMatches++;
+            }
+        }
+        round.setPendingMatches(pendingMatches);
+        roundRepository.setPendingMatches(round.getId(), pendingMatches);
     }
 
     /***
@@ -693,7 +912,11 @@ public class TournamentService {
      * @return boolean result
      */
     public boolean isFinalRound(Tournament tournament, Round round) {
-        if (tournament.getRounds().values().size() == round.getNumber()) {
+        int totalRounds = pairsIncrementally(tournament)
+                ? getTotalRounds(tournament)
+                : tournament.getRounds().values().size();
+
+        if (totalRounds == round.getNumber()) {
             return true;
         } else {
             return false;
@@ -705,13 +928,21 @@ public class TournamentService {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
-        Match match = matchRepository.findTopByTournamentAndStateOrderByStartDateDesc(tournament, GameState.ENDED)
+        Match match = matchRepository.findTopByTournamentAndStateAndByeFalseOrderByStartDateDesc(tournament, GameState.ENDED)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Match not found!"));
 
         return MatchMapper.entityToJSON(match);
     }
 
-    @Transactional
+    /***
+     * Returns the results of the matches a player has in a tournament, byes excluded, in the order they were
+     * scheduled, read with a single query.
+     *
+     * @param tournamentKey the key of the tournament
+     * @param playerKey the key of the player
+     * @return the results of the player, in JSON format
+     */
+    @Transactional(readOnly = true)
     public List<MatchResultJSON> getPlayerResults(String tournamentKey, String playerKey) {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
@@ -719,16 +950,30 @@ public class TournamentService {
         Player player = playerRepository.findByUserKey(playerKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
 
-        List<MatchPlayer> matchPlayerList = tournament.getMatchPlayerPairs();
-        List<Match> matchList = matchPlayerList.stream()
-                .filter(matchPlayer -> player.equals(matchPlayer.getFirstPlayer())
-                        || player.equals(matchPlayer.getSecondPlayer()))
-                .flatMap(matchPlayer -> Stream.of(matchPlayer.getMatch()))
+        return matchPlayerRepository.findPlayerResults(tournament, player).stream()
+                .map(MatchResultMapper::playerResultToJSON)
                 .collect(Collectors.toList());
+    }
 
-        return matchList.stream().flatMap(match -> Stream.of(match.getMatchResult()))
-                .map(MatchResultMapper::entityToJSON)
-                .collect(Collectors.toList());
+    /***
+     * Streams the results of the matches a player has in a tournament to the given consumer, as they are read,
+     * so long histories are never held in memory.
+     *
+     * @param tournamentKey the key of the tournament
+     * @param playerKey the key of the player
+     * @param consumer receives the results of the player, in JSON format
+     */
+    @Transactional(readOnly = true)
+    public void streamPlayerResults(String tournamentKey, String playerKey, Consumer<MatchResultJSON> consumer) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found!"));
+
+        Player player = playerRepository.findByUserKey(playerKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Player not found!"));
+
+        try (Stream<PlayerResult> results = matchPlayerRepository.streamPlayerResults(tournament, player)) {
+            results.map(MatchResultMapper::playerResultToJSON).forEach(consumer);
+        }
     }
 
     /***
@@ -745,6 +990,10 @@ public class TournamentService {
         Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
                 .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
 
+        if (tournamentStartJobRepository.findTopByTournamentAndStateIn(tournament,
+                Arrays.asList(JobState.PENDING, JobState.RUNNING)).isPresent()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot change registration status while the tournament is being started!");
+        }
         if (!GameState.ACTIVE.equals(tournament.getState())
                 && !GameState.ENDED.equals(tournament.getState())) {
             tournament.setRegistrationOpen(registrationStatus);
@@ -845,7 +1094,6 @@ public class TournamentService {
         List<TournamentUser> tournamentUsers = tournamentUserRepository.findUserByTournament(tournament);
 
         List<ParticipantStatusJSON> participants = tournamentUsers.stream()
-                .filter(tournamentUser -> !tournamentUser.getUser().getEmail().contains(GHOST_PLAYER_EMAIL))
                 .map(tournamentUser -> ParticipantStatusMapper.createJSON(tournamentUser.getUser(), InvitationStatus.ACCEPTED))
                 .collect(Collectors.toList());
 
@@ -987,12 +1235,18 @@ public class TournamentService {
         });
 
         tournamentUserRepository.deleteAllByTournament(tournament);
+        playerStatsService.tournamentDeleted(tournament);
+        headToHeadService.tournamentDeleted(tournament);
         matchPlayerRepository.deleteAllByTournament(tournament);
         matchRepository.deleteAllByTournament(tournament);
         roundRepository.deleteAllByTournament(tournament);
+        tournamentStartJobRepository.deleteAllByTournament(tournament);
+        arenaService.close(tournament.getId());
+        leaderboardService.close(tournament);
         userSettingsRepository.deleteAllByTournament(tournament);
 
         playerRepository.deletePlayerByUserKeyIn(userKeys);
+        leaderboardService.playersDeleted();
         tournamentRepository.delete(tournament);
 
         return new JsonResponse().with("status", "ok")
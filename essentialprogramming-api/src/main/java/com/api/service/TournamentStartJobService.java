@@ -0,0 +1,181 @@
+package com.api.service;
+
+import com.api.entities.Tournament;
+import com.api.entities.TournamentStartJob;
+import com.api.mapper.TournamentStartJobMapper;
+import com.api.model.GameState;
+import com.api.model.JobState;
+import com.api.output.TournamentStartJobJSON;
+import com.api.output.WebSocketMessage;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentStartJobRepository;
+import com.api.websocket.Topics;
+import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts tournaments in the background. A start job is persisted before it runs, writes the schedule in steps that
+ * commit on their own and pushes its progress over the WebSocket after every step. Jobs left unfinished by a restart
+ * are resumed when the application context is refreshed.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class TournamentStartJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TournamentStartJobService.class);
+
+    private static final List<JobState> UNFINISHED_STATES = Arrays.asList(JobState.PENDING, JobState.RUNNING);
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentStartJobRepository tournamentStartJobRepository;
+    private final TournamentService tournamentService;
+    private final RatingService ratingService;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Checks that the tournament can be started, closes its registration and records a pending start job.
+     * If the tournament is already being started, the unfinished job is returned instead of a new one.
+     *
+     * @param tournamentKey the key of the tournament to start
+     * @return the JSON of the start job
+     */
+    @Transactional
+    public TournamentStartJobJSON createJob(String tournamentKey) {
+        Tournament tournament = tournamentRepository.findByTournamentKey(tournamentKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Tournament not found"));
+
+        if (GameState.ACTIVE.equals(tournament.getState())) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already started!");
+        } else if (GameState.ENDED.equals(tournament.getState())) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournament has already ended!");
+        } else if (tournament.getPlayers().isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "This tournament currently has no participants!");
+        } else if (ratingService.isRecomputing()) {
+            throw new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "Tournaments cannot be started while ratings are being recomputed!");
+        }
+
+        TournamentStartJob job = tournamentStartJobRepository.findTopByTournamentAndStateIn(tournament, UNFINISHED_STATES)
+                .orElse(null);
+        if (job == null) {
+            LocalDateTime now = LocalDateTime.now();
+            job = TournamentStartJob.builder()
+                    .jobKey(NanoIdUtils.randomNanoId())
+                    .tournament(tournament)
+                    .state(JobState.PENDING)
+                    .createdDate(now)
+                    .updatedDate(now)
+                    .build();
+            tournamentStartJobRepository.save(job);
+        }
+
+        tournament.setRegistrationOpen(false);
+
+        return TournamentStartJobMapper.entityToJSON(job);
+    }
+
+    /**
+     * Queues the given job, unless it already runs on this node.
+     *
+     * @param jobKey the key of the start job
+     */
+    public void runJob(String jobKey) {
+        if (runningJobs.add(jobKey)) {
+            jobExecutor.execute(() -> {
+                try {
+                    run(jobKey);
+                } finally {
+                    runningJobs.remove(jobKey);
+                }
+            });
+        }
+    }
+
+    @Transactional
+    public TournamentStartJobJSON getJob(String jobKey) {
+        TournamentStartJob job = tournamentStartJobRepository.findByJobKey(jobKey)
+                .orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "Job not found!"));
+
+        return TournamentStartJobMapper.entityToJSON(job);
+    }
+
+    /**
+     * Resumes the jobs that were pending or running when the node stopped. Every step locks its job, so nodes
+     * resuming the same job never run a step of it at the same time, and a node finding the job locked leaves it.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void resumeJobs() {
+        for (TournamentStartJob job : tournamentStartJobRepository.findAllByStateIn(UNFINISHED_STATES)) {
+            LOG.info("Resuming start job {} of tournament {}", job.getJobKey(), job.getTournament().getTournamentKey());
+            runJob(job.getJobKey());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void run(String jobKey) {
+        try {
+            TournamentStartJob job;
+            do {
+                job = tournamentService.startTournamentStep(jobKey);
+                if (job == null) {
+                    LOG.info("Start job {} is run by another node", jobKey);
+                    return;
+                }
+                sendProgress(TournamentStartJobMapper.entityToJSON(job));
+            } while (!JobState.COMPLETED.equals(job.getState()) && !Thread.currentThread().isInterrupted());
+        } catch (HttpClientErrorException e) {
+            fail(jobKey, e.getStatusText());
+        } catch (RuntimeException e) {
+            LOG.error("Start job {} failed", jobKey, e);
+            fail(jobKey, "Internal server error.");
+        }
+    }
+
+    private void fail(String jobKey, String error) {
+        tournamentStartJobRepository.findByJobKey(jobKey).ifPresent(job -> {
+            job.setState(JobState.FAILED);
+            job.setError(error);
+            job.setUpdatedDate(LocalDateTime.now());
+            tournamentStartJobRepository.save(job);
+
+            sendProgress(TournamentStartJobMapper.entityToJSON(job));
+        });
+    }
+
+    private void sendProgress(TournamentStartJobJSON job) {
+        try {
+            WebSocketManager.publish(WebSocketMessage.builder()
+                    .type("tournament_start_progress")
+                    .content(objectMapper.writeValueAsString(job))
+                    .build(), Topics.tournament(job.getTournamentKey()));
+        } catch (JsonProcessingException e) {
+            LOG.warn("Could not serialize the progress of start job {}", job.getJobKey(), e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.api.service;
+
+import com.api.repository.TournamentRepository;
+import com.api.websocket.Coalescer;
+import com.api.websocket.Topics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.util.cloud.Environment.getProperty;
+
+/**
+ * Pushes the state of a tournament to the clients subscribed to it when the tournament changes. The changes are
+ * coalesced, so a tournament is pushed at most once per TOURNAMENT_STATE_PUSH_INTERVAL_MS however many of its
+ * matches end meanwhile, and the snapshot is read once per push whatever the number of subscribers.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+public class TournamentStateService {
+
+    private static final int PUSH_INTERVAL_MILLIS = getProperty("TOURNAMENT_STATE_PUSH_INTERVAL_MS", 1000);
+
+    private final TournamentRepository tournamentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ScheduledExecutorService pushScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Coalescer<String> changes = new Coalescer<>(pushScheduler, PUSH_INTERVAL_MILLIS, this::push);
+
+    /**
+     * Schedules a push of the tournament. Called inside a transaction, the push is scheduled once it commits, so
+     * it reads what the transaction changed.
+     */
+    public void stateChanged(String tournamentKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.changed(tournamentKey);
+                }
+            });
+        } else {
+            changes.changed(tournamentKey);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushScheduler.shutdownNow();
+    }
+
+    private void push(String tournamentKey) {
+        if (!WebSocketManager.hasSubscribers(Topics.tournament(tournamentKey))) {
+            return;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> tournamentRepository.findByTournamentKey(tournamentKey)
+                .ifPresent(WebSocketManager::sendTournamentInformation));
+    }
+}
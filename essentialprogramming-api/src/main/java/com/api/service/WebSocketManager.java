@@ -2,62 +2,247 @@ package com.api.service;
 
 
 import com.api.output.WebSocketMessage;
+import com.api.output.WebSocketStatsJSON;
 import com.api.entities.Tournament;
 import com.api.mapper.ChessTournamentMapper;
-import com.google.common.collect.Multimap;
+import com.api.websocket.EncodedMessage;
+import com.api.websocket.OutboundMetrics;
+import com.api.websocket.OutboundQueue;
+import com.api.websocket.SessionRegistry;
+import com.api.websocket.SlowConsumerPolicy;
+import com.api.websocket.Topics;
 import io.undertow.websockets.core.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.IoUtils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.util.cloud.Environment.getProperty;
 
 
 public class WebSocketManager {
-    public static Multimap<String, WebSocketChannel> userKeysWithChannel;
-
-    public static AbstractReceiveListener getListener(Multimap<String, WebSocketChannel> channelMap) {
-        userKeysWithChannel = channelMap;
-        return new AbstractReceiveListener() {
-            @Override
-            protected void onFullTextMessage(WebSocketChannel channel,
-                                             BufferedTextMessage message) {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebSocketManager.class);
+
+    private static final String TOPICS_ATTRIBUTE = "topics";
+    private static final String OUTBOUND_ATTRIBUTE = "outbound";
+    private static final String TOURNAMENT_STATE = "tournament_state ";
+    private static final int MAX_TOPICS_PER_SESSION = 64;
+    private static final int OUTBOUND_QUEUE_CAPACITY = getProperty("WEBSOCKET_QUEUE_CAPACITY", 64);
+    private static final SlowConsumerPolicy SLOW_CONSUMER_POLICY =
+            SlowConsumerPolicy.valueOf(getProperty("WEBSOCKET_SLOW_CONSUMER_POLICY", SlowConsumerPolicy.DROP_OLDEST.name()));
+
+    private static final OutboundMetrics outboundMetrics = new OutboundMetrics();
+
+    private static final SessionRegistry<WebSocketChannel> sessions = new SessionRegistry<>();
+    private static final SessionRegistry<WebSocketChannel> subscribers = new SessionRegistry<>();
+
+    private static final AbstractReceiveListener listener = new AbstractReceiveListener() {
+        @Override
+        protected void onFullTextMessage(WebSocketChannel channel,
+                                         BufferedTextMessage message) {
+            String text = message.getData().trim();
+            if (text.startsWith(Topics.SUBSCRIBE)) {
+                subscribe(channel, text.substring(Topics.SUBSCRIBE.length()).trim());
+            } else if (text.startsWith(Topics.UNSUBSCRIBE)) {
+                unsubscribe(channel, text.substring(Topics.UNSUBSCRIBE.length()).trim());
             }
-        };
+        }
+    };
+
+    /**
+     * Sends the next queued message once a send is done. A failed send closes the channel, which removes it from
+     * the sessions.
+     */
+    private static final WebSocketCallback<OutboundQueue> sendNext = new WebSocketCallback<OutboundQueue>() {
+        @Override
+        public void complete(WebSocketChannel channel, OutboundQueue outbound) {
+            outbound.sent();
+        }
+
+        @Override
+        public void onError(WebSocketChannel channel, OutboundQueue outbound, Throwable throwable) {
+            LOG.debug("Closing WebSocket channel after a failed send", throwable);
+            IoUtils.safeClose(channel);
+        }
+    };
+
+    /**
+     * Registers the channel of a user and starts receiving from it. The channel is removed when it closes.
+     * Messages to the channel go through its {@link OutboundQueue}, of the configured capacity and policy.
+     */
+    public static void connect(String userKey, WebSocketChannel channel) {
+        OutboundQueue outbound = new OutboundQueue(OUTBOUND_QUEUE_CAPACITY, SLOW_CONSUMER_POLICY,
+                message -> WebSockets.sendText(message.payload(), channel, sendNext, getOutbound(channel)),
+                () -> IoUtils.safeClose(channel),
+                outboundMetrics);
+        channel.setAttribute(TOPICS_ATTRIBUTE, ConcurrentHashMap.newKeySet());
+        channel.setAttribute(OUTBOUND_ATTRIBUTE, outbound);
+        sessions.register(userKey, channel);
+        channel.addCloseTask(closed -> {
+            outbound.close();
+            sessions.unregister(userKey, closed);
+            getTopics(closed).forEach(topic -> subscribers.unregister(topic, closed));
+        });
+        if (!channel.isOpen()) {
+            sessions.unregister(userKey, channel);
+            return;
+        }
+        channel.getReceiveSetter().set(listener);
+        channel.resumeReceives();
     }
 
-    public static void sendMessage(String message) {
-        if (userKeysWithChannel != null) {
-            for (WebSocketChannel session : userKeysWithChannel.values()) {
-                WebSockets.sendText(message, session, null);
-            }
-        } else {
-            System.out.println("No WebSocket connection available!");
+    /**
+     * Adds the channel to the subscribers of a topic. Invalid topics, and topics above the limit of a channel, are
+     * ignored.
+     */
+    static void subscribe(WebSocketChannel channel, String topic) {
+        Set<String> topics = getTopics(channel);
+        if (!Topics.isValid(topic) || topics.size() >= MAX_TOPICS_PER_SESSION || !topics.add(topic)) {
+            return;
+        }
+        subscribers.register(topic, channel);
+        if (!channel.isOpen()) {
+            subscribers.unregister(topic, channel);
         }
     }
 
-    public static void sendMessage(WebSocketMessage message) {
-        if (userKeysWithChannel != null) {
-            for (WebSocketChannel session : userKeysWithChannel.values()) {
-                WebSockets.sendText(message.toString(), session, null);
-            }
+    static void unsubscribe(WebSocketChannel channel, String topic) {
+        if (getTopics(channel).remove(topic)) {
+            subscribers.unregister(topic, channel);
         }
     }
 
-    public static void sendMessageByUserKey(WebSocketMessage message, String userKey) {
-        if (userKeysWithChannel != null && userKeysWithChannel.containsKey(userKey)) {
-            for (WebSocketChannel session : userKeysWithChannel.get(userKey)
-            ) {
-                WebSockets.sendText(message.toString(), session, null);
+    @SuppressWarnings("unchecked")
+    private static Set<String> getTopics(WebSocketChannel channel) {
+        Object topics = channel.getAttribute(TOPICS_ATTRIBUTE);
+        return topics != null ? (Set<String>) topics : Collections.emptySet();
+    }
+
+    private static OutboundQueue getOutbound(WebSocketChannel channel) {
+        return (OutboundQueue) channel.getAttribute(OUTBOUND_ATTRIBUTE);
+    }
+
+    public static int getSessionsCount() {
+        return sessions.getSessionsCount();
+    }
+
+    public static int getConnectedUsersCount() {
+        return sessions.getUsersCount();
+    }
+
+    public static int getSubscribedTopicsCount() {
+        return subscribers.getUsersCount();
+    }
+
+    public static boolean hasSubscribers(String topic) {
+        return !subscribers.getSessions(topic).isEmpty();
+    }
+
+    public static OutboundMetrics getOutboundMetrics() {
+        return outboundMetrics;
+    }
+
+    /**
+     * @return the number of messages waiting in the fullest outbound queue
+     */
+    public static int getLargestQueueDepth() {
+        AtomicInteger largest = new AtomicInteger();
+        sessions.forEach(session -> {
+            OutboundQueue outbound = getOutbound(session);
+            if (outbound != null) {
+                largest.accumulateAndGet(outbound.getDepth(), Math::max);
             }
+        });
+        return largest.get();
+    }
+
+    public static WebSocketStatsJSON getStats() {
+        return WebSocketStatsJSON.builder()
+                .sessions(getSessionsCount())
+                .connectedUsers(getConnectedUsersCount())
+                .subscribedTopics(getSubscribedTopicsCount())
+                .queuedMessages(outboundMetrics.getQueuedCount())
+                .largestQueueDepth(getLargestQueueDepth())
+                .droppedMessages(outboundMetrics.getDroppedCount())
+                .coalescedMessages(outboundMetrics.getCoalescedCount())
+                .disconnectedSessions(outboundMetrics.getDisconnectedCount())
+                .queueCapacity(OUTBOUND_QUEUE_CAPACITY)
+                .slowConsumerPolicy(SLOW_CONSUMER_POLICY.name())
+                .build();
+    }
+
+    /**
+     * Sends a message to the subscribers of the topics, once to a channel subscribed to several of them. The message
+     * is an event, so it is never coalesced with another one waiting in the queue of a slow channel.
+     */
+    public static void publish(WebSocketMessage message, String... topics) {
+        publish(message.toString(), topics);
+    }
+
+    public static void publish(String text, String... topics) {
+        publish(text, null, topics);
+    }
+
+    /**
+     * Sends a message to the subscribers of the topics.
+     *
+     * @param snapshotKey the key of a message carrying a whole state, which may replace the outdated one with the
+     *                    same key in the queue of a slow channel. Null for events
+     */
+    private static void publish(String text, String snapshotKey, String[] topics) {
+        Set<WebSocketChannel> recipients;
+        if (topics.length == 1) {
+            recipients = subscribers.getSessions(topics[0]);
+        } else {
+            recipients = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String topic : topics) {
+                recipients.addAll(subscribers.getSessions(topic));
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        EncodedMessage message = EncodedMessage.of(text);
+        for (WebSocketChannel session : recipients) {
+            send(snapshotKey, message, session);
         }
     }
 
+    /**
+     * Sends a message to every connected channel, whatever it is subscribed to.
+     */
+    public static void sendMessage(String text) {
+        EncodedMessage message = EncodedMessage.of(text);
+        sessions.forEach(session -> send(null, message, session));
+    }
 
+    public static void sendMessageByUserKey(WebSocketMessage message, String userKey) {
+        EncodedMessage encoded = EncodedMessage.of(message.toString());
+        for (WebSocketChannel session : sessions.getSessions(userKey)) {
+            send(null, encoded, session);
+        }
+    }
 
+    /**
+     * Sends the state of a tournament to its subscribers. A slow channel only keeps the latest state it was not sent
+     * yet.
+     */
     public static void sendTournamentInformation(Tournament tournament) {
-        if (userKeysWithChannel != null) {
-            for (WebSocketChannel session : userKeysWithChannel.values()) {
-                WebSockets.sendText(ChessTournamentMapper.tournamentJSONToString(tournament), session,null);
-            }
-        } else {
-            System.out.println("No WebSocket connection available!");
+        String topic = Topics.tournament(tournament.getTournamentKey());
+        publish(ChessTournamentMapper.tournamentJSONToString(tournament), TOURNAMENT_STATE + topic, new String[]{topic});
+    }
+
+    private static void send(String snapshotKey, EncodedMessage message, WebSocketChannel session) {
+        OutboundQueue outbound = getOutbound(session);
+        if (outbound != null && session.isOpen()) {
+            outbound.offer(snapshotKey, message);
         }
     }
 }
-
@@ -0,0 +1,55 @@
+package com.api.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the changes of keys into at most one flush of a key per interval. The first change of a key schedules
+ * its flush an interval later and the changes made until then are covered by that flush, however many they are.
+ * A change made once the flush of its key started schedules the next flush.
+ *
+ * @param <K> the type of the keys
+ */
+public final class Coalescer<K> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Coalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+    private final Consumer<K> flush;
+    private final Set<K> pending = ConcurrentHashMap.newKeySet();
+
+    public Coalescer(ScheduledExecutorService scheduler, long intervalMillis, Consumer<K> flush) {
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        this.flush = flush;
+    }
+
+    public void changed(K key) {
+        if (pending.add(key)) {
+            scheduler.schedule(() -> flush(key), intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the number of keys waiting for their flush
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void flush(K key) {
+        pending.remove(key);
+        try {
+            flush.accept(key);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not flush the changes of {}", key, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.api.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A text message encoded once, to be sent to any number of sessions. Each send gets its own view of the same
+ * read-only bytes, so sending to one more session costs the write of the bytes and no encoding or copy.
+ */
+public final class EncodedMessage {
+
+    private final ByteBuffer bytes;
+
+    private EncodedMessage(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    public static EncodedMessage of(String text) {
+        return new EncodedMessage(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer());
+    }
+
+    /**
+     * @return a view of the whole message, positioned at its start, which only the caller consumes
+     */
+    public ByteBuffer payload() {
+        return bytes.duplicate();
+    }
+
+    public int size() {
+        return bytes.remaining();
+    }
+}
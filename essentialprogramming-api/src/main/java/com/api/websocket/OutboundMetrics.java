@@ -0,0 +1,50 @@
+package com.api.websocket;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what the {@link OutboundQueue}s of the sessions hold and what their {@link SlowConsumerPolicy} discarded.
+ */
+public final class OutboundMetrics {
+
+    private final AtomicLong queued = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    void queued(int count) {
+        queued.addAndGet(count);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void disconnected() {
+        disconnected.increment();
+    }
+
+    /**
+     * @return the messages waiting in the queues of all the sessions
+     */
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getDisconnectedCount() {
+        return disconnected.sum();
+    }
+}
@@ -0,0 +1,153 @@
+package com.api.websocket;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * The messages waiting to be sent to one session. A session has at most one send in progress, the next message is
+ * sent when the transport reports the previous one {@link #sent()}, so a session that does not keep up holds its
+ * messages here instead of in the buffers of the server. The queue is bounded, and once it is full its
+ * {@link SlowConsumerPolicy} decides what is discarded, so a slow session costs at most its capacity in memory
+ * and never holds up the sends to the other sessions.
+ */
+public final class OutboundQueue {
+
+    private static final class Entry {
+        private final String snapshotKey;
+        private final EncodedMessage message;
+
+        private Entry(String snapshotKey, EncodedMessage message) {
+            this.snapshotKey = snapshotKey;
+            this.message = message;
+        }
+    }
+
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final Consumer<EncodedMessage> sender;
+    private final Runnable disconnect;
+    private final OutboundMetrics metrics;
+
+    private final Deque<Entry> queued = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closed;
+
+    /**
+     * @param sender     starts sending a message to the session, without waiting for it to be written
+     * @param disconnect closes the session
+     */
+    public OutboundQueue(int capacity, SlowConsumerPolicy policy, Consumer<EncodedMessage> sender,
+                         Runnable disconnect, OutboundMetrics metrics) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of an outbound queue must be positive");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sender = sender;
+        this.disconnect = disconnect;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sends the message now if the session is idle, queues it otherwise.
+     *
+     * @param snapshotKey identifies a message carrying the whole state of something, which makes the queued message
+     *                    with the same key outdated. Null for any other message, which may never be coalesced
+     */
+    public void offer(String snapshotKey, EncodedMessage message) {
+        boolean disconnecting = false;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (sending) {
+                if (queued.size() < capacity) {
+                    add(snapshotKey, message);
+                    return;
+                }
+                if (discard(snapshotKey, message)) {
+                    return;
+                }
+                close();
+                metrics.disconnected();
+                disconnecting = true;
+            } else {
+                sending = true;
+            }
+        }
+        if (disconnecting) {
+            disconnect.run();
+        } else {
+            sender.accept(message);
+        }
+    }
+
+    /**
+     * Reports the send in progress as done, and sends the next queued message.
+     */
+    public void sent() {
+        EncodedMessage next;
+        synchronized (this) {
+            Entry entry = queued.poll();
+            if (entry == null) {
+                sending = false;
+                return;
+            }
+            metrics.queued(-1);
+            next = entry.message;
+        }
+        sender.accept(next);
+    }
+
+    /**
+     * Drops the queued messages and refuses the next ones. Called once the session is closed.
+     */
+    public synchronized void close() {
+        closed = true;
+        metrics.queued(-queued.size());
+        queued.clear();
+    }
+
+    public synchronized int getDepth() {
+        return queued.size();
+    }
+
+    private void add(String snapshotKey, EncodedMessage message) {
+        queued.add(new Entry(snapshotKey, message));
+        metrics.queued(1);
+    }
+
+    /**
+     * Makes room for the message in the full queue. A coalesced snapshot is removed and the new one is queued last,
+     * so it is never sent ahead of the messages queued before it.
+     *
+     * @return false when the policy disconnects the session instead
+     */
+    private boolean discard(String snapshotKey, EncodedMessage message) {
+        switch (policy) {
+            case COALESCE_BY_TOPIC:
+                if (snapshotKey != null) {
+                    Iterator<Entry> entries = queued.iterator();
+                    while (entries.hasNext()) {
+                        if (snapshotKey.equals(entries.next().snapshotKey)) {
+                            entries.remove();
+                            queued.add(new Entry(snapshotKey, message));
+                            metrics.coalesced();
+                            return true;
+                        }
+                    }
+                }
+                // fall through
+            case DROP_OLDEST:
+                queued.poll();
+                metrics.queued(-1);
+                metrics.dropped();
+                add(snapshotKey, message);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
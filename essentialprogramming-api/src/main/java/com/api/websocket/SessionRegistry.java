@@ -0,0 +1,70 @@
+package com.api.websocket;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The open sessions of the connected users, by user key. Sessions are registered by the IO threads as they connect
+ * and removed as they close, while the service threads iterate them to send messages, so the registry is safe to
+ * use from any thread. A user with no session left is removed, so the registry only holds what is connected.
+ *
+ * @param <S> the type of the sessions
+ */
+public final class SessionRegistry<S> {
+
+    private final ConcurrentMap<String, Set<S>> sessionsByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionsCount = new AtomicInteger();
+
+    /**
+     * Adds a session of a user. Registering a session twice has no effect.
+     */
+    public void register(String key, S session) {
+        sessionsByKey.compute(key, (k, sessions) -> {
+            Set<S> keySessions = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            if (keySessions.add(session)) {
+                sessionsCount.incrementAndGet();
+            }
+            return keySessions;
+        });
+    }
+
+    /**
+     * Removes a session of a user, and the user along with its last session. Removing a session which is not
+     * registered has no effect.
+     */
+    public void unregister(String key, S session) {
+        sessionsByKey.computeIfPresent(key, (k, sessions) -> {
+            if (sessions.remove(session)) {
+                sessionsCount.decrementAndGet();
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * @return a live view of the sessions of a user, empty when the user is not connected
+     */
+    public Set<S> getSessions(String key) {
+        Set<S> sessions = key != null ? sessionsByKey.get(key) : null;
+        return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptySet();
+    }
+
+    /**
+     * Applies an action to every session. Sessions registered or removed meanwhile may or may not be seen.
+     */
+    public void forEach(Consumer<? super S> action) {
+        sessionsByKey.values().forEach(sessions -> sessions.forEach(action));
+    }
+
+    public int getSessionsCount() {
+        return sessionsCount.get();
+    }
+
+    public int getUsersCount() {
+        return sessionsByKey.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.api.websocket;
+
+/**
+ * What an {@link OutboundQueue} does with a new message when it is full because its session does not keep up.
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * Drops the oldest queued message.
+     */
+    DROP_OLDEST,
+    /**
+     * Replaces the queued snapshot of the same topic and type, which is outdated by the new one, or drops the oldest
+     * queued message when there is none. The new snapshot goes to the end of the queue, behind the older messages.
+     * Events, such as results, are never coalesced.
+     */
+    COALESCE_BY_TOPIC,
+    /**
+     * Closes the session.
+     */
+    DISCONNECT
+}
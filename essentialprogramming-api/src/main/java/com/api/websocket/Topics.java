@@ -0,0 +1,39 @@
+package com.api.websocket;
+
+/**
+ * The topics WebSocket clients subscribe to, named after the key of what they follow, e.g. "tournament:{key}".
+ * Clients subscribe by sending "subscribe {topic}" and unsubscribe by sending "unsubscribe {topic}".
+ * The messages of a user are sent to the sessions of that user, no subscription is needed for them.
+ */
+public final class Topics {
+
+    public static final String SUBSCRIBE = "subscribe ";
+    public static final String UNSUBSCRIBE = "unsubscribe ";
+
+    private static final String TOURNAMENT = "tournament:";
+    private static final String MATCH = "match:";
+    private static final int MAX_LENGTH = 128;
+
+    private Topics() {
+    }
+
+    public static String tournament(String tournamentKey) {
+        return TOURNAMENT + tournamentKey;
+    }
+
+    public static String match(String matchKey) {
+        return MATCH + matchKey;
+    }
+
+    /**
+     * @return whether clients may subscribe to the topic
+     */
+    public static boolean isValid(String topic) {
+        return topic.length() <= MAX_LENGTH
+                && (hasKey(topic, TOURNAMENT) || hasKey(topic, MATCH));
+    }
+
+    private static boolean hasKey(String topic, String prefix) {
+        return topic.startsWith(prefix) && topic.length() > prefix.length();
+    }
+}
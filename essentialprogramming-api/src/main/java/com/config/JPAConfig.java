@@ -9,6 +9,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -41,6 +42,8 @@ public class JPAConfig {
         config.setJdbcUrl(AppResources.DB_HOSTNAME.value());
         config.setUsername(AppResources.DB_USER.value());
         config.setPassword(AppResources.DB_PASSWORD.value());
+        //Lets the driver collapse JDBC batches into multi-row inserts
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
 
 
         return new HikariDataSource(config);
@@ -68,6 +71,11 @@ public class JPAConfig {
         return properties;
     }
 
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(hikariDataSource());
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager() {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
@@ -15,8 +15,6 @@ import com.api.controller.LoginServlet;
 import com.api.service.WebSocketManager;
 import com.authentication.config.ApplicationConfig;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import io.undertow.servlet.api.InstanceFactory;
 import io.undertow.servlet.api.ListenerInfo;
 import io.undertow.servlet.util.ImmediateInstanceFactory;
@@ -54,8 +52,6 @@ public final class UndertowServer {
 
     private volatile Undertow server;
 
-    private final Multimap<String, WebSocketChannel> userKeysAndChannels= ArrayListMultimap.create();
-
     public UndertowServer(String host, int port, String deploymentName) {
         this.host = host;
         this.port = port;
@@ -108,11 +104,7 @@ public final class UndertowServer {
                 .addPrefixPath("/", servletHandler)
                 .addPrefixPath("apidoc", resourceHandler)
                 .addPrefixPath("/websocket", websocket(
-                        (exchange, channel) -> {
-                            connect(exchange, channel);
-                            channel.getReceiveSetter().set(WebSocketManager.getListener(userKeysAndChannels));
-                            channel.resumeReceives();
-                        }));
+                        this::connect));
 
         return pathHandler;
     }
@@ -120,7 +112,7 @@ public final class UndertowServer {
     private void connect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
         String[] queryString = exchange.getQueryString().split("userKey=");
         String key = queryString[queryString.length-1];
-        userKeysAndChannels.put(key, channel);
+        WebSocketManager.connect(key, channel);
     }
 
     public void start() throws ServletException {
@@ -0,0 +1,119 @@
+package com.api.leaderboard;
+
+import com.api.model.GameResult;
+import com.api.model.Result;
+import com.api.output.StandingJSON;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeaderboardTest {
+
+    @Test
+    public void raiseScoreReordersLeaderboard() {
+
+        //given
+        Leaderboard leaderboard = new Leaderboard(Arrays.asList(entry(1, 2), entry(2, 1), entry(3, 1.5)), Collections.emptyList());
+
+        //when
+        leaderboard.raiseScore(2, 3);
+
+        //then
+        assertThat(playerKeys(leaderboard.getTop(null))).containsExactly("player-2", "player-1", "player-3");
+        assertThat(leaderboard.getRank("player-2")).isEqualTo(1);
+        assertThat(leaderboard.getRank("player-3")).isEqualTo(3);
+        assertThat(leaderboard.getEntry("player-2").get().getScore()).isEqualTo(3);
+    }
+
+    @Test
+    public void raiseScoreIgnoresStaleScores() {
+
+        //given
+        Leaderboard leaderboard = new Leaderboard(Arrays.asList(entry(1, 0), entry(2, 0)), Collections.emptyList());
+
+        //when
+        boolean newer = leaderboard.raiseScore(1, 2);
+        boolean stale = leaderboard.raiseScore(1, 1);
+
+        //then
+        assertThat(newer).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(leaderboard.getEntry("player-1").get().getScore()).isEqualTo(2);
+        assertThat(leaderboard.getRank("player-1")).isEqualTo(1);
+    }
+
+    @Test
+    public void addGameBreaksTiesByBuchholz() {
+
+        //given
+        Leaderboard leaderboard = new Leaderboard(Arrays.asList(entry(1, 1), entry(2, 1), entry(3, 0), entry(4, 0)), Arrays.asList(
+                new GameResult(10, 4, 1, Result.SECOND),
+                new GameResult(11, 2, 3, Result.FIRST)));
+
+        //when
+        leaderboard.raiseScore(4, 0.5);
+        boolean repeated = leaderboard.addGame(new GameResult(10, 4, 1, Result.SECOND));
+
+        //then
+        List<StandingJSON> standings = leaderboard.getTop(null);
+        assertThat(repeated).isFalse();
+        assertThat(playerKeys(standings)).containsExactly("player-1", "player-2", "player-4", "player-3");
+        assertThat(standings.get(0).getBuchholz()).isEqualTo(0.5);
+        assertThat(standings.get(0).getSonnebornBerger()).isEqualTo(0.5);
+        assertThat(standings.get(1).getBuchholz()).isEqualTo(0);
+        assertThat(leaderboard.getRank("player-2")).isEqualTo(2);
+    }
+
+    @Test
+    public void getRankAndTopMatchSortedScores() {
+
+        //given
+        int playersCount = 2000;
+        Random random = new Random(7);
+        List<LeaderboardEntry> entries = new ArrayList<>(playersCount);
+        for (int player = 0; player < playersCount; player++) {
+            entries.add(entry(player, 0));
+        }
+        Leaderboard leaderboard = new Leaderboard(entries, Collections.emptyList());
+
+        //when
+        double[] scores = new double[playersCount];
+        for (int update = 0; update < 10 * playersCount; update++) {
+            int player = random.nextInt(playersCount);
+            scores[player] += 0.5 * random.nextInt(3);
+            leaderboard.raiseScore(player, scores[player]);
+        }
+
+        //then
+        List<LeaderboardEntry> expected = new ArrayList<>(entries.size());
+        for (int player = 0; player < playersCount; player++) {
+            expected.add(entry(player, scores[player]));
+        }
+        expected.sort((first, second) -> first.getScore() != second.getScore()
+                ? Double.compare(second.getScore(), first.getScore())
+                : Integer.compare(first.getPlayerId(), second.getPlayerId()));
+
+        assertThat(leaderboard.size()).isEqualTo(playersCount);
+        assertThat(playerKeys(leaderboard.getTop(10)))
+                .containsExactlyElementsOf(expected.subList(0, 10).stream().map(LeaderboardEntry::getPlayerKey).collect(Collectors.toList()));
+        for (int rank = 1; rank <= playersCount; rank += 97) {
+            assertThat(leaderboard.getRank(expected.get(rank - 1).getPlayerKey())).isEqualTo(rank);
+        }
+        assertThat(leaderboard.getRank("unknown")).isZero();
+    }
+
+    private static LeaderboardEntry entry(int playerId, double score) {
+        return new LeaderboardEntry(playerId, "player-" + playerId, "player" + playerId + "@mail.com", "First", "Last", score);
+    }
+
+    private static List<String> playerKeys(List<StandingJSON> players) {
+        return players.stream().map(StandingJSON::getPlayerKey).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.api.leaderboard;
+
+import com.util.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TiebreaksBenchmark {
+
+    private static final int RUNS = 9;
+
+    @Test
+    public void appliesAResultOfAThousandPlayerSwissInUnderAMillisecond() {
+
+        //given
+        Benchmark benchmark = Benchmark.of("Tiebreaks");
+        int playersCount = 1000;
+        int roundsCount = 11;
+        Random random = new Random(3);
+        List<int[]> games = new ArrayList<>();
+        List<Double> firstPlayerPoints = new ArrayList<>();
+        for (int round = 0; round < roundsCount; round++) {
+            List<Integer> players = new ArrayList<>();
+            for (int player = 0; player < playersCount; player++) {
+                players.add(player);
+            }
+            Collections.shuffle(players, random);
+            for (int board = 0; board < playersCount / 2; board++) {
+                games.add(new int[]{players.get(2 * board), players.get(2 * board + 1)});
+                firstPlayerPoints.add(0.5 * random.nextInt(3));
+            }
+        }
+
+        //when
+        long nanos = benchmark.medianNanos(RUNS, () -> {
+            Tiebreaks tiebreaks = new Tiebreaks(playersCount);
+            double[] scores = new double[playersCount];
+            for (int player = 0; player < playersCount; player++) {
+                tiebreaks.addPlayer(player, 0);
+            }
+            for (int game = 0; game < games.size(); game++) {
+                int firstPlayer = games.get(game)[0];
+                int secondPlayer = games.get(game)[1];
+                double points = firstPlayerPoints.get(game);
+                scores[firstPlayer] += points;
+                scores[secondPlayer] += 1 - points;
+                tiebreaks.setScore(firstPlayer, scores[firstPlayer], player -> { });
+                tiebreaks.setScore(secondPlayer, scores[secondPlayer], player -> { });
+                tiebreaks.addGame(firstPlayer, secondPlayer, points, player -> { });
+            }
+        });
+
+        //then
+        long nanosPerResult = nanos / games.size();
+        benchmark.report("%d players, %d rounds: %d results in %.2f ms, %d ns per result", playersCount, roundsCount,
+                games.size(), Benchmark.millis(nanos), nanosPerResult);
+        assertThat(Benchmark.millis(nanosPerResult)).isLessThan(1);
+    }
+}
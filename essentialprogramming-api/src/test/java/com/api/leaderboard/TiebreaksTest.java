@@ -0,0 +1,86 @@
+package com.api.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TiebreaksTest {
+
+    @Test
+    public void incrementalTiebreaksMatchRecomputedOnes() {
+
+        //given
+        int playersCount = 1000;
+        int roundsCount = 11;
+        Random random = new Random(3);
+        Tiebreaks tiebreaks = new Tiebreaks(playersCount);
+        for (int player = 0; player < playersCount; player++) {
+            tiebreaks.addPlayer(player, 0);
+        }
+
+        //when
+        double[] scores = new double[playersCount];
+        List<int[]> games = new ArrayList<>();
+        List<Double> firstPlayerPoints = new ArrayList<>();
+        for (int round = 0; round < roundsCount; round++) {
+            List<Integer> players = new ArrayList<>();
+            for (int player = 0; player < playersCount; player++) {
+                players.add(player);
+            }
+            Collections.shuffle(players, random);
+
+            for (int board = 0; board < playersCount / 2; board++) {
+                int firstPlayer = players.get(2 * board);
+                int secondPlayer = players.get(2 * board + 1);
+                double points = 0.5 * random.nextInt(3);
+                scores[firstPlayer] += points;
+                scores[secondPlayer] += 1 - points;
+                games.add(new int[]{firstPlayer, secondPlayer});
+                firstPlayerPoints.add(points);
+
+                //Scores and games reach the tiebreaks in no particular order, as concurrent results do
+                if (random.nextBoolean()) {
+                    tiebreaks.setScore(firstPlayer, scores[firstPlayer], player -> { });
+                    tiebreaks.addGame(firstPlayer, secondPlayer, points, player -> { });
+                    tiebreaks.setScore(secondPlayer, scores[secondPlayer], player -> { });
+                } else {
+                    tiebreaks.setScore(secondPlayer, scores[secondPlayer], player -> { });
+                    tiebreaks.setScore(firstPlayer, scores[firstPlayer], player -> { });
+                    tiebreaks.addGame(firstPlayer, secondPlayer, points, player -> { });
+                }
+            }
+        }
+
+        //then
+        double[] buchholz = new double[playersCount];
+        double[] sonnebornBerger = new double[playersCount];
+        double[] best = new double[playersCount];
+        double[] worst = new double[playersCount];
+        Arrays.fill(worst, Double.POSITIVE_INFINITY);
+        for (int game = 0; game < games.size(); game++) {
+            int firstPlayer = games.get(game)[0];
+            int secondPlayer = games.get(game)[1];
+            double points = firstPlayerPoints.get(game);
+            buchholz[firstPlayer] += scores[secondPlayer];
+            buchholz[secondPlayer] += scores[firstPlayer];
+            sonnebornBerger[firstPlayer] += points * scores[secondPlayer];
+            sonnebornBerger[secondPlayer] += (1 - points) * scores[firstPlayer];
+            best[firstPlayer] = Math.max(best[firstPlayer], scores[secondPlayer]);
+            best[secondPlayer] = Math.max(best[secondPlayer], scores[firstPlayer]);
+            worst[firstPlayer] = Math.min(worst[firstPlayer], scores[secondPlayer]);
+            worst[secondPlayer] = Math.min(worst[secondPlayer], scores[firstPlayer]);
+        }
+
+        for (int player = 0; player < playersCount; player++) {
+            assertThat(tiebreaks.getBuchholz(player)).isEqualTo(buchholz[player]);
+            assertThat(tiebreaks.getSonnebornBerger(player)).isEqualTo(sonnebornBerger[player]);
+            assertThat(tiebreaks.getMedianBuchholz(player)).isEqualTo(buchholz[player] - best[player] - worst[player]);
+        }
+    }
+}
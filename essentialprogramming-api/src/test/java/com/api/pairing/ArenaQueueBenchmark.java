@@ -0,0 +1,94 @@
+package com.api.pairing;
+
+import com.util.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArenaQueueBenchmark {
+
+    private static final long SEED = 20200817L;
+    private static final int RUNS = 5;
+    private static final int PLAYERS = 2000;
+    private static final int THREADS = 4;
+    private static final long PAIRINGS = 100_000;
+
+    @Test
+    public void pairsThousandsOfPlayersPerSecond() {
+
+        //given
+        Benchmark benchmark = Benchmark.of("Arena queue");
+
+        //when
+        long nanos = benchmark.medianNanos(RUNS, ArenaQueueBenchmark::playArena);
+
+        //then
+        double pairingsPerSecond = PAIRINGS / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        benchmark.report("%d players, %d threads: %d pairings in %.2f ms, %.0f pairings/s", PLAYERS, THREADS,
+                PAIRINGS, Benchmark.millis(nanos), pairingsPerSecond);
+        assertThat(pairingsPerSecond).isGreaterThan(10_000);
+    }
+
+    /**
+     * Settles matches from several threads, as referees and players do, and requeues both players of every match
+     * until the arena made {@value #PAIRINGS} pairings.
+     */
+    private static void playArena() {
+        int[] halfPoints = new int[PLAYERS];
+        int[] lastOpponents = new int[PLAYERS];
+        ArenaQueue queue = new ArenaQueue(PLAYERS);
+        Queue<int[]> playing = new ConcurrentLinkedQueue<>();
+        AtomicLong pairings = new AtomicLong();
+
+        for (int player = 0; player < PLAYERS; player++) {
+            int opponent = queue.join(player, 0, ArenaQueue.NO_OPPONENT);
+            if (opponent != ArenaQueue.NO_OPPONENT) {
+                playing.add(new int[]{opponent, player});
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(SEED + thread);
+            executor.execute(() -> {
+                while (pairings.get() < PAIRINGS) {
+                    int[] match = playing.poll();
+                    if (match == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    halfPoints[match[random.nextInt(2)]] += 2;
+                    lastOpponents[match[0]] = match[1];
+                    lastOpponents[match[1]] = match[0];
+
+                    for (int player : match) {
+                        int opponent = queue.join(player, halfPoints[player], lastOpponents[player]);
+                        if (opponent != ArenaQueue.NO_OPPONENT) {
+                            playing.add(new int[]{opponent, player});
+                            pairings.incrementAndGet();
+                        }
+                    }
+                }
+                done.countDown();
+            });
+        }
+        try {
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
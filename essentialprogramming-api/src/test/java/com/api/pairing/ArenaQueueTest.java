@@ -0,0 +1,121 @@
+package com.api.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArenaQueueTest {
+
+    private static final long SEED = 20200817L;
+
+    @Test
+    public void joinPairsNearestScoreWaitingLongestFirst() {
+
+        //given
+        ArenaQueue queue = new ArenaQueue(10);
+        queue.join(1, 8, 2);
+        queue.join(2, 0, 1);
+        ArenaQueue sameScoreQueue = new ArenaQueue(10);
+        sameScoreQueue.join(3, 4, 4);
+        sameScoreQueue.join(4, 4, 3);
+
+        //when
+        int nearLow = queue.join(5, 1, ArenaQueue.NO_OPPONENT);
+        int nearHigh = queue.join(6, 5, ArenaQueue.NO_OPPONENT);
+        int sameScore = sameScoreQueue.join(7, 4, ArenaQueue.NO_OPPONENT);
+
+        //then
+        assertThat(nearLow).isEqualTo(2);
+        assertThat(nearHigh).isEqualTo(1);
+        assertThat(queue.size()).isZero();
+        assertThat(sameScore).isEqualTo(3);
+        assertThat(sameScoreQueue.isWaiting(4)).isTrue();
+    }
+
+    @Test
+    public void joinAvoidsImmediateRematches() {
+
+        //given
+        ArenaQueue queue = new ArenaQueue(3);
+        ArenaQueue duel = new ArenaQueue(2);
+        queue.join(1, 2, 2);
+        duel.join(1, 2, 2);
+
+        //when
+        int rematch = queue.join(2, 0, 1);
+        int newOpponent = queue.join(3, 0, ArenaQueue.NO_OPPONENT);
+        int duelRematch = duel.join(2, 0, 1);
+
+        //then
+        assertThat(rematch).isEqualTo(ArenaQueue.NO_OPPONENT);
+        assertThat(newOpponent).isEqualTo(2);
+        assertThat(queue.isWaiting(1)).isTrue();
+        assertThat(duelRematch).isEqualTo(1);
+        assertThat(duel.size()).isZero();
+    }
+
+    @Test
+    public void concurrentJoinsKeepEveryPlayerPlayingOrWaiting() throws InterruptedException {
+
+        //given
+        int playersCount = 2000;
+        int threads = 4;
+        long pairingsTarget = 100_000;
+        int[] halfPoints = new int[playersCount];
+        int[] lastOpponents = new int[playersCount];
+        ArenaQueue queue = new ArenaQueue(playersCount);
+        Queue<int[]> playing = new ConcurrentLinkedQueue<>();
+        AtomicLong pairings = new AtomicLong();
+
+        for (int player = 0; player < playersCount; player++) {
+            int opponent = queue.join(player, 0, ArenaQueue.NO_OPPONENT);
+            if (opponent != ArenaQueue.NO_OPPONENT) {
+                playing.add(new int[]{opponent, player});
+            }
+        }
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            Random random = new Random(SEED + thread);
+            executor.execute(() -> {
+                while (pairings.get() < pairingsTarget) {
+                    int[] match = playing.poll();
+                    if (match == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    halfPoints[match[random.nextInt(2)]] += 2;
+                    lastOpponents[match[0]] = match[1];
+                    lastOpponents[match[1]] = match[0];
+
+                    for (int player : match) {
+                        int opponent = queue.join(player, halfPoints[player], lastOpponents[player]);
+                        if (opponent != ArenaQueue.NO_OPPONENT) {
+                            playing.add(new int[]{opponent, player});
+                            pairings.incrementAndGet();
+                        }
+                    }
+                }
+                done.countDown();
+            });
+        }
+        boolean finished = done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        //then
+        assertThat(finished).isTrue();
+        assertThat(2 * playing.size() + queue.size()).isEqualTo(playersCount);
+        assertThat(pairings.get()).isGreaterThanOrEqualTo(pairingsTarget);
+    }
+}
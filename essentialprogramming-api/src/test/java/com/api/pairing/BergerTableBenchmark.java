@@ -0,0 +1,35 @@
+package com.api.pairing;
+
+import com.util.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BergerTableBenchmark {
+
+    private static final int RUNS = 9;
+
+    @Test
+    public void doubleRoundRobinForTwoThousandPlayersIsComputedInMilliseconds() {
+
+        //given
+        Benchmark benchmark = Benchmark.of("Berger table");
+        BergerTable bergerTable = new BergerTable(2000, 2);
+        int[] pairings = new int[bergerTable.getPlayersCount()];
+        long[] checksum = new long[1];
+
+        //when
+        long nanos = benchmark.medianNanos(RUNS, () -> {
+            for (int roundIndex = 0; roundIndex < bergerTable.getRounds(); roundIndex++) {
+                bergerTable.round(roundIndex, pairings);
+                checksum[0] += pairings[pairings.length - 1];
+            }
+        });
+
+        //then
+        benchmark.report("%d players, %d rounds of %d boards: %.2f ms", bergerTable.getPlayersCount(),
+                bergerTable.getRounds(), bergerTable.getBoards(), Benchmark.millis(nanos));
+        assertThat(checksum[0]).isPositive();
+        assertThat(Benchmark.millis(nanos)).isLessThan(1000);
+    }
+}
@@ -0,0 +1,104 @@
+package com.api.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BergerTableTest {
+
+    @Test
+    public void everyPlayerMeetsEveryOtherPlayerOncePerCycle() {
+
+        //given
+        int playersCount = 16;
+        BergerTable bergerTable = new BergerTable(playersCount);
+        BitSet pairs = new BitSet(playersCount * playersCount);
+        int[] whites = new int[playersCount];
+
+        //when
+        for (int roundIndex = 0; roundIndex < bergerTable.getRounds(); roundIndex++) {
+            int[] pairings = bergerTable.round(roundIndex);
+            BitSet seated = new BitSet(playersCount);
+
+            for (int board = 0; board < bergerTable.getBoards(); board++) {
+                int white = pairings[2 * board];
+                int black = pairings[2 * board + 1];
+
+                //then
+                assertThat(seated.get(white) || seated.get(black)).isFalse();
+                seated.set(white);
+                seated.set(black);
+
+                int pair = Math.min(white, black) * playersCount + Math.max(white, black);
+                assertThat(pairs.get(pair)).isFalse();
+                pairs.set(pair);
+                whites[white]++;
+            }
+        }
+
+        assertThat(pairs.cardinality()).isEqualTo(playersCount * (playersCount - 1) / 2);
+        for (int white : whites) {
+            int blacks = bergerTable.getRounds() - white;
+            assertThat(Math.abs(white - blacks)).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    public void secondCycleReversesColours() {
+
+        //given
+        BergerTable bergerTable = new BergerTable(8, 2);
+
+        //when
+        int[] firstCycle = bergerTable.round(3);
+        int[] secondCycle = bergerTable.round(3 + bergerTable.getRoundsPerCycle());
+
+        //then
+        assertThat(bergerTable.getRounds()).isEqualTo(14);
+        for (int board = 0; board < bergerTable.getBoards(); board++) {
+            assertThat(secondCycle[2 * board]).isEqualTo(firstCycle[2 * board + 1]);
+            assertThat(secondCycle[2 * board + 1]).isEqualTo(firstCycle[2 * board]);
+        }
+    }
+
+    @Test
+    public void oddPlayerCountIsRejected() {
+
+        //when
+        Throwable throwable = catchThrowable(() -> new BergerTable(7));
+
+        //then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void playersRepeatAColourAtMostOncePerCycle() {
+
+        for (int playersCount = 4; playersCount <= 40; playersCount += 2) {
+
+            //given
+            BergerTable bergerTable = new BergerTable(playersCount);
+            Boolean[] lastWhite = new Boolean[playersCount];
+            int[] repeats = new int[playersCount];
+
+            //when
+            for (int roundIndex = 0; roundIndex < bergerTable.getRounds(); roundIndex++) {
+                int[] pairings = bergerTable.round(roundIndex);
+                for (int seat = 0; seat < playersCount; seat++) {
+                    int player = pairings[seat];
+                    boolean white = seat % 2 == 0;
+                    if (lastWhite[player] != null && lastWhite[player] == white) {
+                        repeats[player]++;
+                    }
+                    lastWhite[player] = white;
+                }
+            }
+
+            //then
+            assertThat(repeats).as("%d players", playersCount).containsOnly(0, 1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class KnockoutStrategyTest {
+
+    @Test
+    public void pairSeedsBracketAndGivesByesToTopSeeds() {
+
+        //given
+        int playersCount = 6;
+        PairingStrategy strategy = PairingStrategies.of(PairingSystem.KNOCKOUT);
+        PairingHistory history = new PairingHistory(playersCount);
+        for (int player = 0; player < playersCount; player++) {
+            history.setRating(player, player);
+        }
+
+        //when
+        RoundPairings pairings = PairingStrategies.pair(strategy, history, 0);
+
+        //then
+        assertThat(strategy.getTotalRounds(playersCount, 10)).isEqualTo(3);
+        assertThat(pairings.isBracket()).isTrue();
+        assertThat(pairings.getByes()).containsExactly(5, 4);
+        assertThat(new int[]{pairings.getByeSlot(0), pairings.getByeSlot(1)}).containsExactly(4, 6);
+        assertThat(pairings.getPairings()).containsExactly(2, 1, 3, 0);
+        assertThat(new int[]{pairings.getBoardSlot(0), pairings.getBoardSlot(1)}).containsExactly(5, 7);
+    }
+
+    @Test
+    public void pairPlacesTenThousandPlayersOnce() {
+
+        //given
+        int playersCount = 10_000;
+        PairingStrategy strategy = PairingStrategies.of(PairingSystem.KNOCKOUT);
+        PairingHistory history = new PairingHistory(playersCount);
+        for (int player = 0; player < playersCount; player++) {
+            history.setRating(player, (player * 7919) % playersCount / 2.0);
+        }
+
+        //when
+        RoundPairings pairings = PairingStrategies.pair(strategy, history, 0);
+        Throwable nextRound = catchThrowable(() -> strategy.pair(history, 1));
+
+        //then
+        BitSet placed = new BitSet(playersCount);
+        BitSet slots = new BitSet(2 * 16384);
+        for (int board = 0; board < pairings.getBoards(); board++) {
+            placed.set(pairings.getWhite(board));
+            placed.set(pairings.getBlack(board));
+            slots.set(pairings.getBoardSlot(board));
+            assertThat(history.getRating(pairings.getWhite(board))).isGreaterThanOrEqualTo(history.getRating(pairings.getBlack(board)));
+        }
+        for (int bye = 0; bye < pairings.getByes().length; bye++) {
+            placed.set(pairings.getByes()[bye]);
+            slots.set(pairings.getByeSlot(bye));
+        }
+
+        assertThat(strategy.getTotalRounds(playersCount, null)).isEqualTo(14);
+        assertThat(pairings.getByes()).hasSize(16384 - playersCount);
+        assertThat(placed.cardinality()).isEqualTo(playersCount);
+        assertThat(slots.cardinality()).isEqualTo(8192);
+        assertThat(slots.nextSetBit(0)).isEqualTo(8192);
+        assertThat(nextRound).isInstanceOf(IllegalStateException.class);
+    }
+}
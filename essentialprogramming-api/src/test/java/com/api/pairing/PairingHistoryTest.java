@@ -0,0 +1,44 @@
+package com.api.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PairingHistoryTest {
+
+    @Test
+    public void gamesAreRecordedForBothPlayersOnly() {
+
+        //given
+        int playersCount = 300;
+        PairingHistory history = new PairingHistory(playersCount);
+
+        //when
+        for (int player = 1; player < playersCount; player += 2) {
+            history.addGame(player, player - 1);
+        }
+
+        //then
+        for (int first = 0; first < playersCount; first++) {
+            for (int second = 0; second < playersCount; second++) {
+                boolean opponents = first != second && Math.max(first, second) % 2 == 1
+                        && Math.abs(first - second) == 1 && Math.min(first, second) % 2 == 0;
+                assertThat(history.havePlayed(first, second)).isEqualTo(opponents);
+            }
+        }
+        assertThat(history.getColourBalance(1)).isEqualTo(1);
+        assertThat(history.getColourBalance(0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void fieldsAboveTheLimitAreRejected() {
+
+        //when
+        Throwable throwable = catchThrowable(() -> new PairingHistory(PairingHistory.MAX_PLAYERS + 1));
+
+        //then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(PairingHistory.MAX_PLAYERS));
+    }
+}
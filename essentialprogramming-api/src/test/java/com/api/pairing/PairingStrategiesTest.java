@@ -0,0 +1,65 @@
+package com.api.pairing;
+
+import com.api.model.PairingSystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PairingStrategiesTest {
+
+    @Test
+    public void roundRobinGivesOneByePerRoundForOddFields() {
+
+        //given
+        int playersCount = 7;
+        PairingStrategy strategy = PairingStrategies.of(PairingSystem.ROUND_ROBIN);
+        PairingHistory history = new PairingHistory(playersCount);
+        BitSet byes = new BitSet(playersCount);
+
+        //when
+        int totalRounds = strategy.getTotalRounds(playersCount, null);
+        for (int roundIndex = 0; roundIndex < totalRounds; roundIndex++) {
+            RoundPairings pairings = PairingStrategies.pair(strategy, history, roundIndex);
+
+            //then
+            assertThat(pairings.getBoards()).isEqualTo(3);
+            assertThat(pairings.getByes()).hasSize(1);
+            assertThat(byes.get(pairings.getByes()[0])).isFalse();
+            byes.set(pairings.getByes()[0]);
+
+            for (int board = 0; board < pairings.getBoards(); board++) {
+                assertThat(history.havePlayed(pairings.getWhite(board), pairings.getBlack(board))).isFalse();
+                history.addGame(pairings.getWhite(board), pairings.getBlack(board));
+            }
+        }
+        assertThat(totalRounds).isEqualTo(7);
+        assertThat(byes.cardinality()).isEqualTo(playersCount);
+        assertThat(PairingStrategies.getPairingsCount(PairingSystem.ROUND_ROBIN)).isGreaterThanOrEqualTo(totalRounds);
+    }
+
+    @Test
+    public void strategiesReportHowTheyPair() {
+
+        //given
+        PairingStrategy roundRobin = PairingStrategies.of(PairingSystem.ROUND_ROBIN);
+        PairingStrategy doubleRoundRobin = PairingStrategies.of(PairingSystem.DOUBLE_ROUND_ROBIN);
+        PairingStrategy swiss = PairingStrategies.of(PairingSystem.SWISS);
+
+        //then
+        assertThat(PairingStrategies.of(null)).isSameAs(roundRobin);
+        assertThat(roundRobin.isIncremental()).isFalse();
+        assertThat(doubleRoundRobin.isIncremental()).isFalse();
+        assertThat(swiss.isIncremental()).isTrue();
+
+        assertThat(roundRobin.getTotalRounds(10, null)).isEqualTo(9);
+        assertThat(doubleRoundRobin.getTotalRounds(10, null)).isEqualTo(18);
+        assertThat(swiss.getTotalRounds(500, null)).isEqualTo(9);
+        assertThat(swiss.getTotalRounds(500, 7)).isEqualTo(7);
+        assertThat(swiss.getTotalRounds(4, 7)).isEqualTo(3);
+
+        assertThat(swiss.getPairingCost(1000)).isLessThan(roundRobin.getPairingCost(1000));
+        assertThat(roundRobin.getPairingCost(1000)).isLessThan(doubleRoundRobin.getPairingCost(1000));
+    }
+}
@@ -0,0 +1,59 @@
+package com.api.pairing;
+
+import com.util.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SwissPairingBenchmark {
+
+    private static final long SEED = 20200817L;
+    private static final int RUNS = 9;
+
+    @Test
+    public void pairsFifteenHundredPlayersInUnderOneHundredMilliseconds() {
+
+        //given
+        Benchmark benchmark = Benchmark.of("Swiss pairing");
+        int playersCount = 1500;
+        int rounds = 11;
+        PairingHistory history = new PairingHistory(playersCount);
+        double[] scores = new double[playersCount];
+        Random random = new Random(SEED);
+        long slowestNanos = 0;
+
+        for (int roundIndex = 0; roundIndex < rounds; roundIndex++) {
+
+            //when
+            long nanos = benchmark.medianNanos(RUNS, () -> new SwissPairing(history).pair());
+            slowestNanos = Math.max(slowestNanos, nanos);
+            benchmark.report("%d players, round %d: %.2f ms", playersCount, roundIndex + 1, Benchmark.millis(nanos));
+
+            RoundPairings swissRound = new SwissPairing(history).pair();
+            assertThat(swissRound.getBoards()).isEqualTo(playersCount / 2);
+            playRound(history, swissRound, scores, random);
+        }
+
+        //then
+        benchmark.report("%d players, slowest of %d rounds: %.2f ms", playersCount, rounds, Benchmark.millis(slowestNanos));
+        assertThat(Benchmark.millis(slowestNanos)).isLessThan(100);
+    }
+
+    private static void playRound(PairingHistory history, RoundPairings swissRound, double[] scores, Random random) {
+        int[] pairings = swissRound.getPairings();
+
+        for (int board = 0; board < swissRound.getBoards(); board++) {
+            int white = pairings[2 * board];
+            int black = pairings[2 * board + 1];
+            history.addGame(white, black);
+
+            int outcome = random.nextInt(3);
+            scores[white] += outcome == 0 ? 1 : outcome == 1 ? 0.5 : 0;
+            scores[black] += outcome == 2 ? 1 : outcome == 1 ? 0.5 : 0;
+            history.setScore(white, scores[white]);
+            history.setScore(black, scores[black]);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.api.pairing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class SwissPairingTest {
+
+    private static final long SEED = 20200817L;
+
+    @Test
+    public void firstRoundPairsTopHalfAgainstBottomHalf() {
+
+        //given
+        PairingHistory history = new PairingHistory(8);
+
+        //when
+        RoundPairings swissRound = new SwissPairing(history).pair();
+
+        //then
+        assertThat(swissRound.hasBye()).isFalse();
+        assertThat(swissRound.getBoards()).isEqualTo(4);
+        for (int board = 0; board < swissRound.getBoards(); board++) {
+            int first = swissRound.getPairings()[2 * board];
+            int second = swissRound.getPairings()[2 * board + 1];
+            assertThat(Math.min(first, second)).isEqualTo(board);
+            assertThat(Math.max(first, second)).isEqualTo(board + 4);
+        }
+    }
+
+    @Test
+    public void leadersArePairedWithinTheirScoreGroup() {
+
+        //given
+        PairingHistory history = new PairingHistory(8);
+        for (int player = 0; player < 8; player++) {
+            history.setScore(player, player % 2 == 0 ? 1 : 0);
+        }
+
+        //when
+        RoundPairings swissRound = new SwissPairing(history).pair();
+
+        //then
+        for (int board = 0; board < swissRound.getBoards(); board++) {
+            int first = swissRound.getPairings()[2 * board];
+            int second = swissRound.getPairings()[2 * board + 1];
+            assertThat(first % 2).isEqualTo(second % 2);
+        }
+    }
+
+    @Test
+    public void roundsNeverRepeatOpponentsAndGiveEveryByeOnce() {
+
+        //given
+        int playersCount = 101;
+        PairingHistory history = new PairingHistory(playersCount);
+        double[] scores = new double[playersCount];
+        BitSet byes = new BitSet(playersCount);
+        Random random = new Random(SEED);
+
+        for (int roundIndex = 0; roundIndex < 9; roundIndex++) {
+
+            //when
+            RoundPairings swissRound = new SwissPairing(history).pair();
+
+            //then
+            BitSet seated = new BitSet(playersCount);
+            assertThat(swissRound.getByes()).hasSize(1);
+            int bye = swissRound.getByes()[0];
+            assertThat(byes.get(bye)).isFalse();
+            byes.set(bye);
+            seated.set(bye);
+
+            for (int board = 0; board < swissRound.getBoards(); board++) {
+                int white = swissRound.getPairings()[2 * board];
+                int black = swissRound.getPairings()[2 * board + 1];
+
+                assertThat(history.havePlayed(white, black)).isFalse();
+                assertThat(seated.get(white) || seated.get(black)).isFalse();
+                seated.set(white);
+                seated.set(black);
+            }
+            assertThat(seated.cardinality()).isEqualTo(playersCount);
+
+            playRound(history, swissRound, scores, random);
+        }
+    }
+
+    @Test
+    public void exhaustedOpponentsAreReportedAsNoPairing() {
+
+        //given
+        PairingHistory history = new PairingHistory(4);
+        for (int first = 0; first < 4; first++) {
+            for (int second = first + 1; second < 4; second++) {
+                history.addGame(first, second);
+            }
+        }
+
+        //when
+        Throwable throwable = catchThrowable(() -> new SwissPairing(history).pair());
+
+        //then
+        assertThat(throwable).isInstanceOf(IllegalStateException.class)
+                .isNotInstanceOf(PairingSearchExhaustedException.class)
+                .hasMessage("No Swiss pairing exists without repeating an opponent");
+    }
+
+    @Test
+    public void searchRunningOutOfStepsIsReportedAsExhausted() {
+
+        //given
+        PairingHistory history = new PairingHistory(8);
+
+        //when
+        Throwable throwable = catchThrowable(() -> new SwissPairing(history, 2).pair());
+
+        //then
+        assertThat(throwable).isInstanceOf(PairingSearchExhaustedException.class);
+        assertThat(((PairingSearchExhaustedException) throwable).getSteps()).isEqualTo(2);
+    }
+
+    @Test
+    public void byeCandidatesShareTheStepBudget() {
+
+        //given the lowest ranked player cannot take the bye, as the first player could not be paired then
+        PairingHistory history = new PairingHistory(5);
+        history.addGame(0, 1);
+        history.addGame(0, 2);
+        history.addGame(0, 3);
+
+        //when
+        Throwable throwable = catchThrowable(() -> new SwissPairing(history, 8).pair());
+        RoundPairings swissRound = new SwissPairing(history, 9).pair();
+
+        //then the steps spent on the first bye candidate count against the next one
+        assertThat(throwable).isInstanceOf(PairingSearchExhaustedException.class);
+        assertThat(swissRound.getByes()).containsExactly(3);
+    }
+
+    private static void playRound(PairingHistory history, RoundPairings swissRound, double[] scores, Random random) {
+        int[] pairings = swissRound.getPairings();
+
+        for (int board = 0; board < swissRound.getBoards(); board++) {
+            int white = pairings[2 * board];
+            int black = pairings[2 * board + 1];
+            history.addGame(white, black);
+
+            int outcome = random.nextInt(3);
+            scores[white] += outcome == 0 ? 1 : outcome == 1 ? 0.5 : 0;
+            scores[black] += outcome == 2 ? 1 : outcome == 1 ? 0.5 : 0;
+            history.setScore(white, scores[white]);
+            history.setScore(black, scores[black]);
+        }
+
+        for (int bye : swissRound.getByes()) {
+            history.addBye(bye);
+            scores[bye] += 1;
+            history.setScore(bye, scores[bye]);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class Glicko2Test {
+
+    @Test
+    public void rateMatchesGlickmanExample() {
+
+        //given
+        double[] opponentRatings = {1400, 1550, 1700};
+        double[] opponentDeviations = {30, 100, 300};
+        double[] scores = {1, 0, 0};
+        double[] rated = new double[3];
+
+        //when
+        Glicko2.rate(1500, 200, 0.06, opponentRatings, opponentDeviations, scores, 0, 3, rated);
+
+        //then
+        assertThat(rated[0]).isCloseTo(1464.06, within(0.01));
+        assertThat(rated[1]).isCloseTo(151.52, within(0.01));
+        assertThat(rated[2]).isCloseTo(0.05999, within(0.00001));
+    }
+
+    @Test
+    public void rateWithoutGamesOnlyGrowsDeviation() {
+
+        //given
+        double[] rated = new double[3];
+
+        //when
+        Glicko2.rate(1500, 200, 0.06, new double[0], new double[0], new double[0], 0, 0, rated);
+
+        //then
+        assertThat(rated[0]).isEqualTo(1500);
+        assertThat(rated[1]).isCloseTo(Glicko2.inflateDeviation(200, 0.06, 1), within(0.000001));
+        assertThat(rated[1]).isCloseTo(200.27, within(0.01));
+        assertThat(rated[2]).isEqualTo(0.06);
+    }
+}
@@ -0,0 +1,106 @@
+package com.api.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.within;
+
+public class RatingPeriodsTest {
+
+    @Test
+    public void parallelRatingsMatchSequentialOnes() {
+
+        //given
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        RatingPeriods sequential = new RatingPeriods(sequentialPool, (playerId, rating, deviation, volatility) -> { });
+        RatingPeriods parallel = new RatingPeriods(parallelPool, (playerId, rating, deviation, volatility) -> { });
+
+        //when
+        Random random = new Random(11);
+        for (int period = 0; period < 20; period++) {
+            for (int game = 0; game < 2000; game++) {
+                int firstPlayer = random.nextInt(3000);
+                int secondPlayer = (firstPlayer + 1 + random.nextInt(2999)) % 3000;
+                double score = 0.5 * random.nextInt(3);
+                sequential.addGame(period * 2, firstPlayer, secondPlayer, score);
+                parallel.addGame(period * 2, firstPlayer, secondPlayer, score);
+            }
+        }
+        Map<Integer, double[]> sequentialRatings = new HashMap<>();
+        Map<Integer, double[]> parallelRatings = new HashMap<>();
+        sequential.finish((playerId, rating, deviation, volatility) -> sequentialRatings.put(playerId, new double[]{rating, deviation, volatility}));
+        parallel.finish((playerId, rating, deviation, volatility) -> parallelRatings.put(playerId, new double[]{rating, deviation, volatility}));
+        sequentialPool.shutdown();
+        parallelPool.shutdown();
+
+        //then
+        assertThat(parallel.getPeriodsCount()).isEqualTo(20);
+        assertThat(parallel.getGamesCount()).isEqualTo(40000);
+        assertThat(parallelRatings).hasSameSizeAs(sequentialRatings);
+        sequentialRatings.forEach((playerId, rating) -> assertThat(parallelRatings.get(playerId)).containsExactly(rating));
+    }
+
+    @Test
+    public void ratePeriodUsesRatingsFromPeriodStart() {
+
+        //given
+        Map<Integer, double[]> ratings = new HashMap<>();
+        RatingPeriods periods = new RatingPeriods(ForkJoinPool.commonPool(),
+                (playerId, rating, deviation, volatility) -> ratings.put(playerId, new double[]{rating, deviation, volatility}));
+
+        //when
+        periods.addGame(0, 1, 2, 1);
+        periods.addGame(0, 2, 3, 1);
+        periods.finish((playerId, rating, deviation, volatility) -> { });
+
+        //then
+        double[] expected = new double[3];
+        Glicko2.rate(Glicko2.DEFAULT_RATING, Glicko2.DEFAULT_DEVIATION, Glicko2.DEFAULT_VOLATILITY,
+                new double[]{Glicko2.DEFAULT_RATING, Glicko2.DEFAULT_RATING}, new double[]{Glicko2.DEFAULT_DEVIATION, Glicko2.DEFAULT_DEVIATION},
+                new double[]{0, 1}, 0, 2, expected);
+        assertThat(ratings.get(2)).containsExactly(expected);
+        assertThat(ratings.get(1)[0]).isGreaterThan(Glicko2.DEFAULT_RATING);
+        assertThat(ratings.get(3)[0]).isLessThan(Glicko2.DEFAULT_RATING);
+    }
+
+    @Test
+    public void finishGrowsDeviationOfIdlePlayers() {
+
+        //given
+        Map<Integer, double[]> ratings = new HashMap<>();
+        Map<Integer, double[]> finalRatings = new HashMap<>();
+        RatingPeriods periods = new RatingPeriods(ForkJoinPool.commonPool(),
+                (playerId, rating, deviation, volatility) -> ratings.put(playerId, new double[]{rating, deviation, volatility}));
+
+        //when
+        periods.addGame(0, 1, 2, 0.5);
+        periods.addGame(3, 2, 3, 0.5);
+        periods.finish((playerId, rating, deviation, volatility) -> finalRatings.put(playerId, new double[]{rating, deviation, volatility}));
+
+        //then
+        double[] idle = ratings.get(1);
+        assertThat(finalRatings.get(1)[1]).isCloseTo(Glicko2.inflateDeviation(idle[1], idle[2], 3), within(0.000001));
+        assertThat(finalRatings.get(2)).containsExactly(ratings.get(2));
+    }
+
+    @Test
+    public void addGameFailOutOfOrder() {
+
+        //given
+        RatingPeriods periods = new RatingPeriods(ForkJoinPool.commonPool(), (playerId, rating, deviation, volatility) -> { });
+        periods.addGame(5, 1, 2, 1);
+
+        //when
+        Throwable throwable = catchThrowable(() -> periods.addGame(4, 1, 2, 1));
+
+        //then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.api.service;
+
+import com.api.entities.*;
+import com.api.model.GameState;
+import com.api.model.MatchPlan;
+import com.api.model.PairingSystem;
+import com.api.model.Result;
+import com.api.repository.MatchRepository;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentUserRepository;
+import com.util.TestEntityGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArenaServiceTest {
+
+    @InjectMocks
+    private ArenaService arenaService;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private TournamentUserRepository tournamentUserRepository;
+
+    @Mock
+    private ScheduleWriter scheduleWriter;
+
+    @Captor
+    private ArgumentCaptor<List<MatchPlan>> matchesCaptor;
+
+    @Test
+    public void matchEndedPairsPlayersWithWaitingOpponents() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPairingSystem(PairingSystem.ARENA);
+        List<Player> players = TestEntityGenerator.generatePlayerList(5);
+        tournament.setPlayers(players);
+        Round arenaRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        arenaRound.setId(7);
+        tournament.setCurrentRound(arenaRound);
+
+        List<TournamentUser> tournamentUsers = players.stream()
+                .map(player -> TestEntityGenerator.generateTournamentUser(player, tournament))
+                .collect(Collectors.toList());
+        tournamentUsers.get(0).setScore(1);
+        tournamentUsers.get(4).setScore(1);
+
+        Match settled = generateMatch(tournament, players.get(0), players.get(1));
+        Match ongoing = generateMatch(tournament, players.get(2), players.get(3));
+
+        when(matchRepository.findAllByTournamentAndState(tournament, GameState.ACTIVE)).thenReturn(Collections.singletonList(ongoing));
+        when(tournamentUserRepository.findUserByTournament(tournament)).thenReturn(tournamentUsers);
+        when(tournamentUserRepository.findById(any())).thenAnswer(invocation -> tournamentUsers.stream()
+                .filter(tournamentUser -> tournamentUser.getTournamentUserId().equals(invocation.getArgument(0)))
+                .findFirst());
+
+        //when
+        arenaService.matchEnded(settled);
+        arenaService.flush();
+
+        //then
+        verify(scheduleWriter).writeMatches(eq(tournament), eq(7), matchesCaptor.capture());
+        List<MatchPlan> written = matchesCaptor.getValue();
+
+        assertThat(written.size()).isEqualTo(1);
+        assertThat(written.get(0).getFirstPlayer()).isEqualTo(players.get(4));
+        assertThat(written.get(0).getSecondPlayer()).isEqualTo(players.get(0));
+        assertThat(written.get(0).getState()).isEqualTo(GameState.ACTIVE);
+    }
+
+    @Test
+    public void flushDropsMatchesThatCannotBeWrittenAndRequeuesTheirPlayers() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPairingSystem(PairingSystem.ARENA);
+        List<Player> players = TestEntityGenerator.generatePlayerList(5);
+        tournament.setPlayers(players);
+        Round arenaRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        arenaRound.setId(7);
+        tournament.setCurrentRound(arenaRound);
+
+        List<TournamentUser> tournamentUsers = players.stream()
+                .map(player -> TestEntityGenerator.generateTournamentUser(player, tournament))
+                .collect(Collectors.toList());
+
+        Match settled = generateMatch(tournament, players.get(0), players.get(1));
+        Match ongoing = generateMatch(tournament, players.get(2), players.get(3));
+
+        when(matchRepository.findAllByTournamentAndState(tournament, GameState.ACTIVE)).thenReturn(Collections.singletonList(ongoing));
+        when(tournamentUserRepository.findUserByTournament(tournament)).thenReturn(tournamentUsers);
+        when(tournamentUserRepository.findById(any())).thenAnswer(invocation -> tournamentUsers.stream()
+                .filter(tournamentUser -> tournamentUser.getTournamentUserId().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(scheduleWriter.writeMatches(eq(tournament), eq(7), any()))
+                .thenThrow(new IllegalStateException("duplicate pair"))
+                .thenThrow(new IllegalStateException("duplicate pair"))
+                .thenReturn(1L);
+
+        //when
+        arenaService.matchEnded(settled);
+        arenaService.flush();
+        arenaService.flush();
+        arenaService.flush();
+
+        //then the failed match is written once as part of its batch and once alone, then its players are paired again
+        verify(scheduleWriter, times(3)).writeMatches(eq(tournament), eq(7), matchesCaptor.capture());
+        List<List<MatchPlan>> writes = matchesCaptor.getAllValues();
+
+        assertThat(writes.get(0)).hasSize(1);
+        assertThat(writes.get(1)).containsExactlyElementsOf(writes.get(0));
+        assertThat(writes.get(2)).hasSize(1);
+        assertThat(writes.get(2).get(0).getFirstPlayer()).isEqualTo(players.get(1));
+        assertThat(writes.get(2).get(0).getSecondPlayer()).isEqualTo(players.get(4));
+    }
+
+    @Test
+    public void matchEndedIgnoresOtherFormats() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPairingSystem(PairingSystem.SWISS);
+        List<Player> players = TestEntityGenerator.generatePlayerList(2);
+        Match settled = generateMatch(tournament, players.get(0), players.get(1));
+
+        //when
+        arenaService.matchEnded(settled);
+        arenaService.flush();
+
+        //then
+        verifyNoInteractions(matchRepository, tournamentUserRepository, scheduleWriter);
+    }
+
+    private static Match generateMatch(Tournament tournament, Player firstPlayer, Player secondPlayer) {
+        MatchResult matchResult = TestEntityGenerator.generateMatchResult(Result.FIRST);
+        matchResult.setFirstPlayer(firstPlayer);
+        matchResult.setSecondPlayer(secondPlayer);
+
+        Match match = TestEntityGenerator.generateMatch(GameState.ENDED);
+        match.setTournament(tournament);
+        match.setMatchResult(matchResult);
+        return match;
+    }
+}
@@ -0,0 +1,80 @@
+package com.api.service;
+
+import com.api.entities.HeadToHead;
+import com.api.entities.HeadToHeadKey;
+import com.api.entities.Player;
+import com.api.model.Result;
+import com.api.output.HeadToHeadJSON;
+import com.api.repository.HeadToHeadRepository;
+import com.api.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class HeadToHeadServiceTest {
+
+    @InjectMocks
+    private HeadToHeadService headToHeadService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HeadToHeadRepository headToHeadRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Test
+    public void gamePlayedCountsWinOfHigherPlayer() {
+
+        //when
+        headToHeadService.gamePlayed(9, 4, Result.FIRST);
+
+        //then
+        verify(jdbcTemplate).update(anyString(), eq(4), eq(9), eq(0), eq(1), eq(0), any());
+    }
+
+    @Test
+    public void getHeadToHeadFromFirstPlayerPointOfView() {
+
+        //given
+        when(playerRepository.findByUserKey("first")).thenReturn(Optional.of(player(9)));
+        when(playerRepository.findByUserKey("second")).thenReturn(Optional.of(player(4)));
+        when(headToHeadRepository.findById(HeadToHeadKey.of(9, 4))).thenReturn(Optional.of(HeadToHead.builder()
+                .id(HeadToHeadKey.of(4, 9))
+                .games(5)
+                .lowerPlayerWins(3)
+                .higherPlayerWins(1)
+                .draws(1)
+                .build()));
+
+        //when
+        HeadToHeadJSON headToHead = headToHeadService.getHeadToHead("first", "second");
+
+        //then
+        assertThat(headToHead.getGames()).isEqualTo(5);
+        assertThat(headToHead.getFirstPlayerWins()).isEqualTo(1);
+        assertThat(headToHead.getSecondPlayerWins()).isEqualTo(3);
+        assertThat(headToHead.getDraws()).isEqualTo(1);
+    }
+
+    private static Player player(int id) {
+        Player player = new Player();
+        player.setId(id);
+        return player;
+    }
+}
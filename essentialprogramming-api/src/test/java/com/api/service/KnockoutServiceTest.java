@@ -0,0 +1,252 @@
+package com.api.service;
+
+import com.api.entities.*;
+import com.api.model.BracketEntry;
+import com.api.model.GameState;
+import com.api.model.MatchPlan;
+import com.api.model.PairingSystem;
+import com.api.model.Result;
+import com.api.model.RoundPlan;
+import com.api.pairing.KnockoutStrategy;
+import com.api.pairing.PairingHistory;
+import com.api.pairing.RoundPairings;
+import com.api.repository.MatchRepository;
+import com.api.repository.PlayerRepository;
+import com.api.repository.RoundRepository;
+import com.api.repository.TournamentRepository;
+import com.util.TestEntityGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KnockoutServiceTest {
+
+    @InjectMocks
+    private KnockoutService knockoutService;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private RoundRepository roundRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private ScheduleWriter scheduleWriter;
+
+    @Captor
+    private ArgumentCaptor<List<MatchPlan>> matchesCaptor;
+
+    @Test
+    public void matchEndedPairsWinnersInNextSlot() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        List<Player> players = TestEntityGenerator.generatePlayerList(4);
+        Round firstRound = generateRound(tournament, 1, 11);
+        Round secondRound = generateRound(tournament, 2, 12);
+        Match settled = generateMatch(tournament, firstRound, 3, players.get(2), players.get(3), Result.SECOND);
+        BracketEntry otherMatch = new BracketEntry(GameState.ENDED, Result.FIRST, players.get(0).getId(), players.get(1).getId());
+
+        when(matchRepository.findBracketEntry(firstRound, 2)).thenReturn(Optional.of(otherMatch));
+        when(roundRepository.findByTournamentAndNumber(tournament, 2)).thenReturn(Optional.of(secondRound));
+        when(playerRepository.getOne(anyInt())).thenAnswer(invocation -> players.stream()
+                .filter(player -> player.getId() == (int) invocation.getArgument(0))
+                .findFirst()
+                .orElse(null));
+
+        //when
+        knockoutService.matchEnded(settled);
+
+        //then
+        verify(matchRepository).lockBracketSlot(11, 2);
+        verify(scheduleWriter).writeMatches(eq(tournament), eq(12), matchesCaptor.capture());
+        MatchPlan nextMatch = matchesCaptor.getValue().get(0);
+
+        assertThat(nextMatch.getBracketSlot()).isEqualTo(1);
+        assertThat(nextMatch.getFirstPlayer()).isEqualTo(players.get(0));
+        assertThat(nextMatch.getSecondPlayer()).isEqualTo(players.get(3));
+        assertThat(nextMatch.getState()).isEqualTo(GameState.ACTIVE);
+    }
+
+    @Test
+    public void matchEndedWaitsForOtherMatchOfPair() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        List<Player> players = TestEntityGenerator.generatePlayerList(4);
+        Round firstRound = generateRound(tournament, 1, 11);
+        Match settled = generateMatch(tournament, firstRound, 2, players.get(0), players.get(1), Result.FIRST);
+        BracketEntry otherMatch = new BracketEntry(GameState.ACTIVE, null, players.get(2).getId(), players.get(3).getId());
+
+        when(matchRepository.findBracketEntry(firstRound, 3)).thenReturn(Optional.of(otherMatch));
+
+        //when
+        knockoutService.matchEnded(settled);
+
+        //then
+        verify(matchRepository).lockBracketSlot(11, 2);
+        verify(scheduleWriter, never()).writeMatches(any(), anyInt(), any());
+        verifyNoInteractions(roundRepository);
+    }
+
+    @Test
+    public void firstRoundWrittenPairsPlayersOfTwoByesOfFivePlayers() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        List<Player> players = TestEntityGenerator.generatePlayerList(5);
+        RoundPlan firstRound = planFirstRound(players);
+        Round secondRound = generateRound(tournament, 2, 12);
+
+        when(roundRepository.findByTournamentAndNumber(tournament, 2)).thenReturn(Optional.of(secondRound));
+
+        //when
+        knockoutService.firstRoundWritten(tournament, firstRound);
+
+        //then
+        verify(scheduleWriter).writeMatches(eq(tournament), eq(12), matchesCaptor.capture());
+        List<MatchPlan> nextMatches = matchesCaptor.getValue();
+
+        assertThat(nextMatches).extracting(MatchPlan::getBracketSlot).containsExactly(3);
+        assertThat(nextMatches.get(0).getFirstPlayer()).isEqualTo(players.get(1));
+        assertThat(nextMatches.get(0).getSecondPlayer()).isEqualTo(players.get(2));
+        assertThat(nextMatches.get(0).getState()).isEqualTo(GameState.ACTIVE);
+    }
+
+    @Test
+    public void firstRoundWrittenPairsPlayersOfTwoByesOfNinePlayers() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        List<Player> players = TestEntityGenerator.generatePlayerList(9);
+        RoundPlan firstRound = planFirstRound(players);
+        Round secondRound = generateRound(tournament, 2, 12);
+
+        when(roundRepository.findByTournamentAndNumber(tournament, 2)).thenReturn(Optional.of(secondRound));
+
+        //when
+        knockoutService.firstRoundWritten(tournament, firstRound);
+
+        //then
+        verify(scheduleWriter).writeMatches(eq(tournament), eq(12), matchesCaptor.capture());
+        List<MatchPlan> nextMatches = matchesCaptor.getValue();
+
+        assertThat(nextMatches).extracting(MatchPlan::getBracketSlot).containsExactly(5, 6, 7);
+        assertThat(nextMatches).extracting(MatchPlan::getFirstPlayer)
+                .containsExactly(players.get(3), players.get(1), players.get(2));
+        assertThat(nextMatches).extracting(MatchPlan::getSecondPlayer)
+                .containsExactly(players.get(4), players.get(6), players.get(5));
+    }
+
+    @Test
+    public void firstRoundWrittenWaitsForPlayedMatchesOfFullBracket() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        RoundPlan firstRound = planFirstRound(TestEntityGenerator.generatePlayerList(6));
+
+        //when
+        knockoutService.firstRoundWritten(tournament, firstRound);
+
+        //then
+        verifyNoInteractions(scheduleWriter, roundRepository);
+    }
+
+    @Test
+    public void checkResultFailForDraws() {
+
+        //given
+        Tournament tournament = generateKnockout();
+        List<Player> players = TestEntityGenerator.generatePlayerList(2);
+        Match match = generateMatch(tournament, generateRound(tournament, 1, 11), 1, players.get(0), players.get(1), null);
+
+        //when
+        Throwable throwable = catchThrowable(() -> knockoutService.checkResult(match, Result.DRAW));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class);
+        assertThat(((HttpClientErrorException) throwable).getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Pairs the first round of the players, seeded in list order.
+     */
+    private static RoundPlan planFirstRound(List<Player> players) {
+        PairingHistory history = new PairingHistory(players.size());
+        for (int player = 0; player < players.size(); player++) {
+            history.setRating(player, 2000 - player);
+        }
+        RoundPairings pairings = new KnockoutStrategy().pair(history, 0);
+
+        RoundPlan round = RoundPlan.builder().number(1).state(GameState.ACTIVE).build();
+        for (int bye = 0; bye < pairings.getByes().length; bye++) {
+            round.getMatches().add(MatchPlan.builder()
+                    .firstPlayer(players.get(pairings.getByes()[bye]))
+                    .bye(true)
+                    .result(Result.FIRST)
+                    .state(GameState.ENDED)
+                    .bracketSlot(pairings.getByeSlot(bye))
+                    .build());
+        }
+        for (int board = 0; board < pairings.getBoards(); board++) {
+            round.getMatches().add(MatchPlan.builder()
+                    .firstPlayer(players.get(pairings.getWhite(board)))
+                    .secondPlayer(players.get(pairings.getBlack(board)))
+                    .state(GameState.ACTIVE)
+                    .bracketSlot(pairings.getBoardSlot(board))
+                    .build());
+        }
+        return round;
+    }
+
+    private static Tournament generateKnockout() {
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPairingSystem(PairingSystem.KNOCKOUT);
+        return tournament;
+    }
+
+    private static Round generateRound(Tournament tournament, int number, int id) {
+        Round round = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        round.setId(id);
+        round.setNumber(number);
+        round.setTournament(tournament);
+        return round;
+    }
+
+    private static Match generateMatch(Tournament tournament, Round round, int bracketSlot,
+                                       Player firstPlayer, Player secondPlayer, Result result) {
+        MatchResult matchResult = TestEntityGenerator.generateMatchResult(result);
+        matchResult.setFirstPlayer(firstPlayer);
+        matchResult.setSecondPlayer(secondPlayer);
+
+        Match match = TestEntityGenerator.generateMatch(GameState.ENDED);
+        match.setTournament(tournament);
+        match.setRound(round);
+        match.setBracketSlot(bracketSlot);
+        match.setMatchResult(matchResult);
+        return match;
+    }
+}
@@ -0,0 +1,168 @@
+package com.api.service;
+
+import com.api.leaderboard.LeaderboardEntry;
+import com.api.model.PlayerScore;
+import com.api.output.LeaderboardPageJSON;
+import com.api.output.PlayerJSON;
+import com.api.repository.MatchRepository;
+import com.api.repository.PlayerRepository;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentUserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderboardServiceTest {
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private TournamentUserRepository tournamentUserRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Test
+    public void getOverallLeaderboardPagesAfterCursor() {
+
+        //given
+        List<LeaderboardEntry> players = generatePlayers(300);
+
+        when(playerRepository.findOverallLeaderboard(any())).thenAnswer(invocation -> page(players, 0, invocation.getArgument(0)));
+        when(playerRepository.findOverallLeaderboardAfter(anyDouble(), anyInt(), any())).thenAnswer(invocation -> {
+            double score = invocation.getArgument(0);
+            int id = invocation.getArgument(1);
+            int from = 0;
+            while (players.get(from).getScore() > score || (players.get(from).getScore() == score && players.get(from).getPlayerId() <= id)) {
+                from++;
+            }
+            return page(players, from, invocation.getArgument(2));
+        });
+
+        //when
+        List<String> playerKeys = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LeaderboardPageJSON page = leaderboardService.getOverallLeaderboard(cursor, 70);
+            page.getPlayers().stream().map(PlayerJSON::getPlayerKey).forEach(playerKeys::add);
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        //then
+        assertThat(pages).isEqualTo(5);
+        assertThat(playerKeys).containsExactlyElementsOf(players.stream().map(LeaderboardEntry::getPlayerKey).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void getOverallLeaderboardServesFirstPageFromCache() {
+
+        //given
+        List<LeaderboardEntry> players = generatePlayers(300);
+
+        when(playerRepository.findOverallLeaderboard(any())).thenAnswer(invocation -> page(players, 0, invocation.getArgument(0)));
+
+        //when
+        leaderboardService.getOverallLeaderboard(null, 10);
+        LeaderboardPageJSON page = leaderboardService.getOverallLeaderboard(null, 20);
+
+        //then
+        verify(playerRepository, times(1)).findOverallLeaderboard(any());
+        assertThat(page.getPlayers()).hasSize(20);
+        assertThat(page.getNext()).isNotNull();
+    }
+
+    @Test
+    public void scoresChangedDropsCacheOnlyAcrossBoundary() {
+
+        //given
+        List<LeaderboardEntry> players = generatePlayers(300);
+        LeaderboardEntry last = players.get(99);
+
+        when(playerRepository.findOverallLeaderboard(any())).thenAnswer(invocation -> page(players, 0, invocation.getArgument(0)));
+        leaderboardService.getOverallLeaderboard(null, null);
+
+        //when
+        leaderboardService.scoresChanged(1, Collections.singletonList(score(players.get(200).getPlayerId(), last.getScore() - 0.5)));
+        leaderboardService.getOverallLeaderboard(null, null);
+        leaderboardService.scoresChanged(1, Collections.singletonList(score(players.get(200).getPlayerId(), last.getScore() + 0.5)));
+        leaderboardService.getOverallLeaderboard(null, null);
+
+        //then
+        verify(playerRepository, times(2)).findOverallLeaderboard(any());
+    }
+
+    @Test
+    public void getOverallLeaderboardFailInvalidCursor() {
+
+        //when
+        Throwable throwable = catchThrowable(() -> leaderboardService.getOverallLeaderboard("not a cursor", null));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class);
+        assertThat(((HttpClientErrorException) throwable).getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Players ordered as the database returns them, with ties on score.
+     */
+    private static List<LeaderboardEntry> generatePlayers(int count) {
+        List<LeaderboardEntry> players = new ArrayList<>(count);
+        for (int player = 0; player < count; player++) {
+            players.add(new LeaderboardEntry(player + 1, "player-" + (player + 1), "player" + (player + 1) + "@mail.com",
+                    "First", "Last", (count - player) / 3 * 0.5));
+        }
+        return players;
+    }
+
+    private static List<LeaderboardEntry> page(List<LeaderboardEntry> players, int from, Pageable pageable) {
+        return new ArrayList<>(players.subList(from, Math.min(players.size(), from + pageable.getPageSize())));
+    }
+
+    private static PlayerScore score(int playerId, double overallScore) {
+        return new PlayerScore() {
+            @Override
+            public int getPlayerId() {
+                return playerId;
+            }
+
+            @Override
+            public double getScore() {
+                return overallScore;
+            }
+
+            @Override
+            public double getOverallScore() {
+                return overallScore;
+            }
+        };
+    }
+}
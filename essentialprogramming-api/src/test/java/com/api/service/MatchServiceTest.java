@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.security.GeneralSecurityException;
@@ -20,6 +21,12 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +41,15 @@ public class MatchServiceTest {
     @Mock
     private ResultService resultService;
 
+    @Mock
+    private ArenaService arenaService;
+
+    @Mock
+    private KnockoutService knockoutService;
+
+    @Mock
+    private TournamentStateService tournamentStateService;
+
     @Mock
     private MatchRepository matchRepository;
 
@@ -94,7 +110,7 @@ public class MatchServiceTest {
         match.getMatchResult().setResult(null);
 
         when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
-        when(roundRepository.findByRoundKey(match.getRound().getRoundKey())).thenReturn(Optional.of(match.getRound()));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.singletonList(0));
         when(tournamentService.roundFinished(match.getRound())).thenReturn(true);
 
         //when
@@ -105,6 +121,65 @@ public class MatchServiceTest {
         assertThat(result.getState()).isEqualTo(GameState.ENDED.toString());
     }
 
+    @Test
+    public void reportMatchByRefereeSwitchesRoundOnLastMatch() throws JsonProcessingException {
+
+        //given
+        match.getMatchResult().setResult(null);
+        match.getRound().setState(GameState.ACTIVE);
+
+        when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.singletonList(0));
+        when(tournamentService.roundFinished(match.getRound())).thenReturn(true);
+
+        //when
+        matchService.reportMatchByReferee(match.getMatchKey(), Result.FIRST.getValue());
+
+        //then
+        assertThat(match.getRound().getPendingMatches()).isZero();
+        verify(tournamentService, times(1)).advanceRound(match.getTournament().getTournamentKey());
+    }
+
+    @Test
+    public void reportMatchByRefereeKeepsResultWhenNextRoundFails() throws JsonProcessingException {
+
+        //given
+        match.getMatchResult().setResult(null);
+        match.getRound().setState(GameState.ACTIVE);
+
+        when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.singletonList(0));
+        when(tournamentService.roundFinished(match.getRound())).thenReturn(true);
+        when(tournamentService.advanceRound(match.getTournament().getTournamentKey()))
+                .thenThrow(new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY, "No more rounds can be paired!"));
+
+        //when
+        MatchJSON result = matchService.reportMatchByReferee(match.getMatchKey(), Result.FIRST.getValue());
+
+        //then
+        assertThat(result.getState()).isEqualTo(GameState.ENDED.toString());
+        verify(resultService).applyResults(eq(match.getId()), anyInt(), anyInt(), eq(Result.FIRST), anyInt());
+    }
+
+    @Test
+    public void reportMatchByRefereeFailMatchEndedConcurrently() {
+
+        //given
+        match.getMatchResult().setResult(null);
+        match.getRound().setState(GameState.ACTIVE);
+
+        when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.emptyList());
+
+        //when
+        Throwable throwable = catchThrowable(() -> matchService.reportMatchByReferee(match.getMatchKey(), Result.FIRST.getValue()));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 This match ended, cannot report a new result!");
+        verify(resultService, never()).applyResults(anyInt(), anyInt(), anyInt(), any(), anyInt());
+        verify(tournamentService, never()).advanceRound(any());
+    }
+
     @Test
     public void firstResultReportSuccessfully() throws GeneralSecurityException, JsonProcessingException {
 
@@ -150,6 +225,7 @@ public class MatchServiceTest {
         when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
         when(playerRepository.findByUserKey(match.getMatchResult().getSecondPlayer().getUserKey()))
                 .thenReturn(Optional.of(match.getMatchResult().getSecondPlayer()));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.singletonList(1));
 
         //when
         MatchJSON result = matchService.reportMatchByPlayer(match.getMatchResult().getSecondPlayer().getUserKey(), match.getMatchKey(), Result.SECOND.getValue());
@@ -234,6 +310,7 @@ public class MatchServiceTest {
         when(matchRepository.findByMatchKey(match.getMatchKey())).thenReturn(Optional.of(match));
         when(playerRepository.findByUserKey(match.getMatchResult().getFirstPlayer().getUserKey()))
                 .thenReturn(Optional.of(match.getMatchResult().getFirstPlayer()));
+        when(roundRepository.endMatch(match.getId())).thenReturn(Collections.singletonList(1));
 
         //when
         MatchJSON result = matchService.reportMatchByPlayer(match.getMatchResult().getFirstPlayer().getUserKey(), match.getMatchKey(), Result.FIRST.getValue());
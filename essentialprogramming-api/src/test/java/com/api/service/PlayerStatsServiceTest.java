@@ -0,0 +1,76 @@
+package com.api.service;
+
+import com.api.entities.Player;
+import com.api.model.MatchPlan;
+import com.api.model.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PlayerStatsServiceTest {
+
+    @InjectMocks
+    private PlayerStatsService playerStatsService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void matchesScheduledCountsMatchesPerPlayerInIdOrder() {
+
+        //given
+        List<MatchPlan> matches = Arrays.asList(
+                MatchPlan.builder().firstPlayer(player(5)).secondPlayer(player(2)).build(),
+                MatchPlan.builder().firstPlayer(player(2)).secondPlayer(player(9)).build(),
+                MatchPlan.builder().firstPlayer(player(7)).bye(true).build());
+
+        //when
+        playerStatsService.matchesScheduled(matches);
+
+        //then
+        ArgumentCaptor<Collection<Object[]>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), any());
+        assertThat(new ArrayList<>(rows.getValue())).containsExactly(
+                new Object[]{2, 2}, new Object[]{5, 1}, new Object[]{9, 1});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void gamePlayedCountsWinAndLossInIdOrder() {
+
+        //when
+        playerStatsService.gamePlayed(8, 3, Result.FIRST);
+
+        //then
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[0], row -> row[1], row -> row[2], row -> row[3])
+                .containsExactly(
+                        tuple(3, 0, 0, 1),
+                        tuple(8, 1, 0, 0));
+    }
+
+    private static Player player(int id) {
+        Player player = new Player();
+        player.setId(id);
+        return player;
+    }
+}
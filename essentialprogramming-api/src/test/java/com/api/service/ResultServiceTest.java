@@ -1,9 +1,10 @@
 package com.api.service;
 
 import com.api.entities.*;
+import com.api.model.GameResult;
 import com.api.model.GameState;
+import com.api.model.PlayerScore;
 import com.api.model.Result;
-import com.api.repository.PlayerRepository;
 import com.api.repository.TournamentUserRepository;
 import com.util.TestEntityGenerator;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +13,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.doNothing;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,11 +36,20 @@ public class ResultServiceTest {
     private ResultService resultService;
 
     @Mock
-    private PlayerRepository playerRepository;
+    private PlayerStatsService playerStatsService;
+
+    @Mock
+    private HeadToHeadService headToHeadService;
 
     @Mock
     private TournamentUserRepository tournamentUserRepository;
 
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private RatingService ratingService;
+
     private Match match;
 
     @BeforeEach
@@ -42,6 +61,8 @@ public class ResultServiceTest {
         MatchResult matchResult = TestEntityGenerator.generateMatchResult(Result.FIRST);
         Player firstPlayer = TestEntityGenerator.generatePlayer(false, true, true);
         Player secondPlayer = TestEntityGenerator.generatePlayer(false, true, true);
+        firstPlayer.setId(3);
+        secondPlayer.setId(7);
         match.setRound(round);
         match.setTournament(tournament);
         match.setMatchResult(matchResult);
@@ -53,104 +74,108 @@ public class ResultServiceTest {
     public void testApplyResultsSuccessfullyResultDraw() {
 
         //given
-        TournamentUser firstPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getFirstPlayer(), match.getTournament());
-        TournamentUser secondPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getSecondPlayer(), match.getTournament());
+        int tournamentId = match.getTournament().getId();
 
-        double firstPlayerScoreBeforeResult = match.getMatchResult().getFirstPlayer().getScore();
-        double secondPlayerScoreBeforeResult = match.getMatchResult().getSecondPlayer().getScore();
+        List<PlayerScore> scores = Arrays.asList(score(3, 0.5), score(7, 0.5));
 
-        double firstPlayerScoreInTournament = firstPlayerInTournament.getScore();
-        double secondPlayerScoreInTournament = secondPlayerInTournament.getScore();
-
-        when(playerRepository.findById(match.getMatchResult().getFirstPlayer().getId()))
-                .thenReturn(Optional.of(match.getMatchResult().getFirstPlayer()));
-        when(playerRepository.findById(match.getMatchResult().getSecondPlayer().getId())).
-                thenReturn(Optional.of(match.getMatchResult().getSecondPlayer()));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getFirstPlayer().getId())))
-                .thenReturn(Optional.of(firstPlayerInTournament));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getSecondPlayer().getId())))
-                .thenReturn(Optional.of(secondPlayerInTournament));
+        when(tournamentUserRepository.addScores(tournamentId, 3, 0.5, 7, 0.5)).thenReturn(scores);
 
         //when
-        resultService.applyResults(firstPlayerInTournament.getUser().getId(),
-                secondPlayerInTournament.getUser().getId(),
-                Result.DRAW,
-                firstPlayerInTournament.getTournament().getId());
+        resultService.applyResults(match.getId(), 3, 7, Result.DRAW, tournamentId);
 
         //then
-        assertThat(match.getMatchResult().getFirstPlayer().getScore()).isEqualTo(firstPlayerScoreBeforeResult + 0.5);
-        assertThat(match.getMatchResult().getSecondPlayer().getScore()).isEqualTo(secondPlayerScoreBeforeResult + 0.5);
-        assertThat(firstPlayerInTournament.getScore()).isEqualTo(firstPlayerScoreInTournament + 0.5);
-        assertThat(secondPlayerInTournament.getScore()).isEqualTo(secondPlayerScoreInTournament + 0.5);
+        verify(tournamentUserRepository).lockPlayers(3, 7);
+        verify(tournamentUserRepository).addScores(tournamentId, 3, 0.5, 7, 0.5);
+        verify(leaderboardService).resultApplied(eq(tournamentId), any(GameResult.class), eq(scores));
     }
 
     @Test
     public void testApplyResultsSuccessfullyResultFirst() {
 
         //given
-        TournamentUser firstPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getFirstPlayer(), match.getTournament());
-        TournamentUser secondPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getSecondPlayer(), match.getTournament());
-
-        double firstPlayerScoreBeforeResult = match.getMatchResult().getFirstPlayer().getScore();
-        double secondPlayerScoreBeforeResult = match.getMatchResult().getSecondPlayer().getScore();
+        int tournamentId = match.getTournament().getId();
 
-        double firstPlayerScoreInTournament = firstPlayerInTournament.getScore();
-        double secondPlayerScoreInTournament = secondPlayerInTournament.getScore();
+        List<PlayerScore> scores = Arrays.asList(score(3, 0), score(7, 1));
 
-        when(playerRepository.findById(match.getMatchResult().getFirstPlayer().getId()))
-                .thenReturn(Optional.of(match.getMatchResult().getFirstPlayer()));
-        when(playerRepository.findById(match.getMatchResult().getSecondPlayer().getId())).
-                thenReturn(Optional.of(match.getMatchResult().getSecondPlayer()));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getFirstPlayer().getId())))
-                .thenReturn(Optional.of(firstPlayerInTournament));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getSecondPlayer().getId())))
-                .thenReturn(Optional.of(secondPlayerInTournament));
+        when(tournamentUserRepository.addScores(tournamentId, 7, 1, 3, 0)).thenReturn(scores);
 
         //when
-        resultService.applyResults(firstPlayerInTournament.getUser().getId(),
-                secondPlayerInTournament.getUser().getId(),
-                Result.FIRST,
-                firstPlayerInTournament.getTournament().getId());
+        resultService.applyResults(match.getId(), 7, 3, Result.FIRST, tournamentId);
 
         //then
-        assertThat(match.getMatchResult().getFirstPlayer().getScore()).isEqualTo(firstPlayerScoreBeforeResult + 1);
-        assertThat(match.getMatchResult().getSecondPlayer().getScore()).isEqualTo(secondPlayerScoreBeforeResult);
-        assertThat(firstPlayerInTournament.getScore()).isEqualTo(firstPlayerScoreInTournament + 1);
-        assertThat(secondPlayerInTournament.getScore()).isEqualTo(secondPlayerScoreInTournament);
+        verify(tournamentUserRepository).lockPlayers(7, 3);
+        verify(tournamentUserRepository).addScores(tournamentId, 7, 1, 3, 0);
+        verify(leaderboardService).resultApplied(eq(tournamentId), any(GameResult.class), eq(scores));
     }
 
     @Test
     public void testApplyResultsSuccessfullyResultSecond() {
 
         //given
-        TournamentUser firstPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getFirstPlayer(), match.getTournament());
-        TournamentUser secondPlayerInTournament = TestEntityGenerator.generateTournamentUser(match.getMatchResult().getSecondPlayer(), match.getTournament());
+        int tournamentId = match.getTournament().getId();
+
+        List<PlayerScore> scores = Arrays.asList(score(3, 0), score(7, 1));
+
+        when(tournamentUserRepository.addScores(tournamentId, 3, 0, 7, 1)).thenReturn(scores);
+
+        //when
+        resultService.applyResults(match.getId(), 3, 7, Result.SECOND, tournamentId);
+
+        //then
+        verify(tournamentUserRepository).addScores(tournamentId, 3, 0, 7, 1);
+        verify(leaderboardService).resultApplied(eq(tournamentId), any(GameResult.class), eq(scores));
+    }
+
+    @Test
+    public void testApplyResultsFailPlayerNotInTournament() {
+
+        //given
+        int tournamentId = match.getTournament().getId();
 
-        double firstPlayerScoreBeforeResult = match.getMatchResult().getFirstPlayer().getScore();
-        double secondPlayerScoreBeforeResult = match.getMatchResult().getSecondPlayer().getScore();
+        when(tournamentUserRepository.addScores(eq(tournamentId), anyInt(), anyDouble(), anyInt(), anyDouble())).thenReturn(Collections.singletonList(score(3, 1)));
 
-        double firstPlayerScoreInTournament = firstPlayerInTournament.getScore();
-        double secondPlayerScoreInTournament = secondPlayerInTournament.getScore();
+        //when
+        Throwable throwable = catchThrowable(() -> resultService.applyResults(match.getId(), 3, 7, Result.FIRST, tournamentId));
 
-        when(playerRepository.findById(match.getMatchResult().getFirstPlayer().getId()))
-                .thenReturn(Optional.of(match.getMatchResult().getFirstPlayer()));
-        when(playerRepository.findById(match.getMatchResult().getSecondPlayer().getId())).
-                thenReturn(Optional.of(match.getMatchResult().getSecondPlayer()));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getFirstPlayer().getId())))
-                .thenReturn(Optional.of(firstPlayerInTournament));
-        when(tournamentUserRepository.findById(new TournamentUserKey(match.getTournament().getId(), match.getMatchResult().getSecondPlayer().getId())))
-                .thenReturn(Optional.of(secondPlayerInTournament));
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class);
+        assertThat(((HttpClientErrorException) throwable).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void testApplyResultForByeSuccessfully() {
+
+        //given
+        int tournamentId = match.getTournament().getId();
+
+        List<PlayerScore> scores = Collections.singletonList(score(3, 1));
+
+        when(tournamentUserRepository.addScore(tournamentId, 3, 1)).thenReturn(scores);
 
         //when
-        resultService.applyResults(firstPlayerInTournament.getUser().getId(),
-                secondPlayerInTournament.getUser().getId(),
-                Result.SECOND,
-                firstPlayerInTournament.getTournament().getId());
+        resultService.applyResultForBye(3, tournamentId);
 
         //then
-        assertThat(match.getMatchResult().getFirstPlayer().getScore()).isEqualTo(firstPlayerScoreBeforeResult);
-        assertThat(match.getMatchResult().getSecondPlayer().getScore()).isEqualTo(secondPlayerScoreBeforeResult + 1);
-        assertThat(firstPlayerInTournament.getScore()).isEqualTo(firstPlayerScoreInTournament);
-        assertThat(secondPlayerInTournament.getScore()).isEqualTo(secondPlayerScoreInTournament + 1);
+        verify(tournamentUserRepository).addScore(tournamentId, 3, 1);
+        verify(leaderboardService).scoresChanged(tournamentId, scores);
+    }
+
+    private static PlayerScore score(int playerId, double score) {
+        return new PlayerScore() {
+            @Override
+            public int getPlayerId() {
+                return playerId;
+            }
+
+            @Override
+            public double getScore() {
+                return score;
+            }
+
+            @Override
+            public double getOverallScore() {
+                return score;
+            }
+        };
     }
 }
@@ -0,0 +1,94 @@
+package com.api.service;
+
+import com.api.entities.Round;
+import com.api.entities.Tournament;
+import com.api.leaderboard.Leaderboard;
+import com.api.leaderboard.LeaderboardEntry;
+import com.api.repository.StandingsSnapshotRepository;
+import com.api.repository.TournamentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StandingsServiceTest {
+
+    @InjectMocks
+    private StandingsService standingsService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private StandingsSnapshotRepository standingsSnapshotRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void snapshotRoundWritesStandingsInRankOrder() {
+
+        //given
+        Tournament tournament = Tournament.builder().id(7).build();
+        Round round = Round.builder().id(11).number(2).build();
+        List<LeaderboardEntry> players = Arrays.asList(entry(1, 0.5), entry(2, 2), entry(3, 1));
+        when(leaderboardService.buildLeaderboard(tournament)).thenReturn(new Leaderboard(players, Collections.emptyList()));
+
+        //when
+        int written = standingsService.snapshotRound(tournament, round);
+
+        //then
+        ArgumentCaptor<Collection<Object[]>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), any());
+        List<Object[]> standings = new ArrayList<>(rows.getValue());
+        assertThat(written).isEqualTo(3);
+        assertThat(standings).extracting(row -> row[3]).containsExactly(2, 3, 1);
+        assertThat(standings).extracting(row -> row[4]).containsExactly(1, 2, 3);
+        assertThat(standings).allSatisfy(row -> assertThat(row).startsWith(7, 11, 2));
+    }
+
+    @Test
+    public void getStandingsFailForRoundWithoutSnapshot() {
+
+        //given
+        Tournament tournament = Tournament.builder().id(7).build();
+        when(tournamentRepository.findByTournamentKey("tournament")).thenReturn(Optional.of(tournament));
+        when(standingsSnapshotRepository.findStandings(tournament, 3)).thenReturn(Collections.emptyList());
+
+        //when
+        Throwable throwable = catchThrowable(() -> standingsService.getStandings("tournament", 3));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class);
+        assertThat(((HttpClientErrorException) throwable).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static LeaderboardEntry entry(int playerId, double score) {
+        return new LeaderboardEntry(playerId, "player-" + playerId, "player" + playerId + "@mail.com", "First", "Last", score);
+    }
+}
@@ -3,6 +3,8 @@ package com.api.service;
 import com.api.entities.*;
 import com.api.mapper.ParticipantStatusMapper;
 import com.api.model.*;
+import com.api.output.MatchJSON;
+import com.api.output.MatchResultJSON;
 import com.api.output.ParticipantStatusJSON;
 import com.api.output.RoundJSON;
 import com.api.entities.Schedule;
@@ -21,6 +23,9 @@ import com.util.web.JsonResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -35,6 +40,8 @@ import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,12 +55,33 @@ public class TournamentServiceTest {
     @InjectMocks
     private TournamentService tournamentService;
 
+    @Mock
+    private PlayerStatsService playerStatsService;
+
+    @Mock
+    private HeadToHeadService headToHeadService;
+
+    @Mock
+    private TournamentStateService tournamentStateService;
+
     @Mock
     private EmailManager emailManager;
 
     @Mock
     private ResultService resultService;
 
+    @Mock
+    private ArenaService arenaService;
+
+    @Mock
+    private KnockoutService knockoutService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private StandingsService standingsService;
+
     @Mock
     private UserRepository userRepository;
 
@@ -79,7 +107,13 @@ public class TournamentServiceTest {
     private RoundRepository roundRepository;
 
     @Mock
-    private MatchResultRepository matchResultRepository;
+    private TournamentStartJobRepository tournamentStartJobRepository;
+
+    @Mock
+    private ScheduleWriter scheduleWriter;
+
+    @Captor
+    private ArgumentCaptor<List<RoundPlan>> roundsCaptor;
 
     public MockedStatic<WebSocketManager> wsMockStatic;
 
@@ -399,7 +433,7 @@ public class TournamentServiceTest {
     }
 
     @Test
-    public void startTournamentSuccessfully() {
+    public void startTournamentStepWritesWholeScheduleOfSmallTournament() {
 
         //given
         Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true,
@@ -408,113 +442,242 @@ public class TournamentServiceTest {
         tournament.setPlayers(playerList);
 
         int currentPlayerSize = playerList.size();
+        int seats = currentPlayerSize + currentPlayerSize % 2;
 
-        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
-
-        when(roundRepository.save(any())).thenReturn(null);
-
-        when(matchRepository.save(any())).thenReturn(null);
+        TournamentStartJob job = generateStartJob(tournament);
 
-        when(matchPlayerRepository.save(any())).thenReturn(null);
-
-        when(matchResultRepository.save(any())).thenReturn(null);
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
+        when(roundRepository.findByTournamentAndNumber(tournament, 1)).thenReturn(Optional.of(TestEntityGenerator.generateRound(GameState.ACTIVE)));
 
         wsMockStatic = TestMockUtil.mockStaticWSM();
 
 
         //when
-        Throwable throwable = catchThrowable(() -> tournamentService.startTournament(tournament.getTournamentKey()));
+        Throwable throwable = catchThrowable(() -> tournamentService.startTournamentStep(job.getJobKey()));
 
 
         //then
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        List<RoundPlan> rounds = roundsCaptor.getValue();
+
         assertThat(throwable).isNull();
         assertThat(tournament.getCurrentRound()).isNotNull();
-        assertThat(tournament.getRounds()).isNotNull();
-        assertThat(tournament.getRounds().size()).isEqualTo(tournament.getPlayers().size() - 1);
-        assertThat(tournament.getCurrentRound().getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(tournament.getPlayers().size()).isEqualTo(currentPlayerSize);
+        assertThat(rounds.size()).isEqualTo(seats - 1);
+        assertThat(rounds.get(0).getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(rounds.get(0).getMatches().size()).isEqualTo(seats / 2);
         assertThat(tournament.isRegistrationOpen()).isEqualTo(false);
         assertThat(tournament.getState()).isEqualTo(GameState.ACTIVE);
 
         if (currentPlayerSize % 2 != 0) {
-            assertThat(tournament.getCurrentRound().getMatches().get(0).getState()).isEqualTo(GameState.ENDED);
+            MatchPlan bye = rounds.get(0).getMatches().get(0);
+            assertThat(bye.isBye()).isTrue();
+            assertThat(bye.getSecondPlayer()).isNull();
+            assertThat(bye.getResult()).isEqualTo(Result.FIRST);
+            assertThat(bye.getState()).isEqualTo(GameState.ENDED);
+            verify(resultService, times(1)).applyResultForBye(bye.getFirstPlayer().getId(), tournament.getId());
         } else {
-            assertThat(tournament.getCurrentRound().getMatches().get(0).getState()).isEqualTo(GameState.ACTIVE);
+            assertThat(rounds.get(0).getMatches().get(0).getState()).isEqualTo(GameState.ACTIVE);
         }
-        assertThat(tournament.getCurrentRound().getMatches().get(1).getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(rounds.get(0).getMatches().get(1).getState()).isEqualTo(GameState.ACTIVE);
     }
 
     @Test
-    public void startTournamentFailNoParticipants() {
+    public void startTournamentStepWithLazyRoundsWritesFirstRoundOnly() {
 
         //given
-        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true,
-                secureRandom.nextInt(MAX_PARTICIPANTS - MIN_PARTICIPANTS) + MIN_PARTICIPANTS);
-        List<Player> playerList = new ArrayList<>();
-        tournament.setPlayers(playerList);
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, MAX_PARTICIPANTS);
+        tournament.setLazyRounds(true);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(10));
 
-        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        TournamentStartJob job = generateStartJob(tournament);
+
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
+        when(roundRepository.findByTournamentAndNumber(tournament, 1)).thenReturn(Optional.of(TestEntityGenerator.generateRound(GameState.ACTIVE)));
+
+        wsMockStatic = TestMockUtil.mockStaticWSM();
 
 
         //when
-        Throwable throwable = catchThrowable(() -> tournamentService.startTournament(tournament.getTournamentKey()));
+        tournamentService.startTournamentStep(job.getJobKey());
 
 
         //then
-        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 This tournament currently has no participants!");
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        List<RoundPlan> rounds = roundsCaptor.getValue();
+
+        assertThat(rounds.size()).isEqualTo(1);
+        assertThat(rounds.get(0).getNumber()).isEqualTo(1);
+        assertThat(rounds.get(0).getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(rounds.get(0).getMatches().size()).isEqualTo(5);
+        assertThat(rounds.get(0).getMatches()).allMatch(match -> GameState.ACTIVE.equals(match.getState()));
+        assertThat(tournament.getCurrentRound()).isNotNull();
+        assertThat(tournament.getState()).isEqualTo(GameState.ACTIVE);
+    }
+
+    @Test
+    public void startTournamentStepWritesScheduleInChunks() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, false, 200);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(200));
+        TournamentStartJob job = TournamentStartJob.builder()
+                .jobKey("job key")
+                .tournament(tournament)
+                .state(JobState.PENDING)
+                .build();
+
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
+        when(roundRepository.countByTournament(tournament)).thenReturn(0L);
+
+        //when
+        TournamentStartJob result = tournamentService.startTournamentStep(job.getJobKey());
+
+        //then
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        List<RoundPlan> written = roundsCaptor.getValue();
+
+        assertThat(written.size()).isEqualTo(50);
+        assertThat(written.get(0).getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(result.getState()).isEqualTo(JobState.RUNNING);
+        assertThat(result.getTotalRounds()).isEqualTo(199);
+        assertThat(result.getRoundsWritten()).isEqualTo(50);
+        assertThat(result.getMatchesWritten()).isEqualTo(50 * 100);
+        assertThat(tournament.getState()).isEqualTo(GameState.CREATED);
         assertThat(tournament.getCurrentRound()).isNull();
-        assertThat(tournament.getState()).isNotEqualByComparingTo(GameState.ACTIVE);
     }
 
     @Test
-    public void startTournamentFailTournamentNotFound() {
+    public void startTournamentStepResumesAfterWrittenRounds() {
 
         //given
-        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true,
-                secureRandom.nextInt(MAX_PARTICIPANTS - MIN_PARTICIPANTS) + MIN_PARTICIPANTS);
-        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.empty());
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, false, 200);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(200));
+        TournamentStartJob job = TournamentStartJob.builder()
+                .jobKey("job key")
+                .tournament(tournament)
+                .state(JobState.RUNNING)
+                .roundsWritten(150)
+                .matchesWritten(150 * 100)
+                .build();
+        Round firstRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+
+        wsMockStatic = TestMockUtil.mockStaticWSM();
 
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
+        when(roundRepository.countByTournament(tournament)).thenReturn(150L);
+        when(roundRepository.findByTournamentAndNumber(tournament, 1)).thenReturn(Optional.of(firstRound));
 
         //when
-        Throwable throwable = catchThrowable(() -> tournamentService.startTournament(tournament.getTournamentKey()));
+        TournamentStartJob result = tournamentService.startTournamentStep(job.getJobKey());
+
+        //then
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        List<RoundPlan> written = roundsCaptor.getValue();
+
+        assertThat(written.size()).isEqualTo(49);
+        assertThat(written.get(0).getNumber()).isEqualTo(151);
+        assertThat(written.get(0).getState()).isEqualTo(GameState.CREATED);
+        assertThat(result.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(result.getRoundsWritten()).isEqualTo(199);
+        assertThat(result.getMatchesWritten()).isEqualTo(199 * 100);
+        assertThat(tournament.getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(tournament.isRegistrationOpen()).isFalse();
+        assertThat(tournament.getCurrentRound()).isEqualTo(firstRound);
+    }
 
+    @Test
+    public void startTournamentStepSkipsJobLockedByAnotherNode() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, false, 20);
+        TournamentStartJob job = generateStartJob(tournament);
+
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.empty());
+        when(tournamentStartJobRepository.findByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
+
+        //when
+        TournamentStartJob result = tournamentService.startTournamentStep(job.getJobKey());
 
         //then
-        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("404 Tournament not found");
+        assertThat(result).isNull();
+        verifyNoInteractions(scheduleWriter, roundRepository);
     }
 
     @Test
-    public void startTournamentFailAlreadyStarted() {
+    public void previewScheduleIsCachedUntilParticipantsChange() {
 
         //given
-        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, true,
-                secureRandom.nextInt(MAX_PARTICIPANTS - MIN_PARTICIPANTS) + MIN_PARTICIPANTS);
-        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, 20);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(7));
 
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
 
         //when
+        List<RoundJSON> preview = tournamentService.previewSchedule(tournament.getTournamentKey());
+        List<RoundJSON> cachedPreview = tournamentService.previewSchedule(tournament.getTournamentKey());
+        tournament.getPlayers().add(TestEntityGenerator.generatePlayer("late@gmail.com", "late", "player"));
+        List<RoundJSON> updatedPreview = tournamentService.previewSchedule(tournament.getTournamentKey());
+
+        //then
+        verifyNoInteractions(scheduleWriter, resultService, roundRepository);
+        assertThat(preview.size()).isEqualTo(7);
+        assertThat(preview.get(0).getMatches().size()).isEqualTo(3);
+        assertThat(preview.get(0).getRoundKey()).isNull();
+        assertThat(cachedPreview).isSameAs(preview);
+        assertThat(updatedPreview).isNotSameAs(preview);
+        assertThat(updatedPreview.size()).isEqualTo(7);
+        assertThat(updatedPreview.get(0).getMatches().size()).isEqualTo(4);
+        assertThat(tournament.getState()).isEqualTo(GameState.CREATED);
+    }
+
+    @Test
+    public void previewScheduleSeedsKnockoutByRating() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, 20);
+        tournament.setPairingSystem(PairingSystem.KNOCKOUT);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(4));
+        double[] ratings = {1500, 2100, 1800, 1200};
+        for (int player = 0; player < ratings.length; player++) {
+            tournament.getPlayers().get(player).setRating(ratings[player]);
+        }
+
         when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
-        Throwable throwable = catchThrowable(() -> tournamentService.startTournament(tournament.getTournamentKey()));
 
+        //when
+        List<RoundJSON> preview = tournamentService.previewSchedule(tournament.getTournamentKey());
 
         //then
-        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 Tournament has already started!");
+        List<MatchJSON> matches = preview.get(0).getMatches();
+        assertThat(preview.size()).isEqualTo(1);
+        assertThat(matches.get(0).getResult().getFirstPlayer().getEmail()).isEqualTo(tournament.getPlayers().get(1).getEmail());
+        assertThat(matches.get(0).getResult().getSecondPlayer().getEmail()).isEqualTo(tournament.getPlayers().get(3).getEmail());
+        assertThat(matches.get(1).getResult().getFirstPlayer().getEmail()).isEqualTo(tournament.getPlayers().get(2).getEmail());
+        assertThat(matches.get(1).getResult().getSecondPlayer().getEmail()).isEqualTo(tournament.getPlayers().get(0).getEmail());
     }
 
     @Test
-    public void startTournamentFailAlreadyEnded() {
+    public void startTournamentStepFailNoParticipants() {
 
         //given
-        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ENDED, false,
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true,
                 secureRandom.nextInt(MAX_PARTICIPANTS - MIN_PARTICIPANTS) + MIN_PARTICIPANTS);
-        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        List<Player> playerList = new ArrayList<>();
+        tournament.setPlayers(playerList);
+        TournamentStartJob job = generateStartJob(tournament);
+
+        when(tournamentStartJobRepository.lockByJobKey(job.getJobKey())).thenReturn(Optional.of(job));
 
 
         //when
-        Throwable throwable = catchThrowable(() -> tournamentService.startTournament(tournament.getTournamentKey()));
+        Throwable throwable = catchThrowable(() -> tournamentService.startTournamentStep(job.getJobKey()));
 
 
         //then
-        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 Tournament has already ended!");
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 This tournament currently has no participants!");
+        assertThat(tournament.getCurrentRound()).isNull();
+        assertThat(tournament.getState()).isNotEqualByComparingTo(GameState.ACTIVE);
     }
 
     @Test
@@ -559,6 +722,43 @@ public class TournamentServiceTest {
         assertThat(result.getMatches().size()).isEqualTo(round.getMatches().size());
     }
 
+    @Test
+    public void setRoundKeepsEndedMatchesAndCountsPendingAgain() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, true, 20);
+        Round round = TestEntityGenerator.generateRound(GameState.ENDED);
+        round.setId(11);
+        round.setNumber(1);
+        round.setTournament(tournament);
+        tournament.setCurrentRound(TestEntityGenerator.generateRound(GameState.ACTIVE));
+
+        Match endedMatch = TestEntityGenerator.generateMatch(GameState.ENDED);
+        Match pendingMatch = TestEntityGenerator.generateMatch(GameState.CREATED);
+        for (Match match : Arrays.asList(endedMatch, pendingMatch)) {
+            MatchResult matchResult = TestEntityGenerator.generateMatchResult(Result.FIRST);
+            matchResult.setFirstPlayer(TestEntityGenerator.generatePlayer(false, true, true));
+            matchResult.setSecondPlayer(TestEntityGenerator.generatePlayer(false, true, true));
+            match.setMatchResult(matchResult);
+            match.setRound(round);
+            match.setTournament(tournament);
+        }
+        round.setMatches(Arrays.asList(endedMatch, pendingMatch));
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(roundRepository.findByRoundKey(round.getRoundKey())).thenReturn(Optional.of(round));
+
+        //when
+        tournamentService.setRound(tournament.getTournamentKey(), round.getRoundKey());
+
+        //then
+        assertThat(endedMatch.getState()).isEqualTo(GameState.ENDED);
+        assertThat(pendingMatch.getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(round.getPendingMatches()).isEqualTo(1);
+        verify(matchRepository, never()).save(endedMatch);
+        verify(roundRepository).setPendingMatches(11, 1);
+    }
+
     @Test
     public void invitePlayerToTournamentSuccessfully(){
 
@@ -695,6 +895,55 @@ public class TournamentServiceTest {
         verify(tournamentRepository).findByTournamentKey(tournament.getTournamentKey());
     }
 
+    @Test
+    public void switchToNextRoundAwardsByeOfOddFieldAfterSnapshot() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        List<Player> players = TestEntityGenerator.generatePlayerList(3);
+        Map<Integer, Round> rounds = new HashMap<>();
+        for (int number = 1; number <= 3; number++) {
+            Round round = TestEntityGenerator.generateRound(number == 1 ? GameState.ACTIVE : GameState.CREATED);
+            round.setNumber(number);
+            round.setTournament(tournament);
+            rounds.put(number, round);
+        }
+
+        Match bye = TestEntityGenerator.generateMatch(GameState.ENDED);
+        bye.setBye(true);
+        bye.setMatchResult(TestEntityGenerator.generateMatchResult(Result.FIRST));
+        bye.getMatchResult().setFirstPlayer(players.get(2));
+        Match secondRoundMatch = TestEntityGenerator.generateMatch(GameState.CREATED);
+        secondRoundMatch.setMatchResult(TestEntityGenerator.generateMatchResult(null));
+        secondRoundMatch.getMatchResult().setFirstPlayer(players.get(0));
+        secondRoundMatch.getMatchResult().setSecondPlayer(players.get(1));
+        for (Match match : Arrays.asList(bye, secondRoundMatch)) {
+            match.setTournament(tournament);
+            match.setRound(rounds.get(2));
+        }
+        rounds.get(1).setMatches(new ArrayList<>());
+        rounds.get(2).setMatches(Arrays.asList(bye, secondRoundMatch));
+
+        tournament.setRounds(rounds);
+        tournament.setCurrentRound(rounds.get(1));
+
+        wsMockStatic = TestMockUtil.mockStaticWSM();
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+
+        //when
+        tournamentService.switchToNextRound(tournament.getTournamentKey());
+
+        //then
+        InOrder inOrder = inOrder(standingsService, resultService);
+        inOrder.verify(standingsService).snapshotRound(tournament, rounds.get(1));
+        inOrder.verify(resultService).applyResultForBye(players.get(2).getId(), tournament.getId());
+        assertThat(tournament.getCurrentRound()).isEqualTo(rounds.get(2));
+        assertThat(rounds.get(2).getState()).isEqualTo(GameState.ACTIVE);
+        assertThat(secondRoundMatch.getState()).isEqualTo(GameState.ACTIVE);
+        verify(tournamentStateService).stateChanged(tournament.getTournamentKey());
+    }
+
     @Test
     public void switchToNextRoundSuccessfullyFinalRound() {
 
@@ -760,6 +1009,111 @@ public class TournamentServiceTest {
         verify(tournamentRepository).findByTournamentKey(tournament.getTournamentKey());
     }
 
+    @Test
+    public void switchToNextRoundWithLazyRoundsMaterializesNextRound() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setLazyRounds(true);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(6));
+
+        Round firstRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        firstRound.setNumber(1);
+        firstRound.setTournament(tournament);
+        firstRound.setMatches(Collections.singletonList(TestEntityGenerator.generateMatch(GameState.ENDED)));
+
+        Round secondRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        secondRound.setNumber(2);
+        secondRound.setTournament(tournament);
+        secondRound.setMatches(new ArrayList<>());
+
+        Map<Integer, Round> rounds = new HashMap<>();
+        rounds.put(firstRound.getNumber(), firstRound);
+        tournament.setRounds(rounds);
+        tournament.setCurrentRound(firstRound);
+
+        wsMockStatic = TestMockUtil.mockStaticWSM();
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(roundRepository.getOne(anyInt())).thenReturn(secondRound);
+
+        //when
+        RoundJSON result = tournamentService.switchToNextRound(tournament.getTournamentKey());
+
+        //then
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        List<RoundPlan> written = roundsCaptor.getValue();
+
+        assertThat(written.size()).isEqualTo(1);
+        assertThat(written.get(0).getNumber()).isEqualTo(2);
+        assertThat(written.get(0).getMatches().size()).isEqualTo(3);
+        assertThat(written.get(0).getMatches()).allMatch(match -> GameState.ACTIVE.equals(match.getState()));
+        assertThat(firstRound.getState()).isEqualTo(GameState.ENDED);
+        assertThat(tournament.getCurrentRound()).isEqualTo(secondRound);
+        assertThat(result.getRoundKey()).isEqualTo(secondRound.getRoundKey());
+        assertThat(result.getNumber()).isEqualTo(2);
+        verify(tournamentStateService).stateChanged(tournament.getTournamentKey());
+    }
+
+    @Test
+    public void switchToNextRoundSwissPairsNextRoundFromHistory() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPairingSystem(PairingSystem.SWISS);
+        List<Player> players = TestEntityGenerator.generatePlayerList(4);
+        tournament.setPlayers(players);
+
+        Round firstRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        firstRound.setNumber(1);
+        firstRound.setTournament(tournament);
+        firstRound.setMatches(Collections.singletonList(TestEntityGenerator.generateMatch(GameState.ENDED)));
+
+        Round secondRound = TestEntityGenerator.generateRound(GameState.ACTIVE);
+        secondRound.setNumber(2);
+        secondRound.setTournament(tournament);
+        secondRound.setMatches(new ArrayList<>());
+
+        Map<Integer, Round> rounds = new HashMap<>();
+        rounds.put(firstRound.getNumber(), firstRound);
+        tournament.setRounds(rounds);
+        tournament.setCurrentRound(firstRound);
+
+        List<MatchPlayer> history = new ArrayList<>();
+        List<TournamentUser> standings = new ArrayList<>();
+        for (int i = 0; i < players.size(); i += 2) {
+            MatchPlayer matchPlayer = new MatchPlayer();
+            matchPlayer.setMatchPlayerId(new MatchPlayerKey(i, players.get(i).getId(), players.get(i + 1).getId()));
+            history.add(matchPlayer);
+
+            TournamentUser winner = TestEntityGenerator.generateTournamentUser(players.get(i), tournament);
+            winner.setScore(1);
+            standings.add(winner);
+        }
+
+        wsMockStatic = TestMockUtil.mockStaticWSM();
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(tournamentUserRepository.findUserByTournament(tournament)).thenReturn(standings);
+        when(matchPlayerRepository.findAllByTournament(tournament)).thenReturn(history);
+        when(roundRepository.getOne(anyInt())).thenReturn(secondRound);
+
+        //when
+        tournamentService.switchToNextRound(tournament.getTournamentKey());
+
+        //then
+        verify(scheduleWriter).write(eq(tournament), roundsCaptor.capture());
+        RoundPlan written = roundsCaptor.getValue().get(0);
+
+        assertThat(written.getNumber()).isEqualTo(2);
+        assertThat(written.getMatches().size()).isEqualTo(2);
+
+        Set<Player> winners = new HashSet<>(Arrays.asList(players.get(0), players.get(2)));
+        MatchPlan leaders = written.getMatches().get(0);
+        assertThat(winners).contains(leaders.getFirstPlayer(), leaders.getSecondPlayer());
+        assertThat(tournament.getCurrentRound()).isEqualTo(secondRound);
+    }
+
     @Test
     public void switchToNextRoundFailTournamentNotFound() {
 
@@ -860,6 +1214,7 @@ public class TournamentServiceTest {
         firstRound.setTournament(tournament);
         firstRound.setState(GameState.ENDED);
         firstRound.setMatches(firstRoundMatches);
+        firstRound.setPendingMatches(firstRoundMatches.size());
 
         secondRound.setTournament(tournament);
         secondRound.setState(GameState.ACTIVE);
@@ -1052,6 +1407,26 @@ public class TournamentServiceTest {
                 .hasMessage("422 Cannot change registration status for a tournament that's ongoing or finished!");
     }
 
+    @Test
+    public void setRegistrationFailTournamentBeingStarted() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, false, 20);
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(tournamentStartJobRepository.findTopByTournamentAndStateIn(eq(tournament), any()))
+                .thenReturn(Optional.of(generateStartJob(tournament)));
+
+
+        //when
+        Throwable throwable = catchThrowable(() -> tournamentService.setRegistrationStatus(tournament.getTournamentKey(), true));
+
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class)
+                .hasMessage("422 Cannot change registration status while the tournament is being started!");
+        assertThat(tournament.isRegistrationOpen()).isFalse();
+    }
+
     @Test
     public void setRegistrationFailTournamentAlreadyEnded() {
 
@@ -1192,6 +1567,14 @@ public class TournamentServiceTest {
         }
     }
 
+    private static TournamentStartJob generateStartJob(Tournament tournament) {
+        return TournamentStartJob.builder()
+                .jobKey("job key")
+                .tournament(tournament)
+                .state(JobState.PENDING)
+                .build();
+    }
+
     private List<Tournament> generateTournaments(GameState state) {
         List<Tournament> tournaments = new ArrayList<>();
 
@@ -1201,4 +1584,32 @@ public class TournamentServiceTest {
 
         return tournaments;
     }
+
+    @Test
+    public void getPlayerResultsMapsProjectedResults() {
+
+        //given
+        Player player = TestEntityGenerator.generatePlayer(false, true, false);
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, true, 20);
+        PlayerResult playerResult = new PlayerResult("result-key",
+                player.getUserKey(), player.getEmail(), player.getFirstName(), player.getLastName(), 1.5,
+                "opponent-key", "opponent@mail.com", "Opponent", "Player", 1,
+                Result.FIRST, Result.FIRST, Result.FIRST);
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(playerRepository.findByUserKey(player.getUserKey())).thenReturn(Optional.of(player));
+        when(matchPlayerRepository.findPlayerResults(tournament, player)).thenReturn(Collections.singletonList(playerResult));
+
+        //when
+
+        List<MatchResultJSON> results = tournamentService.getPlayerResults(tournament.getTournamentKey(), player.getUserKey());
+
+        //then
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getKey()).isEqualTo("result-key");
+        assertThat(results.get(0).getFirstPlayer().getPlayerKey()).isEqualTo(player.getUserKey());
+        assertThat(results.get(0).getSecondPlayer().getPlayerKey()).isEqualTo("opponent-key");
+        assertThat(results.get(0).getFinalResult()).isEqualTo(Result.FIRST.getValue());
+    }
 }
@@ -0,0 +1,164 @@
+package com.api.service;
+
+import com.api.entities.Tournament;
+import com.api.entities.TournamentStartJob;
+import com.api.model.GameState;
+import com.api.model.JobState;
+import com.api.output.TournamentStartJobJSON;
+import com.api.repository.TournamentRepository;
+import com.api.repository.TournamentStartJobRepository;
+import com.util.TestEntityGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TournamentStartJobServiceTest {
+
+    @InjectMocks
+    private TournamentStartJobService tournamentStartJobService;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private TournamentStartJobRepository tournamentStartJobRepository;
+
+    @Mock
+    private TournamentService tournamentService;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Test
+    public void createJobSuccessfully() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, 20);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(7));
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(tournamentStartJobRepository.findTopByTournamentAndStateIn(eq(tournament), anyCollection())).thenReturn(Optional.empty());
+
+        //when
+        TournamentStartJobJSON result = tournamentStartJobService.createJob(tournament.getTournamentKey());
+
+        //then
+        verify(tournamentStartJobRepository).save(any(TournamentStartJob.class));
+        assertThat(result.getJobKey()).isNotNull();
+        assertThat(result.getTournamentKey()).isEqualTo(tournament.getTournamentKey());
+        assertThat(result.getState()).isEqualTo(JobState.PENDING.name());
+        assertThat(tournament.isRegistrationOpen()).isFalse();
+        assertThat(tournament.getState()).isEqualTo(GameState.CREATED);
+    }
+
+    @Test
+    public void createJobReturnsUnfinishedJob() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, false, 20);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(7));
+        TournamentStartJob job = TournamentStartJob.builder()
+                .jobKey("job key")
+                .tournament(tournament)
+                .state(JobState.RUNNING)
+                .roundsWritten(3)
+                .build();
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(tournamentStartJobRepository.findTopByTournamentAndStateIn(eq(tournament), anyCollection())).thenReturn(Optional.of(job));
+
+        //when
+        TournamentStartJobJSON result = tournamentStartJobService.createJob(tournament.getTournamentKey());
+
+        //then
+        verify(tournamentStartJobRepository, never()).save(any());
+        assertThat(result.getJobKey()).isEqualTo(job.getJobKey());
+        assertThat(result.getState()).isEqualTo(JobState.RUNNING.name());
+        assertThat(result.getRoundsWritten()).isEqualTo(3);
+    }
+
+    @Test
+    public void createJobFailAlreadyStarted() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ACTIVE, false, 20);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(7));
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+
+        //when
+        Throwable throwable = catchThrowable(() -> tournamentStartJobService.createJob(tournament.getTournamentKey()));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class);
+        assertThat(((HttpClientErrorException) throwable).getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        verify(tournamentStartJobRepository, never()).save(any());
+    }
+
+    @Test
+    public void createJobFailWhileRatingsAreRecomputed() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, 20);
+        tournament.setPlayers(TestEntityGenerator.generatePlayerList(7));
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+        when(ratingService.isRecomputing()).thenReturn(true);
+
+        //when
+        Throwable throwable = catchThrowable(() -> tournamentStartJobService.createJob(tournament.getTournamentKey()));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class)
+                .hasMessage("422 Tournaments cannot be started while ratings are being recomputed!");
+        verify(tournamentStartJobRepository, never()).save(any());
+        assertThat(tournament.isRegistrationOpen()).isTrue();
+    }
+
+    @Test
+    public void createJobFailAlreadyEnded() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.ENDED, false, 20);
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.of(tournament));
+
+        //when
+        Throwable throwable = catchThrowable(() -> tournamentStartJobService.createJob(tournament.getTournamentKey()));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("422 Tournament has already ended!");
+        verify(tournamentStartJobRepository, never()).save(any());
+    }
+
+    @Test
+    public void createJobFailTournamentNotFound() {
+
+        //given
+        Tournament tournament = TestEntityGenerator.generateTournament(GameState.CREATED, true, 20);
+
+        when(tournamentRepository.findByTournamentKey(tournament.getTournamentKey())).thenReturn(Optional.empty());
+
+        //when
+        Throwable throwable = catchThrowable(() -> tournamentStartJobService.createJob(tournament.getTournamentKey()));
+
+        //then
+        assertThat(throwable).isInstanceOf(HttpClientErrorException.class).hasMessage("404 Tournament not found");
+    }
+}
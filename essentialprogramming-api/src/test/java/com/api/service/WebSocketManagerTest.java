@@ -0,0 +1,88 @@
+package com.api.service;
+
+import com.api.websocket.Topics;
+import io.undertow.websockets.core.WebSocketChannel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xnio.ChannelListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WebSocketManagerTest {
+
+    @Test
+    public void closedChannelLeavesSessionsAndTopics() {
+
+        //given
+        int sessionsCount = WebSocketManager.getSessionsCount();
+        int topicsCount = WebSocketManager.getSubscribedTopicsCount();
+        String topic = Topics.tournament("closed channel tournament");
+        WebSocketChannel channel = mockChannel(true);
+
+        //when
+        WebSocketManager.connect("user key", channel);
+        WebSocketManager.subscribe(channel, topic);
+        WebSocketManager.subscribe(channel, Topics.match("closed channel match"));
+
+        //then
+        assertThat(WebSocketManager.getSessionsCount()).isEqualTo(sessionsCount + 1);
+        assertThat(WebSocketManager.getSubscribedTopicsCount()).isEqualTo(topicsCount + 2);
+        assertThat(WebSocketManager.hasSubscribers(topic)).isTrue();
+        verify(channel).resumeReceives();
+
+        //when
+        close(channel);
+
+        //then
+        assertThat(WebSocketManager.getSessionsCount()).isEqualTo(sessionsCount);
+        assertThat(WebSocketManager.getSubscribedTopicsCount()).isEqualTo(topicsCount);
+        assertThat(WebSocketManager.hasSubscribers(topic)).isFalse();
+    }
+
+    @Test
+    public void channelClosedWhileConnectingIsNotKept() {
+
+        //given
+        int sessionsCount = WebSocketManager.getSessionsCount();
+        WebSocketChannel channel = mockChannel(false);
+
+        //when
+        WebSocketManager.connect("user key", channel);
+
+        //then
+        assertThat(WebSocketManager.getSessionsCount()).isEqualTo(sessionsCount);
+        verify(channel, never()).resumeReceives();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WebSocketChannel mockChannel(boolean open) {
+        WebSocketChannel channel = mock(WebSocketChannel.class);
+        Map<String, Object> attributes = new HashMap<>();
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(channel).setAttribute(anyString(), any());
+        when(channel.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)));
+        when(channel.isOpen()).thenReturn(open);
+        if (open) {
+            when(channel.getReceiveSetter()).thenReturn(mock(ChannelListener.Setter.class));
+        }
+        return channel;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void close(WebSocketChannel channel) {
+        ArgumentCaptor<ChannelListener<WebSocketChannel>> closeTask = ArgumentCaptor.forClass(ChannelListener.class);
+        verify(channel).addCloseTask(closeTask.capture());
+        when(channel.isOpen()).thenReturn(false);
+        closeTask.getValue().handleEvent(channel);
+    }
+}
@@ -0,0 +1,69 @@
+package com.api.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CoalescerTest {
+
+    @Test
+    public void changesWithinIntervalAreFlushedOnce() {
+
+        //given
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        List<String> flushed = new ArrayList<>();
+        Coalescer<String> coalescer = new Coalescer<>(scheduler, 500, flushed::add);
+
+        //when
+        for (int change = 0; change < 1000; change++) {
+            coalescer.changed("first");
+            coalescer.changed("second");
+        }
+
+        //then
+        ArgumentCaptor<Runnable> flushes = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(flushes.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        assertThat(coalescer.getPendingCount()).isEqualTo(2);
+
+        //when
+        flushes.getAllValues().forEach(Runnable::run);
+
+        //then
+        assertThat(flushed).containsExactly("first", "second");
+        assertThat(coalescer.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void changeAfterFlushSchedulesNextFlush() {
+
+        //given
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        List<String> flushed = new ArrayList<>();
+        Coalescer<String> coalescer = new Coalescer<>(scheduler, 500, key -> {
+            flushed.add(key);
+            throw new IllegalStateException("Push failed");
+        });
+        coalescer.changed("first");
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+
+        //when
+        flush.getValue().run();
+        coalescer.changed("first");
+
+        //then
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(500L), eq(TimeUnit.MILLISECONDS));
+        assertThat(flushed).containsExactly("first");
+    }
+}
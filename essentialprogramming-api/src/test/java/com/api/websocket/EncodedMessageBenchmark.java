@@ -0,0 +1,87 @@
+package com.api.websocket;
+
+import com.util.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EncodedMessageBenchmark {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int RUNS = 9;
+
+    @Test
+    public void fanOutCostsAboutAWritePerSubscriber() {
+
+        //given
+        Benchmark benchmark = Benchmark.of("WebSocket fan-out");
+        String text = tournamentLikeText();
+        EncodedMessage message = EncodedMessage.of(text);
+        ByteBuffer encoded = message.payload();
+        ByteBuffer socket = ByteBuffer.allocateDirect(message.size());
+        OutboundQueue[] subscribers = subscribers(sent -> {
+            socket.clear();
+            socket.put(sent.payload());
+        });
+
+        //when
+        long writeNanos = benchmark.medianNanos(RUNS, () -> {
+            for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+                encoded.rewind();
+                socket.clear();
+                socket.put(encoded);
+            }
+        }) / SUBSCRIBERS;
+        long fanOutNanos = benchmark.medianNanos(RUNS, () -> {
+            EncodedMessage published = EncodedMessage.of(text);
+            for (OutboundQueue subscriber : subscribers) {
+                subscriber.offer(null, published);
+            }
+        }) / SUBSCRIBERS;
+        long encodePerSubscriberNanos = benchmark.medianNanos(RUNS, () -> {
+            for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+                socket.clear();
+                socket.put(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+            }
+        }) / SUBSCRIBERS;
+
+        //then
+        benchmark.report("%d bytes to %d subscribers, per subscriber: write %d ns, fan-out through the outbound "
+                        + "queues %d ns, encoding for every subscriber %d ns", message.size(), SUBSCRIBERS, writeNanos,
+                fanOutNanos, encodePerSubscriberNanos);
+        assertThat(fanOutNanos).isLessThanOrEqualTo(2 * writeNanos);
+        assertThat(fanOutNanos).isLessThan(encodePerSubscriberNanos);
+    }
+
+    /**
+     * @return idle outbound queues whose sends complete at once, as they do for a socket with room to write
+     */
+    private static OutboundQueue[] subscribers(Consumer<EncodedMessage> write) {
+        OutboundMetrics metrics = new OutboundMetrics();
+        OutboundQueue[] subscribers = new OutboundQueue[SUBSCRIBERS];
+        for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+            OutboundQueue[] outbound = new OutboundQueue[1];
+            outbound[0] = new OutboundQueue(16, SlowConsumerPolicy.DROP_OLDEST, sent -> {
+                write.accept(sent);
+                outbound[0].sent();
+            }, () -> {
+            }, metrics);
+            subscribers[subscriber] = outbound[0];
+        }
+        return subscribers;
+    }
+
+    private static String tournamentLikeText() {
+        StringBuilder text = new StringBuilder("{\"name\":\"Cupa României\",\"players\":[");
+        for (int player = 0; player < 200; player++) {
+            text.append("{\"userKey\":\"key-").append(player)
+                    .append("\",\"firstName\":\"Ștefan\",\"lastName\":\"Bălan-").append(player)
+                    .append("\",\"score\":").append(player % 7).append(".5},");
+        }
+        return text.append("]}").toString();
+    }
+}
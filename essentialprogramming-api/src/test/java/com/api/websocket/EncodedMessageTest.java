@@ -0,0 +1,29 @@
+package com.api.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EncodedMessageTest {
+
+    @Test
+    public void payloadsAreIndependentReadOnlyViews() {
+
+        //given
+        EncodedMessage message = EncodedMessage.of("Ștefan won!");
+
+        //when
+        ByteBuffer first = message.payload();
+        first.get(new byte[first.remaining()]);
+        ByteBuffer second = message.payload();
+
+        //then
+        assertThat(first.isReadOnly()).isTrue();
+        assertThat(first.remaining()).isZero();
+        assertThat(second.remaining()).isEqualTo(message.size());
+        assertThat(StandardCharsets.UTF_8.decode(second).toString()).isEqualTo("Ștefan won!");
+    }
+}
@@ -0,0 +1,143 @@
+package com.api.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutboundQueueTest {
+
+    private static final int CAPACITY = 16;
+
+    @Test
+    public void slowSessionDoesNotHoldUpTheOthers() {
+
+        //given
+        OutboundMetrics metrics = new OutboundMetrics();
+        List<OutboundQueue> fastSessions = new ArrayList<>();
+        List<List<EncodedMessage>> fastReceived = new ArrayList<>();
+        for (int session = 0; session < 10; session++) {
+            List<EncodedMessage> received = new ArrayList<>();
+            OutboundQueue[] outbound = new OutboundQueue[1];
+            outbound[0] = new OutboundQueue(CAPACITY, SlowConsumerPolicy.DROP_OLDEST, message -> {
+                received.add(message);
+                outbound[0].sent();
+            }, () -> {
+            }, metrics);
+            fastSessions.add(outbound[0]);
+            fastReceived.add(received);
+        }
+        List<EncodedMessage> slowReceived = new ArrayList<>();
+        OutboundQueue slowSession = new OutboundQueue(CAPACITY, SlowConsumerPolicy.DROP_OLDEST, slowReceived::add, () -> {
+        }, metrics);
+
+        //when
+        int messages = 100_000;
+        for (int message = 0; message < messages; message++) {
+            EncodedMessage encoded = EncodedMessage.of("result " + message);
+            slowSession.offer(null, encoded);
+            for (OutboundQueue fastSession : fastSessions) {
+                fastSession.offer(null, encoded);
+            }
+        }
+
+        //then
+        assertThat(fastReceived).allSatisfy(received -> assertThat(received).hasSize(messages));
+        assertThat(slowReceived).hasSize(1);
+        assertThat(slowSession.getDepth()).isEqualTo(CAPACITY);
+        assertThat(metrics.getQueuedCount()).isEqualTo(CAPACITY);
+        assertThat(metrics.getDroppedCount()).isEqualTo(messages - 1 - CAPACITY);
+
+        //when
+        for (int message = 0; message < CAPACITY; message++) {
+            slowSession.sent();
+        }
+
+        //then the slow session catches up with the latest messages
+        assertThat(texts(slowReceived.subList(1, slowReceived.size())))
+                .containsExactlyElementsOf(texts(fastReceived.get(0).subList(messages - CAPACITY, messages)));
+        assertThat(metrics.getQueuedCount()).isZero();
+    }
+
+    @Test
+    public void coalesceByTopicQueuesNewSnapshotBehindOlderMessages() {
+
+        //given
+        OutboundMetrics metrics = new OutboundMetrics();
+        List<EncodedMessage> received = new ArrayList<>();
+        OutboundQueue outbound = new OutboundQueue(2, SlowConsumerPolicy.COALESCE_BY_TOPIC, received::add, () -> {
+        }, metrics);
+        outbound.offer(null, EncodedMessage.of("result 1"));
+        outbound.offer("state a", EncodedMessage.of("state a1"));
+        outbound.offer(null, EncodedMessage.of("result 2"));
+
+        //when
+        outbound.offer("state a", EncodedMessage.of("state a2"));
+        outbound.sent();
+        outbound.sent();
+
+        //then
+        assertThat(texts(received)).containsExactly("result 1", "result 2", "state a2");
+        assertThat(metrics.getCoalescedCount()).isEqualTo(1);
+        assertThat(metrics.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void coalesceByTopicDropsOldestWithoutSnapshotOfSameKey() {
+
+        //given
+        OutboundMetrics metrics = new OutboundMetrics();
+        List<EncodedMessage> received = new ArrayList<>();
+        OutboundQueue outbound = new OutboundQueue(2, SlowConsumerPolicy.COALESCE_BY_TOPIC, received::add, () -> {
+        }, metrics);
+        outbound.offer(null, EncodedMessage.of("result 1"));
+        outbound.offer(null, EncodedMessage.of("result 2"));
+        outbound.offer("state b", EncodedMessage.of("state b1"));
+
+        //when
+        outbound.offer("state a", EncodedMessage.of("state a1"));
+        outbound.sent();
+        outbound.sent();
+
+        //then
+        assertThat(texts(received)).containsExactly("result 1", "state b1", "state a1");
+        assertThat(metrics.getCoalescedCount()).isZero();
+        assertThat(metrics.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void disconnectClosesFullQueue() {
+
+        //given
+        OutboundMetrics metrics = new OutboundMetrics();
+        AtomicBoolean disconnected = new AtomicBoolean();
+        List<EncodedMessage> received = new ArrayList<>();
+        OutboundQueue outbound = new OutboundQueue(1, SlowConsumerPolicy.DISCONNECT, received::add,
+                () -> disconnected.set(true), metrics);
+        outbound.offer(null, EncodedMessage.of("1"));
+        outbound.offer(null, EncodedMessage.of("2"));
+
+        //when
+        outbound.offer(null, EncodedMessage.of("3"));
+        outbound.offer(null, EncodedMessage.of("4"));
+        outbound.sent();
+
+        //then
+        assertThat(disconnected).isTrue();
+        assertThat(texts(received)).containsExactly("1");
+        assertThat(outbound.getDepth()).isZero();
+        assertThat(metrics.getQueuedCount()).isZero();
+        assertThat(metrics.getDisconnectedCount()).isEqualTo(1);
+    }
+
+    private static List<String> texts(List<EncodedMessage> messages) {
+        return messages.stream()
+                .map(message -> StandardCharsets.UTF_8.decode(message.payload()).toString())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.api.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SessionRegistryTest {
+
+    @Test
+    public void unregisterRemovesUserWithItsLastSession() {
+
+        //given
+        SessionRegistry<Object> registry = new SessionRegistry<>();
+        Object first = new Object();
+        Object second = new Object();
+        registry.register("user", first);
+        registry.register("user", second);
+        registry.register("user", second);
+
+        //when
+        registry.unregister("user", first);
+
+        //then
+        assertThat(registry.getSessions("user")).containsExactly(second);
+        assertThat(registry.getSessionsCount()).isEqualTo(1);
+
+        //when
+        registry.unregister("user", second);
+        registry.unregister("user", second);
+
+        //then
+        assertThat(registry.getSessions("user")).isEmpty();
+        assertThat(registry.getSessionsCount()).isZero();
+        assertThat(registry.getUsersCount()).isZero();
+    }
+
+    @Test
+    public void connectDisconnectCyclesLeaveNothingBehind() throws Exception {
+
+        //given
+        SessionRegistry<Object> registry = new SessionRegistry<>();
+        int threads = 4;
+        int cycles = 100_000;
+        AtomicBoolean connecting = new AtomicBoolean(true);
+        AtomicInteger mostSessionsSeen = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+
+        //when
+        List<Future<?>> clients = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int offset = thread;
+            clients.add(executor.submit(() -> {
+                for (int cycle = offset; cycle < cycles; cycle += threads) {
+                    String key = "user-" + cycle % 1000;
+                    Object session = new Object();
+                    registry.register(key, session);
+                    registry.unregister(key, session);
+                }
+            }));
+        }
+        Future<?> broadcaster = executor.submit(() -> {
+            while (connecting.get()) {
+                AtomicInteger sessions = new AtomicInteger();
+                registry.forEach(session -> sessions.incrementAndGet());
+                mostSessionsSeen.accumulateAndGet(sessions.get(), Math::max);
+            }
+        });
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        connecting.set(false);
+        broadcaster.get();
+        executor.shutdown();
+
+        //then
+        assertThat(registry.getSessionsCount()).isZero();
+        assertThat(registry.getUsersCount()).isZero();
+        assertThat(mostSessionsSeen.get()).isLessThanOrEqualTo(threads);
+    }
+}
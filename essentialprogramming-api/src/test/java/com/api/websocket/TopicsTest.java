@@ -0,0 +1,19 @@
+package com.api.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TopicsTest {
+
+    @Test
+    public void onlyTournamentAndMatchTopicsAreValid() {
+
+        //then
+        assertThat(Topics.isValid(Topics.tournament("key"))).isTrue();
+        assertThat(Topics.isValid(Topics.match("key"))).isTrue();
+        assertThat(Topics.isValid("tournament:")).isFalse();
+        assertThat(Topics.isValid("user:key")).isFalse();
+        assertThat(Topics.isValid(Topics.tournament(new String(new char[200]).replace('\0', 'k')))).isFalse();
+    }
+}
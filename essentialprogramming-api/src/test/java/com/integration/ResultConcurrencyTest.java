@@ -0,0 +1,116 @@
+package com.integration;
+
+import com.api.model.Result;
+import com.api.repository.TournamentUserRepository;
+import com.api.service.HeadToHeadService;
+import com.api.service.LeaderboardService;
+import com.api.service.PlayerStatsService;
+import com.api.service.RatingService;
+import com.api.service.ResultService;
+import com.config.JPAConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Settles thousands of results of the same few players at once against the database, to check that the scores
+ * they add up to are not lost to concurrent updates and that locking both players never deadlocks.
+ */
+public class ResultConcurrencyTest {
+
+    private static final int PLAYERS = 10;
+    private static final int REPORTS = 5000;
+    private static final int THREADS = 32;
+
+    private static AnnotationConfigApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+    private static int tournamentId;
+    private static final int[] playerIds = new int[PLAYERS];
+
+    @BeforeAll
+    public static void setup() {
+        context = new AnnotationConfigApplicationContext(JPAConfig.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        String key = UUID.randomUUID().toString();
+        tournamentId = jdbcTemplate.queryForObject("INSERT INTO tournament (name, state, tournament_key, " +
+                "registration_open, max_participants_no) VALUES (?, 'ACTIVE', ?, false, ?) RETURNING id",
+                Integer.class, "Concurrent results", key, PLAYERS);
+        for (int player = 0; player < PLAYERS; player++) {
+            playerIds[player] = jdbcTemplate.queryForObject("INSERT INTO users (email, firstname, lastname, user_key, " +
+                    "type, score) VALUES (?, ?, ?, ?, 'player', 0) RETURNING id", Integer.class,
+                    "concurrent" + player + "-" + key.substring(0, 8) + "@results.test", "player", String.valueOf(player),
+                    key + "-" + player);
+            jdbcTemplate.update("INSERT INTO tournament_user (tournament_id, user_id, score) VALUES (?, ?, 0)",
+                    tournamentId, playerIds[player]);
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() {
+        jdbcTemplate.update("DELETE FROM tournament_user WHERE tournament_id = ?", tournamentId);
+        for (int playerId : playerIds) {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", playerId);
+        }
+        jdbcTemplate.update("DELETE FROM tournament WHERE id = ?", tournamentId);
+        context.close();
+    }
+
+    @Test
+    public void concurrentResultsOfSharedPlayersLoseNoPoints() throws Exception {
+
+        //given
+        ResultService resultService = new ResultService(context.getBean(TournamentUserRepository.class),
+                mock(LeaderboardService.class), mock(RatingService.class), mock(PlayerStatsService.class),
+                mock(HeadToHeadService.class));
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Result[] results = Result.values();
+        double[] expected = new double[PLAYERS];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> reports = new ArrayList<>(REPORTS);
+
+        //when
+        for (int report = 0; report < REPORTS; report++) {
+            int first = report % PLAYERS;
+            int second = (first + 1 + report / PLAYERS % (PLAYERS - 1)) % PLAYERS;
+            Result result = results[report % results.length];
+            expected[first] += Result.FIRST.equals(result) ? 1 : Result.DRAW.equals(result) ? 0.5 : 0;
+            expected[second] += Result.SECOND.equals(result) ? 1 : Result.DRAW.equals(result) ? 0.5 : 0;
+
+            int matchId = report;
+            reports.add(executor.submit(() -> transaction.executeWithoutResult(status -> resultService.applyResults(
+                    matchId, playerIds[first], playerIds[second], result, tournamentId))));
+        }
+        for (Future<?> report : reports) {
+            report.get();
+        }
+        executor.shutdown();
+
+        //then
+        double total = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            Double score = jdbcTemplate.queryForObject("SELECT score FROM users WHERE id = ?", Double.class, playerIds[player]);
+            Double tournamentScore = jdbcTemplate.queryForObject("SELECT score FROM tournament_user " +
+                    "WHERE tournament_id = ? AND user_id = ?", Double.class, tournamentId, playerIds[player]);
+            assertThat(score).isEqualTo(expected[player]);
+            assertThat(tournamentScore).isEqualTo(expected[player]);
+            total += tournamentScore;
+        }
+        //Every game hands out one point in total
+        assertThat(total).isEqualTo(REPORTS);
+    }
+}
@@ -18,11 +18,15 @@ import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.fail;
 
 public class TournamentTest {
 
     private static final int NO_OF_TOURNAMENT_PLAYERS = 4;
     private static final int MAX_TOURNAMENT_PARTICIPANTS = 200;
+    private static final int START_POLLS = 50;
+    private static final long START_POLL_INTERVAL_MILLIS = 200;
 
     private static String superAdminAccessToken;
     private static String playerAccessToken;
@@ -58,7 +62,7 @@ public class TournamentTest {
     }
 
     @Test
-    public void create_get_start_end_delete_tournament() {
+    public void create_get_start_end_delete_tournament() throws InterruptedException {
         TournamentInput tournamentInput = TestEntityGenerator.generateTournamentInput(true);
         tournamentInput.setMaxParticipantsNo(MAX_TOURNAMENT_PARTICIPANTS);
 
@@ -218,7 +222,7 @@ public class TournamentTest {
                                     .body("userKey", equalTo(key)));
 
         //startTournament
-        given()
+        String jobKey = given()
                 .accept(ContentType.JSON)
                 .contentType(ContentType.JSON)
                 .header("Authorization", superAdminAccessToken)
@@ -227,7 +231,11 @@ public class TournamentTest {
                 .post("/tournament/start")
         .then()
                 .assertThat()
-                .statusCode(200);
+                .statusCode(202)
+        .extract()
+                .path("jobKey");
+
+        awaitStart(jobKey);
 
         //endTournament
         given()
@@ -266,6 +274,32 @@ public class TournamentTest {
                 .body("message", equalTo("Tournament and associated relations has been deleted."));
     }
 
+    /**
+     * Polls the start job until it completes, since the tournament cannot be ended before it started.
+     */
+    private static void awaitStart(String jobKey) throws InterruptedException {
+        for (int poll = 0; poll < START_POLLS; poll++) {
+            String state = given()
+                    .accept(ContentType.JSON)
+                    .header("Authorization", superAdminAccessToken)
+                    .queryParam("job_key", jobKey)
+            .when()
+                    .get("/tournament/start/status")
+            .then()
+                    .assertThat()
+                    .statusCode(200)
+            .extract()
+                    .path("state");
+
+            if ("COMPLETED".equals(state)) {
+                return;
+            }
+            assertNotEquals("FAILED", state, "The start job failed");
+            Thread.sleep(START_POLL_INTERVAL_MILLIS);
+        }
+        fail("The start job did not complete in time");
+    }
+
     @AfterAll
     public static void afterAll() {
         RestAssured.reset();
@@ -0,0 +1,52 @@
+package com.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the operations of the *Benchmark classes, which only run with the benchmark profile:
+ * {@code mvn test -Pbenchmark}. An operation is run a few times to warm up the JIT before it is measured, and the
+ * figures are printed to the console, as the point of a benchmark is to read them.
+ */
+public final class Benchmark {
+
+    private static final int WARM_UP_RUNS = 5;
+
+    private final String name;
+
+    private Benchmark(String name) {
+        this.name = name;
+    }
+
+    public static Benchmark of(String name) {
+        return new Benchmark(name);
+    }
+
+    /**
+     * Runs the operation {@value #WARM_UP_RUNS} times, then the given number of times, each timed on its own.
+     *
+     * @return the median run, in nanoseconds
+     */
+    public long medianNanos(int runs, Runnable operation) {
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            operation.run();
+        }
+        long[] nanos = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            operation.run();
+            nanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[runs / 2];
+    }
+
+    public void report(String format, Object... args) {
+        System.out.println("[" + name + "] " + String.format(Locale.ROOT, format, args));
+    }
+
+    public static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
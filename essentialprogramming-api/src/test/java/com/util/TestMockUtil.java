@@ -35,7 +35,7 @@ public class TestMockUtil {
     public static MockedStatic<WebSocketManager> mockStaticWSM() {
 
         MockedStatic<WebSocketManager> wsMockStatic = Mockito.mockStatic(WebSocketManager.class);
-        wsMockStatic.when(() -> WebSocketManager.sendMessage(anyString())).thenAnswer((Answer<Void>) invocation -> null);
+        wsMockStatic.when(() -> WebSocketManager.publish(anyString(), any())).thenAnswer((Answer<Void>) invocation -> null);
         return wsMockStatic;
     }
 